@@ -7,6 +7,7 @@ import javax.swing.JOptionPane;
 import javax.swing.SwingUtilities;
 
 import com.carrental.gui.LoginFrame;
+import com.carrental.service.RentalService;
 import com.carrental.util.DatabaseManager;
 
 /**
@@ -18,9 +19,15 @@ import com.carrental.util.DatabaseManager;
 public class Main {
 
   public static void main(String[] args) {
+    if (args.length > 0 && "--rebuild-revenue".equals(args[0])) {
+      rebuildRevenue();
+      return;
+    }
+
     // Initialize database
     try {
       DatabaseManager.initializeDatabase();
+      Runtime.getRuntime().addShutdownHook(new Thread(DatabaseManager::closeConnection));
       System.out.println("Database initialized successfully");
     } catch (Exception e) {
       JOptionPane.showMessageDialog(null,
@@ -56,4 +63,25 @@ public class Main {
       }
     });
   }
+
+  /**
+   * Recompute the daily revenue rollup and exit, without starting the GUI
+   */
+  private static void rebuildRevenue() {
+    boolean rebuilt = false;
+    try {
+      DatabaseManager.initializeDatabase();
+      int rows = new RentalService().rebuildRevenueRollup();
+      System.out.println("Daily revenue rollup rebuilt: " + rows + " row(s)");
+      rebuilt = true;
+    } catch (Exception e) {
+      System.err.println("Daily revenue rebuild failed: " + e.getMessage());
+    } finally {
+      DatabaseManager.closeConnection();
+    }
+
+    if (!rebuilt) {
+      System.exit(1);
+    }
+  }
 }
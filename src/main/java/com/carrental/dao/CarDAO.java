@@ -1,5 +1,6 @@
 package com.carrental.dao;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -7,10 +8,18 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import com.carrental.model.Car;
+import com.carrental.model.Page;
+import com.carrental.util.BatchInsert;
 import com.carrental.util.DatabaseManager;
+import com.carrental.util.KeysetPager;
+import com.carrental.util.RowHandler;
 
 /**
  * Data Access Object for Car entity
@@ -20,14 +29,24 @@ import com.carrental.util.DatabaseManager;
  */
 public class CarDAO {
 
+  // Stay well below SQLite's limit on bound parameters per statement
+  private static final int MAX_IN_PARAMETERS = 500;
+
   /**
    * Create a new car
    */
   public boolean createCar(Car car) throws SQLException {
-    String query = "INSERT INTO cars (make, model, year, license_plate, color, status, daily_rate) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    return DatabaseManager.executeWrite(conn -> createCarWithConnection(car, conn));
+  }
 
-    try (Connection conn = DatabaseManager.getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(query)) {
+  /**
+   * Create a new car with provided connection (for transaction management)
+   */
+  public boolean createCarWithConnection(Car car, Connection connection) throws SQLException {
+    String query = "INSERT INTO cars (make, model, year, license_plate, color, status, daily_rate) VALUES (?, ?, ?, ?, ?, ?, ?)"
+        + " RETURNING id, status, created_date";
+
+    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
 
       pstmt.setString(1, car.getMake());
       pstmt.setString(2, car.getModel());
@@ -37,16 +56,16 @@ public class CarDAO {
       pstmt.setString(6, car.getStatus());
       pstmt.setBigDecimal(7, car.getDailyRate());
 
-      int affectedRows = pstmt.executeUpdate();
-
-      if (affectedRows > 0) {
-        // Get the generated ID using last_insert_rowid() for SQLite
-        try (Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
-          if (rs.next()) {
-            car.setId(rs.getInt(1));
-            return true;
+      // RETURNING hands back the generated ID and column defaults from the insert itself
+      try (ResultSet rs = pstmt.executeQuery()) {
+        if (rs.next()) {
+          car.setId(rs.getInt("id"));
+          car.setStatus(rs.getString("status"));
+          Timestamp createdDate = rs.getTimestamp("created_date");
+          if (createdDate != null) {
+            car.setCreatedDate(createdDate.toLocalDateTime());
           }
+          return true;
         }
       }
     }
@@ -54,6 +73,38 @@ public class CarDAO {
     return false;
   }
 
+  /**
+   * Create many cars in one transaction using JDBC batches of the configured size
+   */
+  public int createCars(List<Car> cars) throws SQLException {
+    return createCars(cars, DatabaseManager.getConfig().getBatchSize());
+  }
+
+  /**
+   * Create many cars in one transaction, sending chunkSize rows per batch.
+   * Generated ids are set on the given cars.
+   */
+  public int createCars(List<Car> cars, int chunkSize) throws SQLException {
+    return DatabaseManager.executeInTransaction(conn -> createCarsWithConnection(cars, chunkSize, conn));
+  }
+
+  /**
+   * Create many cars with provided connection (for transaction management)
+   */
+  public int createCarsWithConnection(List<Car> cars, int chunkSize, Connection connection) throws SQLException {
+    String query = "INSERT INTO cars (make, model, year, license_plate, color, status, daily_rate) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    return BatchInsert.insert(connection, query, cars, chunkSize, (pstmt, car) -> {
+      pstmt.setString(1, car.getMake());
+      pstmt.setString(2, car.getModel());
+      pstmt.setInt(3, car.getYear());
+      pstmt.setString(4, car.getLicensePlate());
+      pstmt.setString(5, car.getColor());
+      pstmt.setString(6, car.getStatus());
+      pstmt.setBigDecimal(7, car.getDailyRate());
+    }, Car::setId);
+  }
+
   /**
    * Get car by ID
    */
@@ -75,6 +126,36 @@ public class CarDAO {
     return null;
   }
 
+  /**
+   * Get the cars with the given IDs using IN lists of at most 500 IDs per
+   * query. IDs with no matching row are left out of the result.
+   */
+  public List<Car> getCarsByIds(Collection<Integer> ids) throws SQLException {
+    List<Car> cars = new ArrayList<>();
+    List<Integer> values = new ArrayList<>(ids);
+
+    for (int start = 0; start < values.size(); start += MAX_IN_PARAMETERS) {
+      List<Integer> chunk = values.subList(start, Math.min(start + MAX_IN_PARAMETERS, values.size()));
+      String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+      String query = "SELECT * FROM cars WHERE id IN (" + placeholders + ")";
+
+      try (Connection conn = DatabaseManager.getConnection();
+          PreparedStatement pstmt = conn.prepareStatement(query)) {
+        for (int i = 0; i < chunk.size(); i++) {
+          pstmt.setInt(i + 1, chunk.get(i));
+        }
+
+        try (ResultSet rs = pstmt.executeQuery()) {
+          while (rs.next()) {
+            cars.add(mapResultSetToCar(rs));
+          }
+        }
+      }
+    }
+
+    return cars;
+  }
+
   /**
    * Get car by license plate
    */
@@ -104,8 +185,8 @@ public class CarDAO {
     String query = "SELECT * FROM cars ORDER BY created_date DESC";
 
     try (Connection conn = DatabaseManager.getConnection();
-        Statement stmt = conn.createStatement();
-        ResultSet rs = stmt.executeQuery(query)) {
+        PreparedStatement pstmt = conn.prepareStatement(query);
+        ResultSet rs = pstmt.executeQuery()) {
 
       while (rs.next()) {
         cars.add(mapResultSetToCar(rs));
@@ -115,6 +196,40 @@ public class CarDAO {
     return cars;
   }
 
+  /**
+   * Get one page of cars, newest first
+   *
+   * @param pageToken token from a previous page, or null for the first page
+   */
+  public Page<Car> getCarsPage(String pageToken, int pageSize) throws SQLException {
+    return KeysetPager.fetch("cars", pageToken, pageSize, this::mapResultSetToCar);
+  }
+
+  /**
+   * Stream every car to the handler in id order without building a list.
+   * The query reads through one forward-only cursor fetching fetchSize rows
+   * at a time, so memory use does not grow with the table.
+   */
+  public long forEachCar(int fetchSize, RowHandler<Car> handler) throws SQLException, IOException {
+    String query = "SELECT * FROM cars ORDER BY id";
+    long count = 0;
+
+    try (Connection conn = DatabaseManager.getConnection();
+        PreparedStatement pstmt = conn.prepareStatement(query)) {
+
+      pstmt.setFetchSize(fetchSize);
+
+      try (ResultSet rs = pstmt.executeQuery()) {
+        while (rs.next()) {
+          handler.handle(mapResultSetToCar(rs));
+          count++;
+        }
+      }
+    }
+
+    return count;
+  }
+
   /**
    * Get cars by status
    */
@@ -173,10 +288,16 @@ public class CarDAO {
    * Update car
    */
   public boolean updateCar(Car car) throws SQLException {
+    return DatabaseManager.executeWrite(conn -> updateCarWithConnection(car, conn));
+  }
+
+  /**
+   * Update car with provided connection (for transaction management)
+   */
+  public boolean updateCarWithConnection(Car car, Connection connection) throws SQLException {
     String query = "UPDATE cars SET make = ?, model = ?, year = ?, license_plate = ?, color = ?, status = ?, daily_rate = ? WHERE id = ?";
 
-    try (Connection conn = DatabaseManager.getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(query)) {
+    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
 
       pstmt.setString(1, car.getMake());
       pstmt.setString(2, car.getModel());
@@ -195,10 +316,16 @@ public class CarDAO {
    * Update car status
    */
   public boolean updateCarStatus(int carId, String status) throws SQLException {
+    return DatabaseManager.executeWrite(conn -> updateCarStatusWithConnection(carId, status, conn));
+  }
+
+  /**
+   * Update car status with provided connection (for transaction management)
+   */
+  public boolean updateCarStatusWithConnection(int carId, String status, Connection connection) throws SQLException {
     String query = "UPDATE cars SET status = ? WHERE id = ?";
 
-    try (Connection conn = DatabaseManager.getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(query)) {
+    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
 
       pstmt.setString(1, status);
       pstmt.setInt(2, carId);
@@ -208,15 +335,19 @@ public class CarDAO {
   }
 
   /**
-   * Update car status with provided connection (for transaction management)
+   * Change a car's status only if it currently has the expected one. Returns
+   * false if the car is missing or its status is different, e.g. because
+   * another terminal changed it first.
    */
-  public boolean updateCarStatusWithConnection(int carId, String status, Connection connection) throws SQLException {
-    String query = "UPDATE cars SET status = ? WHERE id = ?";
+  public boolean changeCarStatusWithConnection(int carId, String expectedStatus, String status,
+      Connection connection) throws SQLException {
+    String query = "UPDATE cars SET status = ? WHERE id = ? AND status = ?";
 
     try (PreparedStatement pstmt = connection.prepareStatement(query)) {
 
       pstmt.setString(1, status);
       pstmt.setInt(2, carId);
+      pstmt.setString(3, expectedStatus);
 
       return pstmt.executeUpdate() > 0;
     }
@@ -226,10 +357,16 @@ public class CarDAO {
    * Delete car
    */
   public boolean deleteCar(int id) throws SQLException {
+    return DatabaseManager.executeWrite(conn -> deleteCarWithConnection(id, conn));
+  }
+
+  /**
+   * Delete car with provided connection (for transaction management)
+   */
+  public boolean deleteCarWithConnection(int id, Connection connection) throws SQLException {
     String query = "DELETE FROM cars WHERE id = ?";
 
-    try (Connection conn = DatabaseManager.getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(query)) {
+    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
 
       pstmt.setInt(1, id);
 
@@ -258,6 +395,36 @@ public class CarDAO {
     return false;
   }
 
+  /**
+   * Find which of the given license plates already exist, with provided connection.
+   * Looks values up with IN lists of at most 500 parameters per query.
+   */
+  public Set<String> findExistingLicensePlatesWithConnection(Collection<String> licensePlates, Connection connection)
+      throws SQLException {
+    Set<String> existing = new HashSet<>();
+    List<String> values = new ArrayList<>(licensePlates);
+
+    for (int start = 0; start < values.size(); start += MAX_IN_PARAMETERS) {
+      List<String> chunk = values.subList(start, Math.min(start + MAX_IN_PARAMETERS, values.size()));
+      String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+      String query = "SELECT license_plate FROM cars WHERE license_plate IN (" + placeholders + ")";
+
+      try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+        for (int i = 0; i < chunk.size(); i++) {
+          pstmt.setString(i + 1, chunk.get(i));
+        }
+
+        try (ResultSet rs = pstmt.executeQuery()) {
+          while (rs.next()) {
+            existing.add(rs.getString(1));
+          }
+        }
+      }
+    }
+
+    return existing;
+  }
+
   /**
    * Map ResultSet to Car object
    */
@@ -1,5 +1,6 @@
 package com.carrental.dao;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -7,10 +8,18 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import com.carrental.model.Customer;
+import com.carrental.model.Page;
+import com.carrental.util.BatchInsert;
 import com.carrental.util.DatabaseManager;
+import com.carrental.util.KeysetPager;
+import com.carrental.util.RowHandler;
 
 /**
  * Data Access Object for Customer entity
@@ -20,30 +29,39 @@ import com.carrental.util.DatabaseManager;
  */
 public class CustomerDAO {
 
+  // Stay well below SQLite's limit on bound parameters per statement
+  private static final int MAX_IN_PARAMETERS = 500;
+
   /**
    * Create a new customer
    */
   public boolean createCustomer(Customer customer) throws SQLException {
-    String query = "INSERT INTO customers (name, email, phone, address) VALUES (?, ?, ?, ?)";
+    return DatabaseManager.executeWrite(conn -> createCustomerWithConnection(customer, conn));
+  }
 
-    try (Connection conn = DatabaseManager.getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(query)) {
+  /**
+   * Create a new customer with provided connection (for transaction management)
+   */
+  public boolean createCustomerWithConnection(Customer customer, Connection connection) throws SQLException {
+    String query = "INSERT INTO customers (name, email, phone, address) VALUES (?, ?, ?, ?)"
+        + " RETURNING id, created_date";
+
+    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
 
       pstmt.setString(1, customer.getName());
       pstmt.setString(2, customer.getEmail());
       pstmt.setString(3, customer.getPhone());
       pstmt.setString(4, customer.getAddress());
 
-      int affectedRows = pstmt.executeUpdate();
-
-      if (affectedRows > 0) {
-        // Get the generated ID using last_insert_rowid() for SQLite
-        try (Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
-          if (rs.next()) {
-            customer.setId(rs.getInt(1));
-            return true;
+      // RETURNING hands back the generated ID and column defaults from the insert itself
+      try (ResultSet rs = pstmt.executeQuery()) {
+        if (rs.next()) {
+          customer.setId(rs.getInt("id"));
+          Timestamp createdDate = rs.getTimestamp("created_date");
+          if (createdDate != null) {
+            customer.setCreatedDate(createdDate.toLocalDateTime());
           }
+          return true;
         }
       }
     }
@@ -51,6 +69,36 @@ public class CustomerDAO {
     return false;
   }
 
+  /**
+   * Create many customers in one transaction using JDBC batches of the configured size
+   */
+  public int createCustomers(List<Customer> customers) throws SQLException {
+    return createCustomers(customers, DatabaseManager.getConfig().getBatchSize());
+  }
+
+  /**
+   * Create many customers in one transaction, sending chunkSize rows per batch.
+   * Generated ids are set on the given customers.
+   */
+  public int createCustomers(List<Customer> customers, int chunkSize) throws SQLException {
+    return DatabaseManager.executeInTransaction(conn -> createCustomersWithConnection(customers, chunkSize, conn));
+  }
+
+  /**
+   * Create many customers with provided connection (for transaction management)
+   */
+  public int createCustomersWithConnection(List<Customer> customers, int chunkSize, Connection connection)
+      throws SQLException {
+    String query = "INSERT INTO customers (name, email, phone, address) VALUES (?, ?, ?, ?)";
+
+    return BatchInsert.insert(connection, query, customers, chunkSize, (pstmt, customer) -> {
+      pstmt.setString(1, customer.getName());
+      pstmt.setString(2, customer.getEmail());
+      pstmt.setString(3, customer.getPhone());
+      pstmt.setString(4, customer.getAddress());
+    }, Customer::setId);
+  }
+
   /**
    * Get customer by ID
    */
@@ -72,6 +120,36 @@ public class CustomerDAO {
     return null;
   }
 
+  /**
+   * Get the customers with the given IDs using IN lists of at most 500 IDs per
+   * query. IDs with no matching row are left out of the result.
+   */
+  public List<Customer> getCustomersByIds(Collection<Integer> ids) throws SQLException {
+    List<Customer> customers = new ArrayList<>();
+    List<Integer> values = new ArrayList<>(ids);
+
+    for (int start = 0; start < values.size(); start += MAX_IN_PARAMETERS) {
+      List<Integer> chunk = values.subList(start, Math.min(start + MAX_IN_PARAMETERS, values.size()));
+      String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+      String query = "SELECT * FROM customers WHERE id IN (" + placeholders + ")";
+
+      try (Connection conn = DatabaseManager.getConnection();
+          PreparedStatement pstmt = conn.prepareStatement(query)) {
+        for (int i = 0; i < chunk.size(); i++) {
+          pstmt.setInt(i + 1, chunk.get(i));
+        }
+
+        try (ResultSet rs = pstmt.executeQuery()) {
+          while (rs.next()) {
+            customers.add(mapResultSetToCustomer(rs));
+          }
+        }
+      }
+    }
+
+    return customers;
+  }
+
   /**
    * Get customer by email
    */
@@ -101,8 +179,8 @@ public class CustomerDAO {
     String query = "SELECT * FROM customers ORDER BY created_date DESC";
 
     try (Connection conn = DatabaseManager.getConnection();
-        Statement stmt = conn.createStatement();
-        ResultSet rs = stmt.executeQuery(query)) {
+        PreparedStatement pstmt = conn.prepareStatement(query);
+        ResultSet rs = pstmt.executeQuery()) {
 
       while (rs.next()) {
         customers.add(mapResultSetToCustomer(rs));
@@ -112,6 +190,40 @@ public class CustomerDAO {
     return customers;
   }
 
+  /**
+   * Get one page of customers, newest first
+   *
+   * @param pageToken token from a previous page, or null for the first page
+   */
+  public Page<Customer> getCustomersPage(String pageToken, int pageSize) throws SQLException {
+    return KeysetPager.fetch("customers", pageToken, pageSize, this::mapResultSetToCustomer);
+  }
+
+  /**
+   * Stream every customer to the handler in id order without building a list.
+   * The query reads through one forward-only cursor fetching fetchSize rows
+   * at a time, so memory use does not grow with the table.
+   */
+  public long forEachCustomer(int fetchSize, RowHandler<Customer> handler) throws SQLException, IOException {
+    String query = "SELECT * FROM customers ORDER BY id";
+    long count = 0;
+
+    try (Connection conn = DatabaseManager.getConnection();
+        PreparedStatement pstmt = conn.prepareStatement(query)) {
+
+      pstmt.setFetchSize(fetchSize);
+
+      try (ResultSet rs = pstmt.executeQuery()) {
+        while (rs.next()) {
+          handler.handle(mapResultSetToCustomer(rs));
+          count++;
+        }
+      }
+    }
+
+    return count;
+  }
+
   /**
    * Search customers by name, email, or phone
    */
@@ -143,17 +255,18 @@ public class CustomerDAO {
   public boolean updateCustomer(Customer customer) throws SQLException {
     String query = "UPDATE customers SET name = ?, email = ?, phone = ?, address = ? WHERE id = ?";
 
-    try (Connection conn = DatabaseManager.getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(query)) {
+    return DatabaseManager.executeWrite(conn -> {
+      try (PreparedStatement pstmt = conn.prepareStatement(query)) {
 
-      pstmt.setString(1, customer.getName());
-      pstmt.setString(2, customer.getEmail());
-      pstmt.setString(3, customer.getPhone());
-      pstmt.setString(4, customer.getAddress());
-      pstmt.setInt(5, customer.getId());
+        pstmt.setString(1, customer.getName());
+        pstmt.setString(2, customer.getEmail());
+        pstmt.setString(3, customer.getPhone());
+        pstmt.setString(4, customer.getAddress());
+        pstmt.setInt(5, customer.getId());
 
-      return pstmt.executeUpdate() > 0;
-    }
+        return pstmt.executeUpdate() > 0;
+      }
+    });
   }
 
   /**
@@ -162,13 +275,14 @@ public class CustomerDAO {
   public boolean deleteCustomer(int id) throws SQLException {
     String query = "DELETE FROM customers WHERE id = ?";
 
-    try (Connection conn = DatabaseManager.getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(query)) {
+    return DatabaseManager.executeWrite(conn -> {
+      try (PreparedStatement pstmt = conn.prepareStatement(query)) {
 
-      pstmt.setInt(1, id);
+        pstmt.setInt(1, id);
 
-      return pstmt.executeUpdate() > 0;
-    }
+        return pstmt.executeUpdate() > 0;
+      }
+    });
   }
 
   /**
@@ -192,6 +306,36 @@ public class CustomerDAO {
     return false;
   }
 
+  /**
+   * Find which of the given emails already exist, with provided connection.
+   * Looks values up with IN lists of at most 500 parameters per query.
+   */
+  public Set<String> findExistingEmailsWithConnection(Collection<String> emails, Connection connection)
+      throws SQLException {
+    Set<String> existing = new HashSet<>();
+    List<String> values = new ArrayList<>(emails);
+
+    for (int start = 0; start < values.size(); start += MAX_IN_PARAMETERS) {
+      List<String> chunk = values.subList(start, Math.min(start + MAX_IN_PARAMETERS, values.size()));
+      String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+      String query = "SELECT email FROM customers WHERE email IN (" + placeholders + ")";
+
+      try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+        for (int i = 0; i < chunk.size(); i++) {
+          pstmt.setString(i + 1, chunk.get(i));
+        }
+
+        try (ResultSet rs = pstmt.executeQuery()) {
+          while (rs.next()) {
+            existing.add(rs.getString(1));
+          }
+        }
+      }
+    }
+
+    return existing;
+  }
+
   /**
    * Map ResultSet to Customer object
    */
@@ -1,5 +1,6 @@
 package com.carrental.dao;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.Date;
@@ -10,27 +11,68 @@ import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.UnaryOperator;
 
+import com.carrental.model.Car;
+import com.carrental.model.Customer;
+import com.carrental.model.Page;
 import com.carrental.model.Rental;
+import com.carrental.model.RevenueBucket;
+import com.carrental.model.RevenueBucket.Granularity;
+import com.carrental.model.User;
+import com.carrental.util.BatchInsert;
 import com.carrental.util.DatabaseManager;
+import com.carrental.util.EntityChangeEvent;
+import com.carrental.util.KeysetPager;
+import com.carrental.util.RowHandler;
+import com.carrental.util.SchemaMigrator;
 
 /**
  * Data Access Object for Rental entity
+ *
+ * List and revenue reads go through the shared query cache, so repeating
+ * one costs a lookup until a table it reads changes.
  * 
  * @author Md Toriqul Islam
  * @version 1.0.0
  */
 public class RentalDAO {
 
+  // Tables read by the cached queries
+  private static final String[] DETAILS_TABLES = {
+      EntityChangeEvent.RENTALS, EntityChangeEvent.CARS, EntityChangeEvent.CUSTOMERS, EntityChangeEvent.USERS };
+  private static final String[] REVENUE_TABLES = { EntityChangeEvent.RENTALS, SchemaMigrator.DAILY_REVENUE };
+
+  // Rental columns plus the related rows, prefixed so they don't clash with the rental's own
+  private static final String RENTAL_DETAILS_QUERY = "SELECT r.*, "
+      + "c.make AS car_make, c.model AS car_model, c.year AS car_year, c.license_plate AS car_license_plate, "
+      + "c.color AS car_color, c.status AS car_status, c.daily_rate AS car_daily_rate, "
+      + "cu.name AS customer_name, cu.email AS customer_email, cu.phone AS customer_phone, "
+      + "cu.address AS customer_address, "
+      + "u.username AS staff_username, u.role AS staff_role "
+      + "FROM rentals r "
+      + "LEFT JOIN cars c ON c.id = r.car_id "
+      + "LEFT JOIN customers cu ON cu.id = r.customer_id "
+      + "LEFT JOIN users u ON u.id = r.staff_id";
+
   /**
    * Create a new rental
    */
   public boolean createRental(Rental rental) throws SQLException {
-    String query = "INSERT INTO rentals (car_id, customer_id, staff_id, start_date, end_date, total_cost, status) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    return DatabaseManager.executeWrite(conn -> createRentalWithConnection(rental, conn));
+  }
 
-    try (Connection conn = DatabaseManager.getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(query)) {
+  /**
+   * Create a new rental with provided connection (for transaction management)
+   */
+  public boolean createRentalWithConnection(Rental rental, Connection connection) throws SQLException {
+    String query = "INSERT INTO rentals (car_id, customer_id, staff_id, start_date, end_date, total_cost, status) VALUES (?, ?, ?, ?, ?, ?, ?)"
+        + " RETURNING id, status, created_date";
+
+    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
 
       pstmt.setInt(1, rental.getCarId());
       pstmt.setInt(2, rental.getCustomerId());
@@ -40,16 +82,16 @@ public class RentalDAO {
       pstmt.setBigDecimal(6, rental.getTotalCost());
       pstmt.setString(7, rental.getStatus());
 
-      int affectedRows = pstmt.executeUpdate();
-
-      if (affectedRows > 0) {
-        // Get the generated ID using last_insert_rowid() for SQLite
-        try (Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
-          if (rs.next()) {
-            rental.setId(rs.getInt(1));
-            return true;
+      // RETURNING hands back the generated ID and column defaults from the insert itself
+      try (ResultSet rs = pstmt.executeQuery()) {
+        if (rs.next()) {
+          rental.setId(rs.getInt("id"));
+          rental.setStatus(rs.getString("status"));
+          Timestamp createdDate = rs.getTimestamp("created_date");
+          if (createdDate != null) {
+            rental.setCreatedDate(createdDate.toLocalDateTime());
           }
+          return true;
         }
       }
     }
@@ -58,13 +100,28 @@ public class RentalDAO {
   }
 
   /**
-   * Create a new rental with provided connection (for transaction management)
+   * Create many rentals in one transaction using JDBC batches of the configured size
    */
-  public boolean createRentalWithConnection(Rental rental, Connection connection) throws SQLException {
-    String query = "INSERT INTO rentals (car_id, customer_id, staff_id, start_date, end_date, total_cost, status) VALUES (?, ?, ?, ?, ?, ?, ?)";
+  public int createRentals(List<Rental> rentals) throws SQLException {
+    return createRentals(rentals, DatabaseManager.getConfig().getBatchSize());
+  }
 
-    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+  /**
+   * Create many rentals in one transaction, sending chunkSize rows per batch.
+   * Generated ids are set on the given rentals.
+   */
+  public int createRentals(List<Rental> rentals, int chunkSize) throws SQLException {
+    return DatabaseManager.executeInTransaction(conn -> createRentalsWithConnection(rentals, chunkSize, conn));
+  }
+
+  /**
+   * Create many rentals with provided connection (for transaction management)
+   */
+  public int createRentalsWithConnection(List<Rental> rentals, int chunkSize, Connection connection)
+      throws SQLException {
+    String query = "INSERT INTO rentals (car_id, customer_id, staff_id, start_date, end_date, total_cost, status) VALUES (?, ?, ?, ?, ?, ?, ?)";
 
+    return BatchInsert.insert(connection, query, rentals, chunkSize, (pstmt, rental) -> {
       pstmt.setInt(1, rental.getCarId());
       pstmt.setInt(2, rental.getCustomerId());
       pstmt.setInt(3, rental.getStaffId());
@@ -72,22 +129,7 @@ public class RentalDAO {
       pstmt.setDate(5, java.sql.Date.valueOf(rental.getEndDate()));
       pstmt.setBigDecimal(6, rental.getTotalCost());
       pstmt.setString(7, rental.getStatus());
-
-      int affectedRows = pstmt.executeUpdate();
-
-      if (affectedRows > 0) {
-        // Get the generated ID using last_insert_rowid() for SQLite
-        try (Statement stmt = connection.createStatement();
-            ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
-          if (rs.next()) {
-            rental.setId(rs.getInt(1));
-            return true;
-          }
-        }
-      }
-    }
-
-    return false;
+    }, Rental::setId);
   }
 
   /**
@@ -115,36 +157,136 @@ public class RentalDAO {
    * Get all rentals
    */
   public List<Rental> getAllRentals() throws SQLException {
-    List<Rental> rentals = new ArrayList<>();
     String query = "SELECT * FROM rentals ORDER BY created_date DESC";
 
+    return DatabaseManager.getQueryCache().list(query, Collections.emptyList(), Rental::new, () -> {
+      List<Rental> rentals = new ArrayList<>();
+
+      try (Connection conn = DatabaseManager.getConnection();
+          PreparedStatement pstmt = conn.prepareStatement(query);
+          ResultSet rs = pstmt.executeQuery()) {
+
+        while (rs.next()) {
+          rentals.add(mapResultSetToRental(rs));
+        }
+      }
+
+      return rentals;
+    }, EntityChangeEvent.RENTALS);
+  }
+
+  /**
+   * Get one page of rentals, newest first
+   *
+   * @param pageToken token from a previous page, or null for the first page
+   */
+  public Page<Rental> getRentalsPage(String pageToken, int pageSize) throws SQLException {
+    return KeysetPager.fetch("rentals", pageToken, pageSize, this::mapResultSetToRental);
+  }
+
+  /**
+   * Stream every rental to the handler in id order without building a list.
+   * The query reads through one forward-only cursor fetching fetchSize rows
+   * at a time, so memory use does not grow with the table.
+   */
+  public long forEachRental(int fetchSize, RowHandler<Rental> handler) throws SQLException, IOException {
+    String query = "SELECT * FROM rentals ORDER BY id";
+    long count = 0;
+
     try (Connection conn = DatabaseManager.getConnection();
-        Statement stmt = conn.createStatement();
-        ResultSet rs = stmt.executeQuery(query)) {
+        PreparedStatement pstmt = conn.prepareStatement(query)) {
 
-      while (rs.next()) {
-        rentals.add(mapResultSetToRental(rs));
+      pstmt.setFetchSize(fetchSize);
+
+      try (ResultSet rs = pstmt.executeQuery()) {
+        while (rs.next()) {
+          handler.handle(mapResultSetToRental(rs));
+          count++;
+        }
       }
     }
 
-    return rentals;
+    return count;
   }
 
   /**
-   * Get rentals by status
+   * Get rentals with their car, customer and staff member filled in, newest
+   * first. Joins the related tables in one query instead of looking each
+   * one up per row. Pass null to get rentals of every status.
    */
-  public List<Rental> getRentalsByStatus(String status) throws SQLException {
+  public List<Rental> getRentalDetails(String status) throws SQLException {
+    String query = RENTAL_DETAILS_QUERY
+        + (status != null ? " WHERE r.status = ?" : "")
+        + " ORDER BY r.created_date DESC";
+
+    return DatabaseManager.getQueryCache().list(query, Arrays.asList(status), Rental::new, () -> {
+      List<Rental> rentals = new ArrayList<>();
+
+      try (Connection conn = DatabaseManager.getConnection();
+          PreparedStatement pstmt = conn.prepareStatement(query)) {
+
+        if (status != null) {
+          pstmt.setString(1, status);
+        }
+
+        try (ResultSet rs = pstmt.executeQuery()) {
+          while (rs.next()) {
+            rentals.add(mapResultSetToRentalDetails(rs));
+          }
+        }
+      }
+
+      return rentals;
+    }, DETAILS_TABLES);
+  }
+
+  /**
+   * Count rentals of one status, or all rentals if status is null. Reads
+   * the trigger-maintained counts, so it costs the same at any table size.
+   */
+  public int countRentals(String status) throws SQLException {
+    String query = "SELECT COALESCE(SUM(total), 0) FROM rental_counts" + (status != null ? " WHERE status = ?" : "");
+
+    try (Connection conn = DatabaseManager.getConnection();
+        PreparedStatement pstmt = conn.prepareStatement(query)) {
+
+      if (status != null) {
+        pstmt.setString(1, status);
+      }
+
+      try (ResultSet rs = pstmt.executeQuery()) {
+        return rs.next() ? rs.getInt(1) : 0;
+      }
+    }
+  }
+
+  /**
+   * Get rentals offset to offset + limit of the details list, newest first.
+   * The window's ids are picked by walking the created_date index alone, so
+   * only the rows returned are joined. Pass null to get rentals of every
+   * status.
+   */
+  public List<Rental> getRentalDetailsWindow(String status, int offset, int limit) throws SQLException {
     List<Rental> rentals = new ArrayList<>();
-    String query = "SELECT * FROM rentals WHERE status = ? ORDER BY created_date DESC";
+    String query = RENTAL_DETAILS_QUERY
+        + " WHERE r.id IN (SELECT id FROM rentals"
+        + (status != null ? " WHERE status = ?" : "")
+        + " ORDER BY created_date DESC, id DESC LIMIT ? OFFSET ?)"
+        + " ORDER BY r.created_date DESC, r.id DESC";
 
     try (Connection conn = DatabaseManager.getConnection();
         PreparedStatement pstmt = conn.prepareStatement(query)) {
 
-      pstmt.setString(1, status);
+      int index = 1;
+      if (status != null) {
+        pstmt.setString(index++, status);
+      }
+      pstmt.setInt(index++, limit);
+      pstmt.setInt(index, offset);
 
       try (ResultSet rs = pstmt.executeQuery()) {
         while (rs.next()) {
-          rentals.add(mapResultSetToRental(rs));
+          rentals.add(mapResultSetToRentalDetails(rs));
         }
       }
     }
@@ -152,6 +294,56 @@ public class RentalDAO {
     return rentals;
   }
 
+  /**
+   * Get the rentals with the latest start dates
+   */
+  public List<Rental> getRecentRentals(int limit) throws SQLException {
+    String query = "SELECT * FROM rentals ORDER BY start_date DESC, id DESC LIMIT ?";
+
+    return DatabaseManager.getQueryCache().list(query, Arrays.asList(limit), Rental::new, () -> {
+      List<Rental> rentals = new ArrayList<>();
+
+      try (Connection conn = DatabaseManager.getConnection();
+          PreparedStatement pstmt = conn.prepareStatement(query)) {
+
+        pstmt.setInt(1, limit);
+
+        try (ResultSet rs = pstmt.executeQuery()) {
+          while (rs.next()) {
+            rentals.add(mapResultSetToRental(rs));
+          }
+        }
+      }
+
+      return rentals;
+    }, EntityChangeEvent.RENTALS);
+  }
+
+  /**
+   * Get rentals by status
+   */
+  public List<Rental> getRentalsByStatus(String status) throws SQLException {
+    String query = "SELECT * FROM rentals WHERE status = ? ORDER BY created_date DESC";
+
+    return DatabaseManager.getQueryCache().list(query, Arrays.asList(status), Rental::new, () -> {
+      List<Rental> rentals = new ArrayList<>();
+
+      try (Connection conn = DatabaseManager.getConnection();
+          PreparedStatement pstmt = conn.prepareStatement(query)) {
+
+        pstmt.setString(1, status);
+
+        try (ResultSet rs = pstmt.executeQuery()) {
+          while (rs.next()) {
+            rentals.add(mapResultSetToRental(rs));
+          }
+        }
+      }
+
+      return rentals;
+    }, EntityChangeEvent.RENTALS);
+  }
+
   /**
    * Get active rentals
    */
@@ -163,69 +355,78 @@ public class RentalDAO {
    * Get rentals by customer ID
    */
   public List<Rental> getRentalsByCustomerId(int customerId) throws SQLException {
-    List<Rental> rentals = new ArrayList<>();
     String query = "SELECT * FROM rentals WHERE customer_id = ? ORDER BY created_date DESC";
 
-    try (Connection conn = DatabaseManager.getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(query)) {
+    return DatabaseManager.getQueryCache().list(query, Arrays.asList(customerId), Rental::new, () -> {
+      List<Rental> rentals = new ArrayList<>();
 
-      pstmt.setInt(1, customerId);
+      try (Connection conn = DatabaseManager.getConnection();
+          PreparedStatement pstmt = conn.prepareStatement(query)) {
 
-      try (ResultSet rs = pstmt.executeQuery()) {
-        while (rs.next()) {
-          rentals.add(mapResultSetToRental(rs));
+        pstmt.setInt(1, customerId);
+
+        try (ResultSet rs = pstmt.executeQuery()) {
+          while (rs.next()) {
+            rentals.add(mapResultSetToRental(rs));
+          }
         }
       }
-    }
 
-    return rentals;
+      return rentals;
+    }, EntityChangeEvent.RENTALS);
   }
 
   /**
    * Get rentals by car ID
    */
   public List<Rental> getRentalsByCarId(int carId) throws SQLException {
-    List<Rental> rentals = new ArrayList<>();
     String query = "SELECT * FROM rentals WHERE car_id = ? ORDER BY created_date DESC";
 
-    try (Connection conn = DatabaseManager.getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(query)) {
+    return DatabaseManager.getQueryCache().list(query, Arrays.asList(carId), Rental::new, () -> {
+      List<Rental> rentals = new ArrayList<>();
 
-      pstmt.setInt(1, carId);
+      try (Connection conn = DatabaseManager.getConnection();
+          PreparedStatement pstmt = conn.prepareStatement(query)) {
 
-      try (ResultSet rs = pstmt.executeQuery()) {
-        while (rs.next()) {
-          rentals.add(mapResultSetToRental(rs));
+        pstmt.setInt(1, carId);
+
+        try (ResultSet rs = pstmt.executeQuery()) {
+          while (rs.next()) {
+            rentals.add(mapResultSetToRental(rs));
+          }
         }
       }
-    }
 
-    return rentals;
+      return rentals;
+    }, EntityChangeEvent.RENTALS);
   }
 
   /**
    * Get rentals by date range
    */
   public List<Rental> getRentalsByDateRange(LocalDate startDate, LocalDate endDate) throws SQLException {
-    List<Rental> rentals = new ArrayList<>();
     String query = "SELECT * FROM rentals WHERE (start_date BETWEEN ? AND ?) OR (end_date BETWEEN ? AND ?) ORDER BY created_date DESC";
 
-    try (Connection conn = DatabaseManager.getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(query)) {
+    return DatabaseManager.getQueryCache().list(query, Arrays.asList(startDate, endDate), Rental::new, () -> {
+      List<Rental> rentals = new ArrayList<>();
 
-      pstmt.setDate(1, java.sql.Date.valueOf(startDate));
-      pstmt.setDate(2, java.sql.Date.valueOf(endDate));
-      pstmt.setDate(3, java.sql.Date.valueOf(startDate));
-      pstmt.setDate(4, java.sql.Date.valueOf(endDate));
+      try (Connection conn = DatabaseManager.getConnection();
+          PreparedStatement pstmt = conn.prepareStatement(query)) {
 
-      try (ResultSet rs = pstmt.executeQuery()) {
-        while (rs.next()) {
-          rentals.add(mapResultSetToRental(rs));
+        pstmt.setDate(1, java.sql.Date.valueOf(startDate));
+        pstmt.setDate(2, java.sql.Date.valueOf(endDate));
+        pstmt.setDate(3, java.sql.Date.valueOf(startDate));
+        pstmt.setDate(4, java.sql.Date.valueOf(endDate));
+
+        try (ResultSet rs = pstmt.executeQuery()) {
+          while (rs.next()) {
+            rentals.add(mapResultSetToRental(rs));
+          }
         }
       }
-    }
 
-    return rentals;
+      return rentals;
+    }, EntityChangeEvent.RENTALS);
   }
 
   /**
@@ -234,36 +435,28 @@ public class RentalDAO {
   public boolean updateRental(Rental rental) throws SQLException {
     String query = "UPDATE rentals SET car_id = ?, customer_id = ?, staff_id = ?, start_date = ?, end_date = ?, total_cost = ?, status = ? WHERE id = ?";
 
-    try (Connection conn = DatabaseManager.getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(query)) {
+    return DatabaseManager.executeWrite(conn -> {
+      try (PreparedStatement pstmt = conn.prepareStatement(query)) {
 
-      pstmt.setInt(1, rental.getCarId());
-      pstmt.setInt(2, rental.getCustomerId());
-      pstmt.setInt(3, rental.getStaffId());
-      pstmt.setDate(4, java.sql.Date.valueOf(rental.getStartDate()));
-      pstmt.setDate(5, java.sql.Date.valueOf(rental.getEndDate()));
-      pstmt.setBigDecimal(6, rental.getTotalCost());
-      pstmt.setString(7, rental.getStatus());
-      pstmt.setInt(8, rental.getId());
+        pstmt.setInt(1, rental.getCarId());
+        pstmt.setInt(2, rental.getCustomerId());
+        pstmt.setInt(3, rental.getStaffId());
+        pstmt.setDate(4, java.sql.Date.valueOf(rental.getStartDate()));
+        pstmt.setDate(5, java.sql.Date.valueOf(rental.getEndDate()));
+        pstmt.setBigDecimal(6, rental.getTotalCost());
+        pstmt.setString(7, rental.getStatus());
+        pstmt.setInt(8, rental.getId());
 
-      return pstmt.executeUpdate() > 0;
-    }
+        return pstmt.executeUpdate() > 0;
+      }
+    });
   }
 
   /**
    * Update rental status
    */
   public boolean updateRentalStatus(int rentalId, String status) throws SQLException {
-    String query = "UPDATE rentals SET status = ? WHERE id = ?";
-
-    try (Connection conn = DatabaseManager.getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(query)) {
-
-      pstmt.setString(1, status);
-      pstmt.setInt(2, rentalId);
-
-      return pstmt.executeUpdate() > 0;
-    }
+    return DatabaseManager.executeWrite(conn -> updateRentalStatusWithConnection(rentalId, status, conn));
   }
 
   /**
@@ -288,77 +481,152 @@ public class RentalDAO {
   public boolean deleteRental(int id) throws SQLException {
     String query = "DELETE FROM rentals WHERE id = ?";
 
-    try (Connection conn = DatabaseManager.getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(query)) {
+    return DatabaseManager.executeWrite(conn -> {
+      try (PreparedStatement pstmt = conn.prepareStatement(query)) {
 
-      pstmt.setInt(1, id);
+        pstmt.setInt(1, id);
 
-      return pstmt.executeUpdate() > 0;
-    }
+        return pstmt.executeUpdate() > 0;
+      }
+    });
   }
 
   /**
    * Get total revenue
    */
   public BigDecimal getTotalRevenue() throws SQLException {
-    String query = "SELECT SUM(total_cost) FROM rentals WHERE status = 'COMPLETED'";
+    String query = "SELECT SUM(revenue_cents) FROM daily_revenue";
 
-    try (Connection conn = DatabaseManager.getConnection();
-        Statement stmt = conn.createStatement();
-        ResultSet rs = stmt.executeQuery(query)) {
+    return DatabaseManager.getQueryCache().value(query, Collections.emptyList(), () -> {
+      try (Connection conn = DatabaseManager.getConnection();
+          PreparedStatement pstmt = conn.prepareStatement(query);
+          ResultSet rs = pstmt.executeQuery()) {
 
-      if (rs.next()) {
-        BigDecimal revenue = rs.getBigDecimal(1);
-        return revenue != null ? revenue : BigDecimal.ZERO;
+        if (rs.next()) {
+          return BigDecimal.valueOf(rs.getLong(1), 2);
+        }
       }
-    }
 
-    return BigDecimal.ZERO;
+      return BigDecimal.valueOf(0, 2);
+    }, REVENUE_TABLES);
   }
 
   /**
-   * Get revenue by date range
+   * Get revenue of completed rentals starting between the two dates (inclusive)
    */
   public BigDecimal getRevenueByDateRange(LocalDate startDate, LocalDate endDate) throws SQLException {
-    String query = "SELECT SUM(total_cost) FROM rentals WHERE status = 'COMPLETED' AND created_date BETWEEN ? AND ?";
+    String query = "SELECT SUM(revenue_cents) FROM daily_revenue WHERE day BETWEEN ? AND ?";
 
-    try (Connection conn = DatabaseManager.getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(query)) {
+    return DatabaseManager.getQueryCache().value(query, Arrays.asList(startDate, endDate), () -> {
+      try (Connection conn = DatabaseManager.getConnection();
+          PreparedStatement pstmt = conn.prepareStatement(query)) {
 
-      pstmt.setDate(1, java.sql.Date.valueOf(startDate));
-      pstmt.setDate(2, java.sql.Date.valueOf(endDate));
+        pstmt.setString(1, startDate.toString());
+        pstmt.setString(2, endDate.toString());
 
-      try (ResultSet rs = pstmt.executeQuery()) {
-        if (rs.next()) {
-          BigDecimal revenue = rs.getBigDecimal(1);
-          return revenue != null ? revenue : BigDecimal.ZERO;
+        try (ResultSet rs = pstmt.executeQuery()) {
+          if (rs.next()) {
+            return BigDecimal.valueOf(rs.getLong(1), 2);
+          }
         }
       }
-    }
 
-    return BigDecimal.ZERO;
+      return BigDecimal.valueOf(0, 2);
+    }, REVENUE_TABLES);
   }
 
   /**
    * Get revenue for a specific staff member
    */
   public BigDecimal getRevenueByStaffId(int staffId) throws SQLException {
-    String query = "SELECT SUM(total_cost) FROM rentals WHERE status = 'COMPLETED' AND staff_id = ?";
+    String query = "SELECT SUM(revenue_cents) FROM daily_revenue WHERE staff_id = ?";
 
-    try (Connection conn = DatabaseManager.getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(query)) {
+    return DatabaseManager.getQueryCache().value(query, Arrays.asList(staffId), () -> {
+      try (Connection conn = DatabaseManager.getConnection();
+          PreparedStatement pstmt = conn.prepareStatement(query)) {
 
-      pstmt.setInt(1, staffId);
+        pstmt.setInt(1, staffId);
 
-      try (ResultSet rs = pstmt.executeQuery()) {
-        if (rs.next()) {
-          BigDecimal revenue = rs.getBigDecimal(1);
-          return revenue != null ? revenue : BigDecimal.ZERO;
+        try (ResultSet rs = pstmt.executeQuery()) {
+          if (rs.next()) {
+            return BigDecimal.valueOf(rs.getLong(1), 2);
+          }
         }
       }
+
+      return BigDecimal.valueOf(0, 2);
+    }, REVENUE_TABLES);
+  }
+
+  /**
+   * Recompute the daily revenue rollup from the rentals table, returning
+   * the number of rollup rows written
+   */
+  public int rebuildDailyRevenue() throws SQLException {
+    return DatabaseManager.executeInTransaction(conn -> {
+      try (Statement stmt = conn.createStatement()) {
+        stmt.executeUpdate("DELETE FROM daily_revenue");
+        int rows = stmt.executeUpdate(SchemaMigrator.REBUILD_DAILY_REVENUE);
+        // The rollup is a WITHOUT ROWID table, which the commit hooks don't report
+        DatabaseManager.afterCommit(conn,
+            () -> DatabaseManager.getQueryCache().invalidate(SchemaMigrator.DAILY_REVENUE));
+        return rows;
+      }
+    });
+  }
+
+  /**
+   * Get rental counts and completed revenue per day, week or month for
+   * rentals starting between the two dates (inclusive). Only buckets with
+   * at least one rental are returned, oldest first.
+   */
+  public List<RevenueBucket> getRevenueSeries(Granularity granularity, LocalDate fromDate, LocalDate toDate)
+      throws SQLException {
+    // start_date is stored as epoch milliseconds at local midnight
+    String day = "date(start_date / 1000, 'unixepoch', 'localtime')";
+    String period;
+    switch (granularity) {
+      case WEEK:
+        period = "date(" + day + ", 'weekday 0', '-6 days')";
+        break;
+      case MONTH:
+        period = "date(" + day + ", 'start of month')";
+        break;
+      default:
+        period = day;
+        break;
     }
 
-    return BigDecimal.ZERO;
+    // Revenue is summed in whole cents so the total is exact
+    String query = "SELECT " + period + " AS period, COUNT(*) AS rentals,"
+        + " SUM(status = 'COMPLETED') AS completed,"
+        + " SUM(CASE WHEN status = 'COMPLETED' THEN CAST(ROUND(total_cost * 100) AS INTEGER) ELSE 0 END) AS revenue_cents"
+        + " FROM rentals WHERE start_date BETWEEN ? AND ? GROUP BY period ORDER BY period";
+
+    // Buckets are immutable, so cached ones are handed out as they are
+    return DatabaseManager.getQueryCache().list(query, Arrays.asList(fromDate, toDate), UnaryOperator.identity(),
+        () -> {
+          List<RevenueBucket> buckets = new ArrayList<>();
+
+          try (Connection conn = DatabaseManager.getConnection();
+              PreparedStatement pstmt = conn.prepareStatement(query)) {
+
+            pstmt.setDate(1, java.sql.Date.valueOf(fromDate));
+            pstmt.setDate(2, java.sql.Date.valueOf(toDate));
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+              while (rs.next()) {
+                buckets.add(new RevenueBucket(
+                    LocalDate.parse(rs.getString("period")),
+                    rs.getInt("rentals"),
+                    rs.getInt("completed"),
+                    BigDecimal.valueOf(rs.getLong("revenue_cents"), 2)));
+              }
+            }
+          }
+
+          return buckets;
+        }, EntityChangeEvent.RENTALS);
   }
 
   /**
@@ -394,4 +662,45 @@ public class RentalDAO {
 
     return rental;
   }
+
+  /**
+   * Map a row of the rental details query to a Rental with its related objects
+   */
+  private Rental mapResultSetToRentalDetails(ResultSet rs) throws SQLException {
+    Rental rental = mapResultSetToRental(rs);
+
+    // Outer joins leave the columns null when the related row is missing
+    if (rs.getString("car_make") != null) {
+      Car car = new Car();
+      car.setId(rental.getCarId());
+      car.setMake(rs.getString("car_make"));
+      car.setModel(rs.getString("car_model"));
+      car.setYear(rs.getInt("car_year"));
+      car.setLicensePlate(rs.getString("car_license_plate"));
+      car.setColor(rs.getString("car_color"));
+      car.setStatus(rs.getString("car_status"));
+      car.setDailyRate(rs.getBigDecimal("car_daily_rate"));
+      rental.setCar(car);
+    }
+
+    if (rs.getString("customer_name") != null) {
+      Customer customer = new Customer();
+      customer.setId(rental.getCustomerId());
+      customer.setName(rs.getString("customer_name"));
+      customer.setEmail(rs.getString("customer_email"));
+      customer.setPhone(rs.getString("customer_phone"));
+      customer.setAddress(rs.getString("customer_address"));
+      rental.setCustomer(customer);
+    }
+
+    if (rs.getString("staff_username") != null) {
+      User staff = new User();
+      staff.setId(rental.getStaffId());
+      staff.setUsername(rs.getString("staff_username"));
+      staff.setRole(rs.getString("staff_role"));
+      rental.setStaff(staff);
+    }
+
+    return rental;
+  }
 }
@@ -0,0 +1,108 @@
+package com.carrental.dao;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.carrental.model.SystemStatistics;
+import com.carrental.util.DatabaseManager;
+import com.carrental.util.EntityChangeEvent;
+import com.carrental.util.SchemaMigrator;
+
+/**
+ * Data Access Object for aggregate statistics
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+public class StatisticsDAO {
+
+  // Every figure comes from one statement, so they all describe the same snapshot.
+  // Revenue is read from the daily_revenue rollup in whole cents.
+  private static final String STATISTICS_QUERY = "SELECT 'rentals' AS metric, status AS label, COUNT(*) AS total, NULL AS cents"
+      + " FROM rentals GROUP BY status"
+      + " UNION ALL SELECT 'cars', status, COUNT(*), NULL FROM cars GROUP BY status"
+      + " UNION ALL SELECT 'customers', NULL, COUNT(*), NULL FROM customers"
+      + " UNION ALL SELECT 'users', NULL, COUNT(*), NULL FROM users"
+      + " UNION ALL SELECT 'revenue', NULL, SUM(rental_count), SUM(revenue_cents) FROM daily_revenue"
+      + " UNION ALL SELECT 'staff', CAST(staff_id AS TEXT), SUM(rental_count), SUM(revenue_cents)"
+      + " FROM daily_revenue GROUP BY staff_id"
+      + " UNION ALL SELECT 'overdue', NULL, COUNT(*), NULL FROM rentals WHERE status = 'ACTIVE' AND end_date < ?"
+      + " UNION ALL SELECT 'recent', NULL, COUNT(*), NULL FROM rentals WHERE start_date >= ?";
+
+  private static final String[] STATISTICS_TABLES = { EntityChangeEvent.RENTALS, EntityChangeEvent.CARS,
+      EntityChangeEvent.CUSTOMERS, EntityChangeEvent.USERS, SchemaMigrator.DAILY_REVENUE };
+
+  /**
+   * Get counts by status, revenue totals and per-staff revenue as of the
+   * given date. Served from the query cache until one of the tables changes.
+   */
+  public SystemStatistics getStatistics(LocalDate today) throws SQLException {
+    // The snapshot is immutable, so a cached one is handed out as it is
+    return DatabaseManager.getQueryCache().value(STATISTICS_QUERY, Arrays.asList(today), () -> {
+      Map<String, Integer> rentalsByStatus = new HashMap<>();
+      Map<String, Integer> carsByStatus = new HashMap<>();
+      Map<Integer, BigDecimal> revenueByStaff = new HashMap<>();
+      BigDecimal totalRevenue = BigDecimal.valueOf(0, 2);
+      int totalCustomers = 0;
+      int totalUsers = 0;
+      int overdueRentals = 0;
+      int recentRentals = 0;
+
+      try (Connection conn = DatabaseManager.getConnection();
+          PreparedStatement pstmt = conn.prepareStatement(STATISTICS_QUERY)) {
+
+        // A rental is overdue once the day after its end date has passed
+        pstmt.setDate(1, Date.valueOf(today.minusDays(1)));
+        pstmt.setDate(2, Date.valueOf(today.minusDays(1)));
+
+        try (ResultSet rs = pstmt.executeQuery()) {
+          while (rs.next()) {
+            String label = rs.getString("label");
+            int total = rs.getInt("total");
+            BigDecimal amount = BigDecimal.valueOf(rs.getLong("cents"), 2);
+
+            switch (rs.getString("metric")) {
+              case "rentals":
+                rentalsByStatus.put(label, total);
+                break;
+              case "cars":
+                carsByStatus.put(label, total);
+                break;
+              case "customers":
+                totalCustomers = total;
+                break;
+              case "users":
+                totalUsers = total;
+                break;
+              case "revenue":
+                totalRevenue = amount;
+                break;
+              case "staff":
+                revenueByStaff.put(Integer.valueOf(label), amount);
+                break;
+              case "overdue":
+                overdueRentals = total;
+                break;
+              case "recent":
+                recentRentals = total;
+                break;
+              default:
+                break;
+            }
+          }
+        }
+      }
+
+      return new SystemStatistics(rentalsByStatus, carsByStatus, revenueByStaff, totalRevenue, totalCustomers,
+          totalUsers, overdueRentals, recentRentals);
+    }, STATISTICS_TABLES);
+  }
+}
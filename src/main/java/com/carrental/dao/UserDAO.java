@@ -7,10 +7,14 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
+import com.carrental.model.Page;
 import com.carrental.model.User;
 import com.carrental.util.DatabaseManager;
+import com.carrental.util.KeysetPager;
 
 /**
  * Data Access Object for User entity
@@ -20,21 +24,25 @@ import com.carrental.util.DatabaseManager;
  */
 public class UserDAO {
 
+    // Stay well below SQLite's limit on bound parameters per statement
+    private static final int MAX_IN_PARAMETERS = 500;
+
     /**
      * Create a new user
      */
     public boolean createUser(String username, String password, String role) throws SQLException {
         String query = "INSERT INTO users (username, password, role) VALUES (?, ?, ?)";
 
-        try (Connection conn = DatabaseManager.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(query)) {
+        return DatabaseManager.executeWrite(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
 
-            pstmt.setString(1, username);
-            pstmt.setString(2, password);
-            pstmt.setString(3, role);
+                pstmt.setString(1, username);
+                pstmt.setString(2, password);
+                pstmt.setString(3, role);
 
-            return pstmt.executeUpdate() > 0;
-        }
+                return pstmt.executeUpdate() > 0;
+            }
+        });
     }
 
     /**
@@ -58,6 +66,36 @@ public class UserDAO {
         return null;
     }
 
+    /**
+     * Get the users with the given IDs using IN lists of at most 500 IDs per
+     * query. IDs with no matching row are left out of the result.
+     */
+    public List<User> getUsersByIds(Collection<Integer> ids) throws SQLException {
+        List<User> users = new ArrayList<>();
+        List<Integer> values = new ArrayList<>(ids);
+
+        for (int start = 0; start < values.size(); start += MAX_IN_PARAMETERS) {
+            List<Integer> chunk = values.subList(start, Math.min(start + MAX_IN_PARAMETERS, values.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            String query = "SELECT * FROM users WHERE id IN (" + placeholders + ")";
+
+            try (Connection conn = DatabaseManager.getConnection();
+                    PreparedStatement pstmt = conn.prepareStatement(query)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    pstmt.setInt(i + 1, chunk.get(i));
+                }
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        users.add(mapResultSetToUser(rs));
+                    }
+                }
+            }
+        }
+
+        return users;
+    }
+
     /**
      * Get user by username
      */
@@ -87,8 +125,8 @@ public class UserDAO {
         String query = "SELECT * FROM users ORDER BY created_date DESC";
 
         try (Connection conn = DatabaseManager.getConnection();
-                Statement stmt = conn.createStatement();
-                ResultSet rs = stmt.executeQuery(query)) {
+                PreparedStatement pstmt = conn.prepareStatement(query);
+                ResultSet rs = pstmt.executeQuery()) {
 
             while (rs.next()) {
                 users.add(mapResultSetToUser(rs));
@@ -98,6 +136,15 @@ public class UserDAO {
         return users;
     }
 
+    /**
+     * Get one page of users, newest first
+     *
+     * @param pageToken token from a previous page, or null for the first page
+     */
+    public Page<User> getUsersPage(String pageToken, int pageSize) throws SQLException {
+        return KeysetPager.fetch("users", pageToken, pageSize, this::mapResultSetToUser);
+    }
+
     /**
      * Get users by role
      */
@@ -126,15 +173,16 @@ public class UserDAO {
     public boolean updateUser(User user) throws SQLException {
         String query = "UPDATE users SET username = ?, role = ? WHERE id = ?";
 
-        try (Connection conn = DatabaseManager.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(query)) {
+        return DatabaseManager.executeWrite(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
 
-            pstmt.setString(1, user.getUsername());
-            pstmt.setString(2, user.getRole());
-            pstmt.setInt(3, user.getId());
+                pstmt.setString(1, user.getUsername());
+                pstmt.setString(2, user.getRole());
+                pstmt.setInt(3, user.getId());
 
-            return pstmt.executeUpdate() > 0;
-        }
+                return pstmt.executeUpdate() > 0;
+            }
+        });
     }
 
     /**
@@ -143,14 +191,15 @@ public class UserDAO {
     public boolean updatePassword(int userId, String newPassword) throws SQLException {
         String query = "UPDATE users SET password = ? WHERE id = ?";
 
-        try (Connection conn = DatabaseManager.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(query)) {
+        return DatabaseManager.executeWrite(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
 
-            pstmt.setString(1, newPassword);
-            pstmt.setInt(2, userId);
+                pstmt.setString(1, newPassword);
+                pstmt.setInt(2, userId);
 
-            return pstmt.executeUpdate() > 0;
-        }
+                return pstmt.executeUpdate() > 0;
+            }
+        });
     }
 
     /**
@@ -159,13 +208,14 @@ public class UserDAO {
     public boolean deleteUser(int id) throws SQLException {
         String query = "DELETE FROM users WHERE id = ?";
 
-        try (Connection conn = DatabaseManager.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(query)) {
+        return DatabaseManager.executeWrite(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
 
-            pstmt.setInt(1, id);
+                pstmt.setInt(1, id);
 
-            return pstmt.executeUpdate() > 0;
-        }
+                return pstmt.executeUpdate() > 0;
+            }
+        });
     }
 
     /**
@@ -14,10 +14,11 @@ import java.awt.Graphics2D;
 import java.awt.GridLayout;
 import java.awt.RenderingHints;
 import java.awt.event.ActionListener;
-import java.sql.SQLException;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Function;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
@@ -32,13 +33,16 @@ import javax.swing.border.EmptyBorder;
 
 import com.carrental.model.Car;
 import com.carrental.model.Customer;
+import com.carrental.model.DashboardSnapshot;
 import com.carrental.model.Rental;
+import com.carrental.model.RevenueBucket;
+import com.carrental.model.SystemStatistics;
 import com.carrental.model.User;
 import com.carrental.service.AuthenticationService;
-import com.carrental.service.CarService;
-import com.carrental.service.CustomerService;
-import com.carrental.service.RentalService;
-import com.carrental.service.UserService;
+import com.carrental.service.DashboardService;
+import com.carrental.util.ChangeEventBus;
+import com.carrental.util.DatabaseManager;
+import com.carrental.util.EntityChangeEvent;
 
 /**
  * Admin Dashboard for managing the car rental system
@@ -48,15 +52,19 @@ import com.carrental.service.UserService;
  */
 public class AdminDashboard extends JFrame {
 
-    private CarService carService;
-    private CustomerService customerService;
-    private RentalService rentalService;
-    private UserService userService;
+    private DashboardService dashboardService;
     private AuthenticationService authService;
 
     private CardLayout cardLayout;
     private JPanel mainContentPanel;
     private JPanel dashboardPanel;
+    private JPanel transactionsList;
+    private JPanel alertsList;
+
+    // Cards and charts paint only from this snapshot, which the refresher replaces on the EDT
+    private DashboardSnapshot snapshot = DashboardSnapshot.EMPTY;
+    private DashboardRefresher refresher;
+    private final ChangeEventBus.ChangeSubscriber dataChanges = events -> refresher.refreshNow();
     private JPanel userManagementPanel;
     private JPanel carManagementPanel;
     private JPanel customerManagementPanel;
@@ -67,15 +75,20 @@ public class AdminDashboard extends JFrame {
     private JLabel welcomeLabel;
 
     public AdminDashboard() {
-        this.carService = new CarService();
-        this.customerService = new CustomerService();
-        this.rentalService = new RentalService();
-        this.userService = new UserService();
+        this.dashboardService = new DashboardService();
         this.authService = new AuthenticationService();
 
         initializeComponents();
         setupLayout();
         setFrameProperties();
+
+        refresher = new DashboardRefresher(dashboardService::loadSnapshot, this::applySnapshot,
+                DatabaseManager.getConfig().getDashboardRefreshMillis());
+        refresher.start();
+
+        // Reload as soon as anything the dashboard shows has changed
+        DatabaseManager.getEventBus().subscribe(dataChanges, EntityChangeEvent.USERS, EntityChangeEvent.CARS,
+                EntityChangeEvent.CUSTOMERS, EntityChangeEvent.RENTALS);
     }
 
     private void initializeComponents() {
@@ -543,25 +556,17 @@ public class AdminDashboard extends JFrame {
                 g2d.setFont(new Font("Segoe UI", Font.BOLD, 16));
                 g2d.drawString("💰 Revenue Trend", 20, 30);
 
-                // Get real data from database
-                List<Rental> rentals = new ArrayList<>();
-                try {
-                    rentals = rentalService.getAllRentals();
-                } catch (SQLException e) {
-                    e.printStackTrace();
-                }
-
-                // Calculate revenue data (last 6 months or available data)
-                int[] data = calculateRevenueData(rentals);
+                // Revenue for the last 6 months from the latest snapshot
+                BigDecimal[] data = calculateRevenueData(snapshot);
                 int barWidth = (getWidth() - 60) / data.length;
-                int maxValue = Arrays.stream(data).max().orElse(1000);
-                if (maxValue == 0)
-                    maxValue = 1000; // Prevent division by zero
+                BigDecimal maxValue = Arrays.stream(data).max(BigDecimal::compareTo).orElse(BigDecimal.ZERO);
+                if (maxValue.signum() == 0)
+                    maxValue = BigDecimal.valueOf(1000); // Prevent division by zero
                 int chartHeight = getHeight() - 80;
                 int startY = 60;
 
                 for (int i = 0; i < data.length; i++) {
-                    int barHeight = (int) ((double) data[i] / maxValue * chartHeight);
+                    int barHeight = (int) (data[i].doubleValue() / maxValue.doubleValue() * chartHeight);
                     int x = 30 + i * barWidth;
                     int y = startY + chartHeight - barHeight;
 
@@ -575,7 +580,7 @@ public class AdminDashboard extends JFrame {
                     // Draw value
                     g2d.setColor(ModernUITheme.TEXT_PRIMARY);
                     g2d.setFont(new Font("Segoe UI", Font.BOLD, 10));
-                    String value = "$" + data[i];
+                    String value = "$" + data[i].toPlainString();
                     FontMetrics fm = g2d.getFontMetrics();
                     int textX = x + (barWidth - 10 - fm.stringWidth(value)) / 2;
                     g2d.drawString(value, textX, y - 5);
@@ -590,29 +595,14 @@ public class AdminDashboard extends JFrame {
         return chart;
     }
 
-    private int[] calculateRevenueData(List<Rental> rentals) {
-        // Calculate revenue for last 6 months
-        int[] monthlyRevenue = new int[6];
-        java.time.LocalDate now = java.time.LocalDate.now();
-
-        for (Rental rental : rentals) {
-            if ("COMPLETED".equals(rental.getStatus())) {
-                try {
-                    // Parse rental date and calculate which month it belongs to
-                    java.time.LocalDate rentalDate = rental.getStartDate();
-                    if (rentalDate != null) {
-                        int monthsAgo = (int) java.time.temporal.ChronoUnit.MONTHS.between(rentalDate, now);
-
-                        if (monthsAgo >= 0 && monthsAgo < 6) {
-                            // Calculate revenue using actual total cost
-                            int revenue = rental.getTotalCost() != null ? rental.getTotalCost().intValue() : 0;
-                            monthlyRevenue[monthsAgo] += revenue;
-                        }
-                    }
-                } catch (Exception e) {
-                    // Skip invalid dates
-                }
-            }
+    private BigDecimal[] calculateRevenueData(DashboardSnapshot current) {
+        // Revenue for the last 6 calendar months, most recent first
+        BigDecimal[] monthlyRevenue = new BigDecimal[DashboardService.CHART_PERIODS];
+        Arrays.fill(monthlyRevenue, BigDecimal.ZERO);
+
+        List<RevenueBucket> series = current.getMonthlyRevenue();
+        for (int i = 0; i < series.size() && i < monthlyRevenue.length; i++) {
+            monthlyRevenue[i] = series.get(series.size() - 1 - i).getRevenue();
         }
 
         return monthlyRevenue;
@@ -640,21 +630,12 @@ public class AdminDashboard extends JFrame {
                 g2d.setFont(new Font("Segoe UI", Font.BOLD, 16));
                 g2d.drawString("🚗 Fleet Utilization", 20, 30);
 
-                // Get real data from database
-                List<Car> cars = new ArrayList<>();
-                List<Rental> rentals = new ArrayList<>();
-                try {
-                    cars = carService.getAllCars();
-                    rentals = rentalService.getAllRentals();
-                } catch (SQLException e) {
-                    e.printStackTrace();
-                }
+                // Read the latest snapshot; never query from paint
+                SystemStatistics statistics = snapshot.getStatistics();
+                int totalCars = statistics != null ? statistics.getTotalCars() : 0;
+                int rentedCars = statistics != null ? statistics.getActiveRentals() : 0;
 
                 // Calculate fleet utilization
-                int totalCars = cars.size();
-                int rentedCars = (int) rentals.stream()
-                        .filter(r -> "ACTIVE".equals(r.getStatus()))
-                        .count();
                 int availableCars = totalCars - rentedCars;
 
                 if (totalCars == 0) {
@@ -718,41 +699,24 @@ public class AdminDashboard extends JFrame {
         header.setBorder(BorderFactory.createEmptyBorder(0, 0, 15, 0));
         panel.add(header, BorderLayout.NORTH);
 
-        // Get real data from database
-        List<Rental> rentals = new ArrayList<>();
-        List<Car> cars = new ArrayList<>();
-        List<Customer> customers = new ArrayList<>();
-
-        try {
-            rentals = rentalService.getAllRentals();
-            cars = carService.getAllCars();
-            customers = customerService.getAllCustomers();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-
-        // Transactions list with better layout
-        JPanel transactionsList = new JPanel();
+        // Transactions list, filled from each snapshot
+        transactionsList = new JPanel();
         transactionsList.setLayout(new BoxLayout(transactionsList, BoxLayout.Y_AXIS));
         transactionsList.setOpaque(false);
+        fillRecentTransactions(snapshot);
 
-        // Get recent transactions (last 4)
-        List<Rental> recentRentals = rentals.stream()
-                .sorted((r1, r2) -> r2.getStartDate().compareTo(r1.getStartDate()))
-                .limit(4)
-                .collect(java.util.stream.Collectors.toList());
+        panel.add(transactionsList, BorderLayout.CENTER);
 
-        for (Rental rental : recentRentals) {
-            // Find car and customer details
-            Car car = cars.stream()
-                    .filter(c -> c.getId() == rental.getCarId())
-                    .findFirst()
-                    .orElse(new Car());
+        return panel;
+    }
+
+    private void fillRecentTransactions(DashboardSnapshot current) {
+        transactionsList.removeAll();
 
-            Customer customer = customers.stream()
-                    .filter(c -> c.getId() == rental.getCustomerId())
-                    .findFirst()
-                    .orElse(new Customer());
+        for (Rental rental : current.getRecentRentals()) {
+            // Car and customer were attached when the snapshot loaded
+            Car car = rental.getCar() != null ? rental.getCar() : new Car();
+            Customer customer = rental.getCustomer() != null ? rental.getCustomer() : new Customer();
 
             // Calculate amount using actual total cost
             int amount = rental.getTotalCost() != null ? rental.getTotalCost().intValue() : 0;
@@ -771,17 +735,13 @@ public class AdminDashboard extends JFrame {
         }
 
         // If no transactions, show placeholder
-        if (recentRentals.isEmpty()) {
+        if (current.getRecentRentals().isEmpty()) {
             JPanel placeholder = createTransactionItem("🚗 No recent transactions", "No data available", "$0", "N/A");
             transactionsList.add(placeholder);
         }
 
         // Add flexible space at bottom
         transactionsList.add(Box.createVerticalGlue());
-
-        panel.add(transactionsList, BorderLayout.CENTER);
-
-        return panel;
     }
 
     private String formatTimeAgo(java.time.LocalDate rentalDate) {
@@ -879,24 +839,23 @@ public class AdminDashboard extends JFrame {
         header.setBorder(BorderFactory.createEmptyBorder(0, 0, 15, 0));
         panel.add(header, BorderLayout.NORTH);
 
-        // Get real data from database
-        List<Car> cars = new ArrayList<>();
-        List<Rental> rentals = new ArrayList<>();
-
-        try {
-            cars = carService.getAllCars();
-            rentals = rentalService.getAllRentals();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-
-        // Alerts list with better layout
-        JPanel alertsList = new JPanel();
+        // Alerts list, filled from each snapshot
+        alertsList = new JPanel();
         alertsList.setLayout(new BoxLayout(alertsList, BoxLayout.Y_AXIS));
         alertsList.setOpaque(false);
+        fillSystemAlerts(snapshot);
+
+        panel.add(alertsList, BorderLayout.CENTER);
+
+        return panel;
+    }
+
+    private void fillSystemAlerts(DashboardSnapshot current) {
+        alertsList.removeAll();
 
         // Generate real alerts based on data
-        List<String[]> alerts = generateSystemAlerts(cars, rentals);
+        SystemStatistics statistics = current.getStatistics();
+        List<String[]> alerts = statistics != null ? generateSystemAlerts(statistics) : new ArrayList<>();
 
         for (String[] alert : alerts) {
             JPanel alertItem = createAlertItem(alert[0], alert[1], alert[2]);
@@ -912,67 +871,32 @@ public class AdminDashboard extends JFrame {
 
         // Add flexible space at bottom
         alertsList.add(Box.createVerticalGlue());
-
-        panel.add(alertsList, BorderLayout.CENTER);
-
-        return panel;
     }
 
-    private List<String[]> generateSystemAlerts(List<Car> cars, List<Rental> rentals) {
+    private List<String[]> generateSystemAlerts(SystemStatistics statistics) {
         List<String[]> alerts = new ArrayList<>();
 
         // Check for overdue rentals
-        long overdueRentals = rentals.stream()
-                .filter(r -> "ACTIVE".equals(r.getStatus()))
-                .filter(r -> {
-                    try {
-                        java.time.LocalDate startDate = r.getStartDate();
-                        if (startDate != null) {
-                            long days = r.getNumberOfDays();
-                            java.time.LocalDate dueDate = startDate.plusDays(days);
-                            return java.time.LocalDate.now().isAfter(dueDate);
-                        }
-                        return false;
-                    } catch (Exception e) {
-                        return false;
-                    }
-                })
-                .count();
+        int overdueRentals = statistics.getOverdueRentals();
 
         if (overdueRentals > 0) {
             alerts.add(new String[] { "● High", overdueRentals + " overdue rental(s)", "1 hour ago" });
         }
 
         // Check for low fleet availability
-        long activeRentals = rentals.stream()
-                .filter(r -> "ACTIVE".equals(r.getStatus()))
-                .count();
-
-        int totalCars = cars.size();
+        int activeRentals = statistics.getActiveRentals();
+        int totalCars = statistics.getTotalCars();
         if (totalCars > 0 && (double) activeRentals / totalCars > 0.8) {
             alerts.add(new String[] { "● Medium", "Low fleet availability", "2 hours ago" });
         }
 
         // Check for system health
-        if (cars.isEmpty()) {
+        if (totalCars == 0) {
             alerts.add(new String[] { "● High", "No cars in fleet", "Just now" });
         }
 
         // Check for recent activity
-        long recentRentals = rentals.stream()
-                .filter(r -> {
-                    try {
-                        java.time.LocalDate startDate = r.getStartDate();
-                        if (startDate != null) {
-                            return java.time.temporal.ChronoUnit.DAYS.between(startDate,
-                                    java.time.LocalDate.now()) <= 1;
-                        }
-                        return false;
-                    } catch (Exception e) {
-                        return false;
-                    }
-                })
-                .count();
+        int recentRentals = statistics.getRecentRentals();
 
         if (recentRentals > 0) {
             alerts.add(new String[] { "● Low", recentRentals + " new rental(s) today", "Just now" });
@@ -1261,44 +1185,29 @@ public class AdminDashboard extends JFrame {
         statsPanel.setBorder(new EmptyBorder(20, 30, 20, 30));
         statsPanel.setOpaque(false);
 
-        try {
-            // Get statistics
-            List<Car> cars = carService.getAllCars();
-            List<Customer> customers = customerService.getAllCustomers();
-            List<Rental> rentals = rentalService.getAllRentals();
-            List<User> users = userService.getAllUsers();
-
-            // Create stat cards
-            statsPanel
-                    .add(createStatCard("🚗", "Total Cars", String.valueOf(cars.size()), ModernUITheme.SUCCESS_COLOR));
-            statsPanel.add(createStatCard("👥", "Total Customers", String.valueOf(customers.size()),
-                    ModernUITheme.PRIMARY_COLOR));
-            statsPanel.add(createStatCard("📋", "Active Rentals",
-                    String.valueOf(rentals.stream().filter(r -> "ACTIVE".equals(r.getStatus())).count()),
-                    ModernUITheme.ACCENT_COLOR));
-            statsPanel.add(
-                    createStatCard("👨‍💼", "System Users", String.valueOf(users.size()), ModernUITheme.WARNING_COLOR));
-            statsPanel.add(createStatCard("💰", "Total Revenue",
-                    "$" + rentalService.getTotalRevenue(), // Use actual revenue calculation
-                    ModernUITheme.INFO_COLOR));
-
-        } catch (SQLException e) {
-            // If database error, show placeholder stats
-            statsPanel.add(createStatCard("🚗", "Total Cars", "0", ModernUITheme.SUCCESS_COLOR));
-            statsPanel.add(createStatCard("👥", "Total Customers", "0", ModernUITheme.PRIMARY_COLOR));
-            statsPanel.add(createStatCard("📋", "Active Rentals", "0", ModernUITheme.ACCENT_COLOR));
-            statsPanel.add(createStatCard("👨‍💼", "System Users", "0", ModernUITheme.WARNING_COLOR));
-            statsPanel.add(createStatCard("💰", "Total Revenue", "$0", ModernUITheme.INFO_COLOR));
-        }
+        // Create stat cards; each reads its value from the snapshot when painted
+        statsPanel.add(createStatCard("🚗", "Total Cars", stats -> String.valueOf(stats.getTotalCars()), "0",
+                ModernUITheme.SUCCESS_COLOR));
+        statsPanel.add(createStatCard("👥", "Total Customers", stats -> String.valueOf(stats.getTotalCustomers()), "0",
+                ModernUITheme.PRIMARY_COLOR));
+        statsPanel.add(createStatCard("📋", "Active Rentals", stats -> String.valueOf(stats.getActiveRentals()), "0",
+                ModernUITheme.ACCENT_COLOR));
+        statsPanel.add(createStatCard("👨‍💼", "System Users", stats -> String.valueOf(stats.getTotalUsers()), "0",
+                ModernUITheme.WARNING_COLOR));
+        statsPanel.add(createStatCard("💰", "Total Revenue", stats -> "$" + stats.getTotalRevenue(), "$0",
+                ModernUITheme.INFO_COLOR));
 
         return statsPanel;
     }
 
-    private JPanel createStatCard(String icon, String title, String value, Color color) {
+    private JPanel createStatCard(String icon, String title, Function<SystemStatistics, String> valueOf,
+            String placeholder, Color color) {
         JPanel card = new JPanel() {
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
+                SystemStatistics statistics = snapshot.getStatistics();
+                String value = statistics != null ? valueOf.apply(statistics) : placeholder;
                 Graphics2D g2d = (Graphics2D) g;
                 g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
@@ -1360,25 +1269,35 @@ public class AdminDashboard extends JFrame {
      * Refresh the statistics panel
      */
     public void refreshStatistics() {
-        // Remove old statistics panel
-        if (dashboardPanel != null) {
-            dashboardPanel.removeAll();
-
-            // Recreate the dashboard panel
-            dashboardPanel = createDashboardPanel();
-
-            // Update the card layout
-            mainContentPanel.remove(dashboardPanel);
-            mainContentPanel.add(dashboardPanel, "DASHBOARD");
-
-            // Force revalidation and repaint
-            dashboardPanel.revalidate();
-            dashboardPanel.repaint();
-            mainContentPanel.revalidate();
-            mainContentPanel.repaint();
+        // Reload in the background; the panels update when the snapshot arrives
+        if (refresher != null) {
+            refresher.refreshNow();
         }
 
         // Also refresh the welcome message
         updateHeader(getAdminWelcomeMessage());
     }
+
+    /**
+     * Show a freshly loaded snapshot. Called on the EDT; every card, list
+     * and chart is updated before a single layout and repaint.
+     */
+    private void applySnapshot(DashboardSnapshot loaded) {
+        snapshot = loaded;
+        fillRecentTransactions(loaded);
+        fillSystemAlerts(loaded);
+
+        dashboardPanel.revalidate();
+        dashboardPanel.repaint();
+    }
+
+    @Override
+    public void dispose() {
+        // Stop refreshing a dashboard nobody will see
+        DatabaseManager.getEventBus().unsubscribe(dataChanges);
+        if (refresher != null) {
+            refresher.stop();
+        }
+        super.dispose();
+    }
 }
@@ -6,14 +6,23 @@ import java.awt.FlowLayout;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
+import java.io.File;
 import java.math.BigDecimal;
 import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
 import javax.swing.JComboBox;
 import javax.swing.JDialog;
+import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
@@ -22,10 +31,16 @@ import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.JTextField;
 import javax.swing.ListSelectionModel;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.filechooser.FileNameExtensionFilter;
 
 import com.carrental.model.Car;
 import com.carrental.service.CarService;
+import com.carrental.service.CsvImportService;
+import com.carrental.util.ChangeEventBus;
+import com.carrental.util.DatabaseManager;
+import com.carrental.util.EntityChangeEvent;
 
 /**
  * Car Management Frame for Admin users
@@ -35,12 +50,18 @@ import com.carrental.service.CarService;
  */
 public class CarManagementFrame extends JFrame {
 
+  // Larger change sets reload the table instead of patching row by row
+  private static final int MAX_PATCHED_ROWS = 100;
+
   private CarService carService;
   private JTable carTable;
-  private DefaultTableModel tableModel;
+  private ColumnarTableModel<Car> tableModel;
   private JTextField searchField;
   private JComboBox<String> statusFilter;
 
+  private final ChangeEventBus.ChangeSubscriber carChanges = this::carsChanged;
+  private final AtomicBoolean reloadQueued = new AtomicBoolean();
+
   public CarManagementFrame() {
     this.carService = new CarService();
     initializeComponents();
@@ -48,20 +69,32 @@ public class CarManagementFrame extends JFrame {
     setupEventHandlers();
     loadCars();
     setFrameProperties();
+
+    // Keep the table in step with car changes made anywhere
+    DatabaseManager.getEventBus().subscribe(carChanges, EntityChangeEvent.CARS);
+  }
+
+  @Override
+  public void dispose() {
+    DatabaseManager.getEventBus().unsubscribe(carChanges);
+    super.dispose();
   }
 
   private void initializeComponents() {
     // Initialize table model
-    String[] columnNames = { "ID", "Make", "Model", "Year", "License Plate", "Color", "Status", "Daily Rate",
-        "Created Date" };
-    tableModel = new DefaultTableModel(columnNames, 0) {
-      @Override
-      public boolean isCellEditable(int row, int column) {
-        return false; // Make table read-only
-      }
-    };
+    tableModel = new ColumnarTableModel<Car>(
+        ColumnarTableModel.Column.ofInt("ID", Car::getId),
+        ColumnarTableModel.Column.of("Make", Car::getMake),
+        ColumnarTableModel.Column.of("Model", Car::getModel),
+        ColumnarTableModel.Column.ofInt("Year", Car::getYear),
+        ColumnarTableModel.Column.of("License Plate", Car::getLicensePlate),
+        ColumnarTableModel.Column.of("Color", Car::getColor),
+        ColumnarTableModel.Column.of("Status", Car::getStatus),
+        ColumnarTableModel.Column.of("Daily Rate", Car::getDailyRate).format(rate -> "$" + rate),
+        ColumnarTableModel.Column.of("Created Date", Car::getCreatedDate));
 
     carTable = new JTable(tableModel);
+    tableModel.installOn(carTable);
     carTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
     carTable.getTableHeader().setReorderingAllowed(false);
 
@@ -148,12 +181,14 @@ public class CarManagementFrame extends JFrame {
     JButton addButton = ModernUITheme.createModernButton("➕ Add Car", "success");
     JButton editButton = ModernUITheme.createModernButton("✏️ Edit Car", "primary");
     JButton deleteButton = ModernUITheme.createModernButton("🗑️ Delete Car", "danger");
+    JButton importButton = ModernUITheme.createModernButton("📥 Import CSV", "success");
     JButton refreshButton = ModernUITheme.createModernButton("🔄 Refresh", "primary");
     JButton backButton = ModernUITheme.createModernButton("⬅️ Back to Dashboard", "danger");
 
     buttonPanel.add(addButton);
     buttonPanel.add(editButton);
     buttonPanel.add(deleteButton);
+    buttonPanel.add(importButton);
     buttonPanel.add(refreshButton);
     buttonPanel.add(backButton);
 
@@ -170,6 +205,7 @@ public class CarManagementFrame extends JFrame {
     addButton.addActionListener(e -> addNewCar());
     editButton.addActionListener(e -> editSelectedCar());
     deleteButton.addActionListener(e -> deleteSelectedCar());
+    importButton.addActionListener(e -> importCars(importButton));
     refreshButton.addActionListener(e -> loadCars());
     backButton.addActionListener(e -> dispose());
   }
@@ -199,6 +235,56 @@ public class CarManagementFrame extends JFrame {
     setResizable(true);
   }
 
+  private void importCars(JButton importButton) {
+    JFileChooser chooser = new JFileChooser();
+    chooser.setDialogTitle("Import Cars from CSV (make, model, year, license_plate, color, daily_rate)");
+    chooser.setFileFilter(new FileNameExtensionFilter("CSV files", "csv"));
+    if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+      return;
+    }
+
+    File csvFile = chooser.getSelectedFile();
+    File rejectFile = new File(csvFile.getAbsoluteFile().getParentFile(),
+        csvFile.getName().replaceFirst("(?i)\\.csv$", "") + "-rejects.csv");
+    importButton.setEnabled(false);
+
+    // Run the import off the EDT and show progress in the title bar
+    new SwingWorker<CsvImportService.ImportResult, Long>() {
+      @Override
+      protected CsvImportService.ImportResult doInBackground() throws Exception {
+        return new CsvImportService().importCars(csvFile, rejectFile,
+            (rowsRead, imported, rejected) -> publish(rowsRead));
+      }
+
+      @Override
+      protected void process(List<Long> rowsRead) {
+        setTitle("Car Management - Importing (" + rowsRead.get(rowsRead.size() - 1) + " rows read)");
+      }
+
+      @Override
+      protected void done() {
+        setTitle("Car Management - Car Rental System");
+        importButton.setEnabled(true);
+        try {
+          CsvImportService.ImportResult result = get();
+          String message = "Imported " + result.getImported() + " of " + result.getRowsRead() + " rows.";
+          if (result.getRejectFile() != null) {
+            message += "\n" + result.getRejected() + " rejected rows were written to " + result.getRejectFile();
+          }
+          JOptionPane.showMessageDialog(CarManagementFrame.this, message, "Import Complete",
+              JOptionPane.INFORMATION_MESSAGE);
+        } catch (InterruptedException | ExecutionException e) {
+          Throwable cause = e.getCause() != null ? e.getCause() : e;
+          JOptionPane.showMessageDialog(CarManagementFrame.this,
+              "Error importing cars: " + cause.getMessage(),
+              "Import Error",
+              JOptionPane.ERROR_MESSAGE);
+        }
+        loadCars();
+      }
+    }.execute();
+  }
+
   private void loadCars() {
     try {
       List<Car> cars = carService.getAllCars();
@@ -212,21 +298,77 @@ public class CarManagementFrame extends JFrame {
   }
 
   private void updateTableData(List<Car> cars) {
-    tableModel.setRowCount(0);
-    for (Car car : cars) {
-      Object[] row = {
-          car.getId(),
-          car.getMake(),
-          car.getModel(),
-          car.getYear(),
-          car.getLicensePlate(),
-          car.getColor(),
-          car.getStatus(),
-          "$" + car.getDailyRate(),
-          car.getCreatedDate() != null ? car.getCreatedDate().toString() : ""
-      };
-      tableModel.addRow(row);
+    tableModel.setRows(cars);
+  }
+
+  /**
+   * Apply committed car changes. Runs on the event bus thread: the changed
+   * cars are fetched here and only their rows are updated on the EDT.
+   */
+  private void carsChanged(List<EntityChangeEvent> events) {
+    Set<Integer> changedIds = new LinkedHashSet<>();
+    for (EntityChangeEvent event : events) {
+      if (event.isReload() || changedIds.size() >= MAX_PATCHED_ROWS) {
+        queueReload();
+        return;
+      }
+      changedIds.add(event.getId());
     }
+
+    try {
+      Map<Integer, Car> cars = new HashMap<>();
+      for (Car car : carService.getCarsByIds(changedIds)) {
+        cars.put(car.getId(), car);
+      }
+      SwingUtilities.invokeLater(() -> patchRows(changedIds, cars));
+    } catch (SQLException e) {
+      System.err.println("Error loading changed cars: " + e.getMessage());
+    }
+  }
+
+  private void queueReload() {
+    // One reload covers any number of change batches that arrive before it runs
+    if (reloadQueued.compareAndSet(false, true)) {
+      SwingUtilities.invokeLater(() -> {
+        reloadQueued.set(false);
+        performSearch();
+      });
+    }
+  }
+
+  private void patchRows(Set<Integer> changedIds, Map<Integer, Car> cars) {
+    for (int carId : changedIds) {
+      Car car = cars.get(carId);
+
+      if (car == null || !matchesFilter(car)) {
+        // Deleted, or no longer matches the search
+        tableModel.remove(carId);
+      } else {
+        // Updated in place, or added as the newest row
+        tableModel.put(car);
+      }
+    }
+  }
+
+  /**
+   * Same test as performSearch: status filter, then a case-insensitive
+   * match on make, model or license plate
+   */
+  private boolean matchesFilter(Car car) {
+    String statusFilterValue = (String) statusFilter.getSelectedItem();
+    if (!"All".equals(statusFilterValue) && !car.getStatus().equals(statusFilterValue.toUpperCase())) {
+      return false;
+    }
+
+    String searchTerm = searchField.getText().trim().toLowerCase(Locale.ROOT);
+    return searchTerm.isEmpty()
+        || contains(car.getMake(), searchTerm)
+        || contains(car.getModel(), searchTerm)
+        || contains(car.getLicensePlate(), searchTerm);
+  }
+
+  private static boolean contains(String value, String searchTerm) {
+    return value != null && value.toLowerCase(Locale.ROOT).contains(searchTerm);
   }
 
   private void performSearch() {
@@ -276,7 +418,7 @@ public class CarManagementFrame extends JFrame {
       return;
     }
 
-    int carId = (Integer) tableModel.getValueAt(selectedRow, 0);
+    int carId = tableModel.getIdAt(selectedRow);
     try {
       Car car = carService.getCarById(carId);
       if (car != null) {
@@ -305,7 +447,7 @@ public class CarManagementFrame extends JFrame {
       return;
     }
 
-    int carId = (Integer) tableModel.getValueAt(selectedRow, 0);
+    int carId = tableModel.getIdAt(selectedRow);
     String carInfo = tableModel.getValueAt(selectedRow, 1) + " " +
         tableModel.getValueAt(selectedRow, 2) + " (" +
         tableModel.getValueAt(selectedRow, 4) + ")";
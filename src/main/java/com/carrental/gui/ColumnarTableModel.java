@@ -0,0 +1,836 @@
+package com.carrental.gui;
+
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+import java.util.function.ToIntFunction;
+
+import javax.swing.JTable;
+import javax.swing.SwingWorker;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.JTableHeader;
+import javax.swing.table.TableColumn;
+
+/**
+ * Read-only table model that stores its rows column by column
+ *
+ * Each column keeps the raw values of one field in a single array, with
+ * int columns unboxed in an int[], so a row costs a few array slots instead
+ * of a Vector of preformatted strings. Cells are turned into text by the
+ * renderer as they are painted, so only visible rows are ever formatted.
+ * Clicking a header sorts by that column through a permutation of the rows.
+ * The first sort by a column builds its permutation in a SwingWorker, and
+ * the table keeps its current order until it is ready. After that the
+ * permutation is patched as single rows are put or removed, so a change
+ * costs an array shift rather than a sort. Rows are found by id through a
+ * primitive hash index.
+ *
+ * The first column must be an int column holding a unique id. Like every
+ * Swing model it is only used on the EDT; format functions may also run on
+ * the sorting worker.
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+public class ColumnarTableModel<T> extends AbstractTableModel {
+
+  /**
+   * One column: how to read its value from an entity and how to show it
+   */
+  public static class Column<T> {
+    private final String name;
+    private final ToIntFunction<T> intValue;
+    private final Function<T, ?> value;
+    private Function<Object, String> format = String::valueOf;
+    private Comparator<Object> order;
+
+    private Column(String name, ToIntFunction<T> intValue, Function<T, ?> value) {
+      this.name = name;
+      this.intValue = intValue;
+      this.value = value;
+    }
+
+    /**
+     * A column of int values, stored unboxed
+     */
+    public static <T> Column<T> ofInt(String name, ToIntFunction<T> value) {
+      return new Column<>(name, value, null);
+    }
+
+    /**
+     * A column of objects. Comparable values sort in their natural order,
+     * anything else by its formatted text.
+     */
+    public static <T> Column<T> of(String name, Function<T, ?> value) {
+      return new Column<>(name, null, value);
+    }
+
+    /**
+     * How the renderer shows a non-null value; null shows as blank
+     */
+    public Column<T> format(Function<Object, String> format) {
+      this.format = format;
+      return this;
+    }
+
+    /**
+     * Order of non-null values when sorting by this column
+     */
+    public Column<T> sortBy(Comparator<Object> order) {
+      this.order = order;
+      return this;
+    }
+
+    private boolean isInt() {
+      return intValue != null;
+    }
+
+    String getName() {
+      return name;
+    }
+
+    Object valueOf(T entity) {
+      return isInt() ? (Object) intValue.applyAsInt(entity) : value.apply(entity);
+    }
+
+    String textOf(Object value) {
+      return value != null ? format.apply(value) : "";
+    }
+  }
+
+  // Kinds of change logged while an order is built: a row's values were
+  // rewritten, a row was added, or a row was removed and the last moved in
+  private static final int CHANGED = 0;
+  private static final int ADDED = 1;
+  private static final int MOVED = 2;
+
+  private final List<Column<T>> columns;
+
+  // One int[] or Object[] per column; only the first size slots are used.
+  // Storage order is arbitrary: a removed row is filled with the last one.
+  private final Object[] data;
+  private int size = 0;
+  private final IdIndex idIndex = new IdIndex();
+
+  // Rows as loaded, newest first, with new rows put on top
+  private RowOrder loadOrder = RowOrder.identity(0);
+
+  // Rows in ascending order of each column, or null until built
+  private final RowOrder[] ascending;
+  // Changes made while a column's order is being built, replayed onto it;
+  // null when no build is running for that column
+  private final List<List<int[]>> changesDuringBuild;
+  // Bumped when every row is replaced, so builds from before are dropped
+  private int generation = 0;
+
+  // The sort last asked for, and the sort shown, which lags until its order is built
+  private int sortColumn = -1;
+  private boolean descending = false;
+  private int shownColumn = -1;
+  private boolean shownDescending = false;
+  private Runnable whenSortShown;
+
+  @SafeVarargs
+  public ColumnarTableModel(Column<T>... columns) {
+    if (columns.length == 0 || !columns[0].isInt()) {
+      throw new IllegalArgumentException("The first column must be an int id column");
+    }
+    // Copied element by element: passing the varargs array on would let it escape
+    this.columns = new ArrayList<>(columns.length);
+    this.changesDuringBuild = new ArrayList<>(columns.length);
+    for (Column<T> column : columns) {
+      this.columns.add(column);
+      this.changesDuringBuild.add(null);
+    }
+    this.data = new Object[columns.length];
+    this.ascending = new RowOrder[columns.length];
+    allocate(0);
+  }
+
+  /**
+   * Replace every row. The current sort is shown again once its order has
+   * been rebuilt in the background.
+   */
+  public void setRows(List<T> rows) {
+    allocate(rows.size());
+    idIndex.clear(rows.size());
+    size = 0;
+    for (T row : rows) {
+      write(size, row);
+      idIndex.put(idAt(size), size);
+      size++;
+    }
+    loadOrder = RowOrder.identity(size);
+
+    generation++;
+    Arrays.fill(ascending, null);
+    for (int column = 0; column < changesDuringBuild.size(); column++) {
+      changesDuringBuild.set(column, null);
+    }
+    shownColumn = -1;
+    shownDescending = false;
+    fireTableDataChanged();
+
+    if (sortColumn >= 0) {
+      buildOrder(sortColumn);
+    }
+  }
+
+  /**
+   * Update the row with the entity's id, or add it as the first row
+   */
+  public void put(T entity) {
+    int id = columns.get(0).intValue.applyAsInt(entity);
+    int index = idIndex.get(id);
+
+    if (index >= 0) {
+      int before = viewOf(index);
+      write(index, entity);
+      for (int column = 0; column < ascending.length; column++) {
+        if (ascending[column] != null) {
+          ascending[column].reposition(index, rowOrder(column, ascending[column]));
+        }
+      }
+      logChange(CHANGED, index);
+
+      int after = viewOf(index);
+      if (before == after) {
+        fireTableRowsUpdated(after, after);
+      } else {
+        fireTableDataChanged();
+      }
+      return;
+    }
+
+    index = size;
+    ensureCapacity(size + 1);
+    write(index, entity);
+    size++;
+    idIndex.put(id, index);
+    loadOrder.insert(0, index);
+    for (int column = 0; column < ascending.length; column++) {
+      if (ascending[column] != null) {
+        ascending[column].insertSorted(index, rowOrder(column, ascending[column]));
+      }
+    }
+    logChange(ADDED, index);
+
+    int view = viewOf(index);
+    fireTableRowsInserted(view, view);
+  }
+
+  /**
+   * Remove the row with the given id, if it is shown
+   */
+  public void remove(int id) {
+    int index = idIndex.get(id);
+    if (index < 0) {
+      return;
+    }
+    int view = viewOf(index);
+
+    // Fill the hole with the last stored row
+    int last = size - 1;
+    moveOut(loadOrder, index, last);
+    for (RowOrder order : ascending) {
+      if (order != null) {
+        moveOut(order, index, last);
+      }
+    }
+    logChange(MOVED, index, last);
+
+    idIndex.remove(id);
+    if (index != last) {
+      for (int column = 0; column < data.length; column++) {
+        System.arraycopy(data[column], last, data[column], index, 1);
+      }
+      idIndex.put(idAt(index), index);
+    }
+    for (int column = 0; column < data.length; column++) {
+      if (!columns.get(column).isInt()) {
+        ((Object[]) data[column])[last] = null;
+      }
+    }
+    size--;
+    fireTableRowsDeleted(view, view);
+  }
+
+  /**
+   * Id of the entity shown in the given row
+   */
+  public int getIdAt(int row) {
+    return idAt(rowAt(row));
+  }
+
+  /**
+   * Text shown in a cell, as formatted by its column
+   */
+  public String getTextAt(int row, int column) {
+    return columns.get(column).textOf(getValueAt(row, column));
+  }
+
+  /**
+   * Row showing the entity with the given id, or -1
+   */
+  public int indexOf(int id) {
+    int index = idIndex.get(id);
+    return index >= 0 ? viewOf(index) : -1;
+  }
+
+  /**
+   * Sort by a column, or reverse the order if already sorted by it
+   */
+  public void sortBy(int column) {
+    sortBy(column, null);
+  }
+
+  /**
+   * Sort by a column and run a callback once the new order is shown, which
+   * is later if the column's order still has to be built
+   */
+  void sortBy(int column, Runnable whenShown) {
+    descending = column == sortColumn && !descending;
+    sortColumn = column;
+    whenSortShown = whenShown;
+    if (ascending[column] != null) {
+      showRequestedSort();
+    } else {
+      buildOrder(column);
+    }
+  }
+
+  /**
+   * Show the model in a table: install the formatting renderers and sort
+   * when a header is clicked, keeping the selected row selected
+   */
+  public void installOn(JTable table) {
+    table.setModel(this);
+    installRenderers(table, columns);
+
+    JTableHeader header = table.getTableHeader();
+    header.addMouseListener(new MouseAdapter() {
+      @Override
+      public void mouseClicked(MouseEvent e) {
+        int viewColumn = header.columnAtPoint(e.getPoint());
+        if (viewColumn < 0) {
+          return;
+        }
+        int selected = table.getSelectedRow();
+        int selectedId = selected >= 0 ? getIdAt(selected) : -1;
+
+        sortBy(table.convertColumnIndexToModel(viewColumn), () -> {
+          int row = selectedId >= 0 ? indexOf(selectedId) : -1;
+          if (row >= 0) {
+            table.setRowSelectionInterval(row, row);
+            table.scrollRectToVisible(table.getCellRect(row, 0, true));
+          }
+        });
+
+        for (int i = 0; i < table.getColumnCount(); i++) {
+          TableColumn tableColumn = table.getColumnModel().getColumn(i);
+          String name = getColumnName(tableColumn.getModelIndex());
+          if (tableColumn.getModelIndex() == sortColumn) {
+            name += descending ? " ▼" : " ▲";
+          }
+          tableColumn.setHeaderValue(name);
+        }
+        header.repaint();
+      }
+    });
+  }
+
+  @Override
+  public int getRowCount() {
+    return size;
+  }
+
+  @Override
+  public int getColumnCount() {
+    return columns.size();
+  }
+
+  @Override
+  public String getColumnName(int column) {
+    return columns.get(column).getName();
+  }
+
+  @Override
+  public Object getValueAt(int row, int column) {
+    int index = rowAt(row);
+    if (columns.get(column).isInt()) {
+      return ((int[]) data[column])[index];
+    }
+    return ((Object[]) data[column])[index];
+  }
+
+  @Override
+  public boolean isCellEditable(int row, int column) {
+    return false; // Make table read-only
+  }
+
+  /**
+   * Format each column's cells with that column's format when painted
+   */
+  static <T> void installRenderers(JTable table, List<Column<T>> columns) {
+    for (int column = 0; column < columns.size(); column++) {
+      table.getColumnModel().getColumn(column).setCellRenderer(new FormattingRenderer(columns.get(column).format));
+    }
+  }
+
+  private RowOrder shownOrder() {
+    return shownColumn >= 0 ? ascending[shownColumn] : loadOrder;
+  }
+
+  private int rowAt(int row) {
+    return shownOrder().rowAt(shownDescending ? size - 1 - row : row);
+  }
+
+  private int viewOf(int index) {
+    int position = shownOrder().positionOf(index);
+    return shownDescending ? size - 1 - position : position;
+  }
+
+  private int idAt(int index) {
+    return ((int[]) data[0])[index];
+  }
+
+  private void showRequestedSort() {
+    shownColumn = sortColumn;
+    shownDescending = descending;
+    fireTableDataChanged();
+
+    Runnable callback = whenSortShown;
+    whenSortShown = null;
+    if (callback != null) {
+      callback.run();
+    }
+  }
+
+  /**
+   * Sort a copy of the column in a SwingWorker, then replay the changes
+   * made meanwhile and keep the order
+   */
+  private void buildOrder(int column) {
+    if (changesDuringBuild.get(column) != null) {
+      return; // Already building
+    }
+    List<int[]> changes = new ArrayList<>();
+    changesDuringBuild.set(column, changes);
+    int buildGeneration = generation;
+
+    Column<T> definition = columns.get(column);
+    int[] ints = definition.isInt() ? Arrays.copyOf((int[]) data[column], size) : null;
+    Object[] objects = definition.isInt() ? null : Arrays.copyOf((Object[]) data[column], size);
+
+    new SwingWorker<RowOrder, Void>() {
+      @Override
+      protected RowOrder doInBackground() {
+        return ints != null ? sortInts(ints) : sortObjects(definition, objects);
+      }
+
+      @Override
+      protected void done() {
+        if (buildGeneration != generation) {
+          return; // Every row was replaced meanwhile
+        }
+        changesDuringBuild.set(column, null);
+
+        RowOrder order;
+        try {
+          order = get();
+        } catch (InterruptedException | ExecutionException e) {
+          System.err.println("Error sorting table: " + e.getMessage());
+          return;
+        }
+        replay(column, order, changes);
+        ascending[column] = order;
+        if (column == sortColumn) {
+          showRequestedSort();
+        }
+      }
+    }.execute();
+  }
+
+  private void logChange(int... change) {
+    for (List<int[]> changes : changesDuringBuild) {
+      if (changes != null) {
+        changes.add(change);
+      }
+    }
+  }
+
+  /**
+   * Bring an order built from an earlier copy of the rows up to date: apply
+   * the moves and removals, then re-insert every added or changed row
+   */
+  private void replay(int column, RowOrder order, List<int[]> changes) {
+    Set<Integer> dirty = new HashSet<>();
+    for (int[] change : changes) {
+      int index = change[1];
+      if (change[0] == ADDED) {
+        order.insert(order.size, index);
+        dirty.add(index);
+      } else if (change[0] == CHANGED) {
+        dirty.add(index);
+      } else {
+        int last = change[2];
+        moveOut(order, index, last);
+        dirty.remove(index);
+        if (index != last && dirty.remove(last)) {
+          dirty.add(index);
+        }
+      }
+    }
+
+    for (int index : dirty) {
+      order.removeIndex(index);
+    }
+    IntBinaryOperator rows = rowOrder(column, order);
+    for (int index : dirty) {
+      order.insertSorted(index, rows);
+    }
+  }
+
+  /**
+   * Take a stored row out of an order, and give the last stored row, which
+   * is moved into its slot, the freed index
+   */
+  private static void moveOut(RowOrder order, int index, int last) {
+    order.removeIndex(index);
+    if (index != last) {
+      order.replaceIndex(last, index);
+    }
+  }
+
+  /**
+   * Compares two stored rows by the column's current values, as its order
+   * was sorted
+   */
+  private IntBinaryOperator rowOrder(int column, RowOrder order) {
+    if (columns.get(column).isInt()) {
+      int[] values = (int[]) data[column];
+      return (a, b) -> Integer.compare(values[a], values[b]);
+    }
+    Object[] values = (Object[]) data[column];
+    Comparator<Object> nullsFirst = Comparator.nullsFirst(order.valueOrder);
+    return (a, b) -> nullsFirst.compare(values[a], values[b]);
+  }
+
+  private void allocate(int capacity) {
+    for (int column = 0; column < data.length; column++) {
+      data[column] = columns.get(column).isInt() ? new int[capacity] : new Object[capacity];
+    }
+  }
+
+  private void ensureCapacity(int needed) {
+    int capacity = ((int[]) data[0]).length;
+    if (needed <= capacity) {
+      return;
+    }
+    int grown = Math.max(Math.max(16, needed), capacity + (capacity >> 1));
+    for (int column = 0; column < data.length; column++) {
+      data[column] = columns.get(column).isInt()
+          ? Arrays.copyOf((int[]) data[column], grown)
+          : Arrays.copyOf((Object[]) data[column], grown);
+    }
+  }
+
+  private void write(int index, T entity) {
+    for (int column = 0; column < data.length; column++) {
+      Column<T> definition = columns.get(column);
+      if (definition.isInt()) {
+        ((int[]) data[column])[index] = definition.intValue.applyAsInt(entity);
+      } else {
+        ((Object[]) data[column])[index] = definition.value.apply(entity);
+      }
+    }
+  }
+
+  private static RowOrder sortInts(int[] values) {
+    // Value in the high half, row in the low half: one primitive sort, ties stay in row order
+    long[] keys = new long[values.length];
+    for (int index = 0; index < values.length; index++) {
+      keys[index] = ((long) values[index] << 32) | index;
+    }
+    Arrays.parallelSort(keys);
+    int[] order = new int[values.length];
+    for (int position = 0; position < values.length; position++) {
+      order[position] = (int) keys[position];
+    }
+    return new RowOrder(order, values.length, null);
+  }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private static <T> RowOrder sortObjects(Column<T> definition, Object[] values) {
+    Object[] keys = values;
+    Comparator<Object> valueOrder = definition.order;
+    Comparator<Object> keyOrder = valueOrder;
+
+    if (valueOrder == null) {
+      boolean comparable = true;
+      for (Object key : keys) {
+        if (key != null && !(key instanceof Comparable)) {
+          comparable = false;
+          break;
+        }
+      }
+      Function<Object, String> format = definition.format;
+      if (comparable) {
+        // Values of another class, put in later, compare by their text
+        valueOrder = (a, b) -> a.getClass() == b.getClass()
+            ? ((Comparable) a).compareTo(b)
+            : format.apply(a).compareTo(format.apply(b));
+        keyOrder = valueOrder;
+      } else {
+        valueOrder = (a, b) -> format.apply(a).compareTo(format.apply(b));
+        // Format each value once rather than on every comparison
+        keys = new Object[values.length];
+        for (int index = 0; index < values.length; index++) {
+          keys[index] = values[index] != null ? format.apply(values[index]) : null;
+        }
+        keyOrder = (a, b) -> ((String) a).compareTo((String) b);
+      }
+    }
+
+    Object[] sortKeys = keys;
+    Comparator<Object> nullsFirst = Comparator.nullsFirst(keyOrder);
+    Integer[] rows = new Integer[values.length];
+    for (int index = 0; index < values.length; index++) {
+      rows[index] = index;
+    }
+    Arrays.parallelSort(rows, (a, b) -> nullsFirst.compare(sortKeys[a], sortKeys[b]));
+
+    int[] order = new int[values.length];
+    for (int position = 0; position < values.length; position++) {
+      order[position] = rows[position];
+    }
+    return new RowOrder(order, values.length, valueOrder);
+  }
+
+  /**
+   * A permutation of the stored rows with its inverse, so a row's position
+   * is found without a scan
+   */
+  private static class RowOrder {
+    private int[] rows = new int[0];
+    private int[] positions = new int[0];
+    private int size;
+    // How the values of a sorted object column compare; null otherwise
+    private final Comparator<Object> valueOrder;
+
+    RowOrder(int[] rows, int size, Comparator<Object> valueOrder) {
+      this.valueOrder = valueOrder;
+      this.size = size;
+      ensureCapacity(size);
+      System.arraycopy(rows, 0, this.rows, 0, size);
+      reindex(0);
+    }
+
+    static RowOrder identity(int size) {
+      int[] rows = new int[size];
+      for (int index = 0; index < size; index++) {
+        rows[index] = index;
+      }
+      return new RowOrder(rows, size, null);
+    }
+
+    int rowAt(int position) {
+      return rows[position];
+    }
+
+    int positionOf(int index) {
+      return positions[index];
+    }
+
+    void insert(int position, int index) {
+      ensureCapacity(Math.max(size, index) + 1);
+      System.arraycopy(rows, position, rows, position + 1, size - position);
+      rows[position] = index;
+      size++;
+      reindex(position);
+    }
+
+    /**
+     * Insert after every row that does not compare greater
+     */
+    void insertSorted(int index, IntBinaryOperator order) {
+      insert(sortedPosition(index, order), index);
+    }
+
+    /**
+     * Move a row whose value changed to its sorted place, shifting only the
+     * rows between its old and new positions
+     */
+    void reposition(int index, IntBinaryOperator order) {
+      int from = positions[index];
+      System.arraycopy(rows, from + 1, rows, from, size - from - 1);
+      size--;
+      int to = sortedPosition(index, order);
+      System.arraycopy(rows, to, rows, to + 1, size - to);
+      rows[to] = index;
+      size++;
+      for (int position = Math.min(from, to); position <= Math.max(from, to); position++) {
+        positions[rows[position]] = position;
+      }
+    }
+
+    void removeIndex(int index) {
+      int position = positions[index];
+      System.arraycopy(rows, position + 1, rows, position, size - position - 1);
+      size--;
+      reindex(position);
+    }
+
+    void replaceIndex(int from, int to) {
+      int position = positions[from];
+      rows[position] = to;
+      positions[to] = position;
+    }
+
+    private int sortedPosition(int index, IntBinaryOperator order) {
+      int low = 0;
+      int high = size;
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (order.applyAsInt(rows[middle], index) <= 0) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      return low;
+    }
+
+    private void reindex(int from) {
+      for (int position = from; position < size; position++) {
+        positions[rows[position]] = position;
+      }
+    }
+
+    private void ensureCapacity(int needed) {
+      if (needed > rows.length) {
+        int grown = Math.max(needed, rows.length + (rows.length >> 1));
+        rows = Arrays.copyOf(rows, grown);
+        positions = Arrays.copyOf(positions, grown);
+      }
+    }
+  }
+
+  /**
+   * Open-addressing map from id to stored row, without boxing
+   */
+  private static class IdIndex {
+    private int[] keys;
+    // Stored row + 1, so 0 marks an empty slot
+    private int[] values;
+    private int count;
+
+    IdIndex() {
+      clear(0);
+    }
+
+    void clear(int expected) {
+      int capacity = 16;
+      while (capacity < expected * 2) {
+        capacity <<= 1;
+      }
+      keys = new int[capacity];
+      values = new int[capacity];
+      count = 0;
+    }
+
+    int get(int id) {
+      for (int slot = home(id); ; slot = (slot + 1) & (keys.length - 1)) {
+        if (values[slot] == 0) {
+          return -1;
+        }
+        if (keys[slot] == id) {
+          return values[slot] - 1;
+        }
+      }
+    }
+
+    void put(int id, int index) {
+      if ((count + 1) * 2 > keys.length) {
+        grow();
+      }
+      int slot = home(id);
+      while (values[slot] != 0 && keys[slot] != id) {
+        slot = (slot + 1) & (keys.length - 1);
+      }
+      if (values[slot] == 0) {
+        count++;
+      }
+      keys[slot] = id;
+      values[slot] = index + 1;
+    }
+
+    void remove(int id) {
+      int mask = keys.length - 1;
+      int hole = home(id);
+      while (values[hole] != 0 && keys[hole] != id) {
+        hole = (hole + 1) & mask;
+      }
+      if (values[hole] == 0) {
+        return;
+      }
+      values[hole] = 0;
+      count--;
+
+      // Shift later entries of the probe run back so lookups still find them
+      for (int slot = (hole + 1) & mask; values[slot] != 0; slot = (slot + 1) & mask) {
+        int home = home(keys[slot]);
+        boolean movable = slot > hole ? (home <= hole || home > slot) : (home <= hole && home > slot);
+        if (movable) {
+          keys[hole] = keys[slot];
+          values[hole] = values[slot];
+          values[slot] = 0;
+          hole = slot;
+        }
+      }
+    }
+
+    private int home(int id) {
+      int hash = id * 0x9E3779B9;
+      return (hash ^ (hash >>> 16)) & (keys.length - 1);
+    }
+
+    private void grow() {
+      int[] oldKeys = keys;
+      int[] oldValues = values;
+      keys = new int[oldKeys.length * 2];
+      values = new int[oldValues.length * 2];
+      count = 0;
+      for (int slot = 0; slot < oldKeys.length; slot++) {
+        if (oldValues[slot] != 0) {
+          put(oldKeys[slot], oldValues[slot] - 1);
+        }
+      }
+    }
+  }
+
+  /**
+   * Formats a cell's value only when it is painted
+   */
+  private static class FormattingRenderer extends DefaultTableCellRenderer {
+    private final Function<Object, String> format;
+
+    FormattingRenderer(Function<Object, String> format) {
+      this.format = format;
+    }
+
+    @Override
+    protected void setValue(Object value) {
+      setText(value != null ? format.apply(value) : "");
+    }
+  }
+}
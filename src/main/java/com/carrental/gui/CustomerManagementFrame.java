@@ -6,12 +6,21 @@ import java.awt.FlowLayout;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
+import java.io.File;
 import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
 import javax.swing.JDialog;
+import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
@@ -20,10 +29,16 @@ import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.JTextField;
 import javax.swing.ListSelectionModel;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.filechooser.FileNameExtensionFilter;
 
 import com.carrental.model.Customer;
+import com.carrental.service.CsvImportService;
 import com.carrental.service.CustomerService;
+import com.carrental.util.ChangeEventBus;
+import com.carrental.util.DatabaseManager;
+import com.carrental.util.EntityChangeEvent;
 
 /**
  * Customer Management Frame for Staff users
@@ -33,11 +48,17 @@ import com.carrental.service.CustomerService;
  */
 public class CustomerManagementFrame extends JFrame {
 
+  // Larger change sets reload the table instead of patching row by row
+  private static final int MAX_PATCHED_ROWS = 100;
+
   private CustomerService customerService;
   private JTable customerTable;
-  private DefaultTableModel tableModel;
+  private ColumnarTableModel<Customer> tableModel;
   private JTextField searchField;
 
+  private final ChangeEventBus.ChangeSubscriber customerChanges = this::customersChanged;
+  private final AtomicBoolean reloadQueued = new AtomicBoolean();
+
   public CustomerManagementFrame() {
     this.customerService = new CustomerService();
     initializeComponents();
@@ -45,19 +66,29 @@ public class CustomerManagementFrame extends JFrame {
     setupEventHandlers();
     loadCustomers();
     setFrameProperties();
+
+    // Keep the table in step with customer changes made anywhere
+    DatabaseManager.getEventBus().subscribe(customerChanges, EntityChangeEvent.CUSTOMERS);
+  }
+
+  @Override
+  public void dispose() {
+    DatabaseManager.getEventBus().unsubscribe(customerChanges);
+    super.dispose();
   }
 
   private void initializeComponents() {
     // Initialize table model
-    String[] columnNames = { "ID", "Name", "Email", "Phone", "Address", "Created Date" };
-    tableModel = new DefaultTableModel(columnNames, 0) {
-      @Override
-      public boolean isCellEditable(int row, int column) {
-        return false; // Make table read-only
-      }
-    };
+    tableModel = new ColumnarTableModel<Customer>(
+        ColumnarTableModel.Column.ofInt("ID", Customer::getId),
+        ColumnarTableModel.Column.of("Name", Customer::getName),
+        ColumnarTableModel.Column.of("Email", Customer::getEmail),
+        ColumnarTableModel.Column.of("Phone", Customer::getPhone),
+        ColumnarTableModel.Column.of("Address", Customer::getAddress),
+        ColumnarTableModel.Column.of("Created Date", Customer::getCreatedDate));
 
     customerTable = new JTable(tableModel);
+    tableModel.installOn(customerTable);
     customerTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
     customerTable.getTableHeader().setReorderingAllowed(false);
 
@@ -136,12 +167,14 @@ public class CustomerManagementFrame extends JFrame {
     JButton addButton = ModernUITheme.createModernButton("➕ Add Customer", "success");
     JButton editButton = ModernUITheme.createModernButton("✏️ Edit Customer", "primary");
     JButton deleteButton = ModernUITheme.createModernButton("🗑️ Delete Customer", "danger");
+    JButton importButton = ModernUITheme.createModernButton("📥 Import CSV", "success");
     JButton refreshButton = ModernUITheme.createModernButton("🔄 Refresh", "primary");
     JButton backButton = ModernUITheme.createModernButton("⬅️ Back to Dashboard", "danger");
 
     buttonPanel.add(addButton);
     buttonPanel.add(editButton);
     buttonPanel.add(deleteButton);
+    buttonPanel.add(importButton);
     buttonPanel.add(refreshButton);
     buttonPanel.add(backButton);
 
@@ -157,6 +190,7 @@ public class CustomerManagementFrame extends JFrame {
     addButton.addActionListener(e -> addNewCustomer());
     editButton.addActionListener(e -> editSelectedCustomer());
     deleteButton.addActionListener(e -> deleteSelectedCustomer());
+    importButton.addActionListener(e -> importCustomers(importButton));
     refreshButton.addActionListener(e -> loadCustomers());
     backButton.addActionListener(e -> dispose());
   }
@@ -183,6 +217,56 @@ public class CustomerManagementFrame extends JFrame {
     setResizable(true);
   }
 
+  private void importCustomers(JButton importButton) {
+    JFileChooser chooser = new JFileChooser();
+    chooser.setDialogTitle("Import Customers from CSV (name, email, phone, address)");
+    chooser.setFileFilter(new FileNameExtensionFilter("CSV files", "csv"));
+    if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+      return;
+    }
+
+    File csvFile = chooser.getSelectedFile();
+    File rejectFile = new File(csvFile.getAbsoluteFile().getParentFile(),
+        csvFile.getName().replaceFirst("(?i)\\.csv$", "") + "-rejects.csv");
+    importButton.setEnabled(false);
+
+    // Run the import off the EDT and show progress in the title bar
+    new SwingWorker<CsvImportService.ImportResult, Long>() {
+      @Override
+      protected CsvImportService.ImportResult doInBackground() throws Exception {
+        return new CsvImportService().importCustomers(csvFile, rejectFile,
+            (rowsRead, imported, rejected) -> publish(rowsRead));
+      }
+
+      @Override
+      protected void process(List<Long> rowsRead) {
+        setTitle("Customer Management - Importing (" + rowsRead.get(rowsRead.size() - 1) + " rows read)");
+      }
+
+      @Override
+      protected void done() {
+        setTitle("Customer Management - Car Rental System");
+        importButton.setEnabled(true);
+        try {
+          CsvImportService.ImportResult result = get();
+          String message = "Imported " + result.getImported() + " of " + result.getRowsRead() + " rows.";
+          if (result.getRejectFile() != null) {
+            message += "\n" + result.getRejected() + " rejected rows were written to " + result.getRejectFile();
+          }
+          JOptionPane.showMessageDialog(CustomerManagementFrame.this, message, "Import Complete",
+              JOptionPane.INFORMATION_MESSAGE);
+        } catch (InterruptedException | ExecutionException e) {
+          Throwable cause = e.getCause() != null ? e.getCause() : e;
+          JOptionPane.showMessageDialog(CustomerManagementFrame.this,
+              "Error importing customers: " + cause.getMessage(),
+              "Import Error",
+              JOptionPane.ERROR_MESSAGE);
+        }
+        loadCustomers();
+      }
+    }.execute();
+  }
+
   private void loadCustomers() {
     try {
       List<Customer> customers = customerService.getAllCustomers();
@@ -196,20 +280,75 @@ public class CustomerManagementFrame extends JFrame {
   }
 
   private void updateTableData(List<Customer> customers) {
-    tableModel.setRowCount(0);
-    for (Customer customer : customers) {
-      Object[] row = {
-          customer.getId(),
-          customer.getName(),
-          customer.getEmail(),
-          customer.getPhone(),
-          customer.getAddress(),
-          customer.getCreatedDate() != null ? customer.getCreatedDate().toString() : ""
-      };
-      tableModel.addRow(row);
+    tableModel.setRows(customers);
+  }
+
+  /**
+   * Apply committed customer changes. Runs on the event bus thread: the
+   * changed customers are fetched here and only their rows are updated on
+   * the EDT.
+   */
+  private void customersChanged(List<EntityChangeEvent> events) {
+    Set<Integer> changedIds = new LinkedHashSet<>();
+    for (EntityChangeEvent event : events) {
+      if (event.isReload() || changedIds.size() >= MAX_PATCHED_ROWS) {
+        queueReload();
+        return;
+      }
+      changedIds.add(event.getId());
+    }
+
+    try {
+      Map<Integer, Customer> customers = new HashMap<>();
+      for (Customer customer : customerService.getCustomersByIds(changedIds)) {
+        customers.put(customer.getId(), customer);
+      }
+      SwingUtilities.invokeLater(() -> patchRows(changedIds, customers));
+    } catch (SQLException e) {
+      System.err.println("Error loading changed customers: " + e.getMessage());
+    }
+  }
+
+  private void queueReload() {
+    // One reload covers any number of change batches that arrive before it runs
+    if (reloadQueued.compareAndSet(false, true)) {
+      SwingUtilities.invokeLater(() -> {
+        reloadQueued.set(false);
+        performSearch();
+      });
     }
   }
 
+  private void patchRows(Set<Integer> changedIds, Map<Integer, Customer> customers) {
+    for (int customerId : changedIds) {
+      Customer customer = customers.get(customerId);
+
+      if (customer == null || !matchesSearch(customer)) {
+        // Deleted, or no longer matches the search
+        tableModel.remove(customerId);
+      } else {
+        // Updated in place, or added as the newest row
+        tableModel.put(customer);
+      }
+    }
+  }
+
+  /**
+   * Same test as performSearch: a case-insensitive match on name, email or
+   * phone
+   */
+  private boolean matchesSearch(Customer customer) {
+    String searchTerm = searchField.getText().trim().toLowerCase(Locale.ROOT);
+    return searchTerm.isEmpty()
+        || contains(customer.getName(), searchTerm)
+        || contains(customer.getEmail(), searchTerm)
+        || contains(customer.getPhone(), searchTerm);
+  }
+
+  private static boolean contains(String value, String searchTerm) {
+    return value != null && value.toLowerCase(Locale.ROOT).contains(searchTerm);
+  }
+
   private void performSearch() {
     try {
       String searchTerm = searchField.getText().trim();
@@ -249,7 +388,7 @@ public class CustomerManagementFrame extends JFrame {
       return;
     }
 
-    int customerId = (Integer) tableModel.getValueAt(selectedRow, 0);
+    int customerId = tableModel.getIdAt(selectedRow);
     try {
       Customer customer = customerService.getCustomerById(customerId);
       if (customer != null) {
@@ -278,7 +417,7 @@ public class CustomerManagementFrame extends JFrame {
       return;
     }
 
-    int customerId = (Integer) tableModel.getValueAt(selectedRow, 0);
+    int customerId = tableModel.getIdAt(selectedRow);
     String customerInfo = tableModel.getValueAt(selectedRow, 1) + " (" +
         tableModel.getValueAt(selectedRow, 2) + ")";
 
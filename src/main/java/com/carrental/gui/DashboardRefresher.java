@@ -0,0 +1,156 @@
+package com.carrental.gui;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+
+import com.carrental.model.DashboardSnapshot;
+
+/**
+ * Reloads a dashboard snapshot in the background on a fixed cadence and on
+ * demand.
+ *
+ * Each refresh runs in a SwingWorker. Requests that arrive while a load is
+ * running are coalesced into a single follow-up load. Results from a load
+ * that was started before the last one applied, or before the refresher
+ * was stopped, are dropped. Accepted snapshots are handed to the consumer
+ * on the EDT so it can update all components in one pass.
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+public class DashboardRefresher {
+
+    /**
+     * Loads a snapshot off the EDT
+     */
+    @FunctionalInterface
+    public interface SnapshotLoader {
+        DashboardSnapshot load() throws Exception;
+    }
+
+    private final SnapshotLoader loader;
+    private final Consumer<DashboardSnapshot> consumer;
+    private final Timer timer;
+
+    // Only touched on the EDT
+    private SwingWorker<DashboardSnapshot, Void> worker;
+    private boolean refreshPending = false;
+    private boolean running = false;
+    private long requested = 0;
+    private long applied = 0;
+
+    /**
+     * @param intervalMillis time between scheduled refreshes, 0 for on-demand only
+     */
+    public DashboardRefresher(SnapshotLoader loader, Consumer<DashboardSnapshot> consumer, int intervalMillis) {
+        this.loader = loader;
+        this.consumer = consumer;
+        if (intervalMillis > 0) {
+            this.timer = new Timer(intervalMillis, e -> refreshNow());
+            this.timer.setCoalesce(true);
+        } else {
+            this.timer = null;
+        }
+    }
+
+    /**
+     * Load a snapshot now and then on the configured cadence
+     */
+    public void start() {
+        runOnEdt(() -> {
+            running = true;
+            if (timer != null) {
+                timer.start();
+            }
+            refreshNow();
+        });
+    }
+
+    /**
+     * Stop scheduled refreshes and discard any load in progress
+     */
+    public void stop() {
+        runOnEdt(() -> {
+            running = false;
+            refreshPending = false;
+            if (timer != null) {
+                timer.stop();
+            }
+            if (worker != null) {
+                worker.cancel(true);
+                worker = null;
+            }
+        });
+    }
+
+    /**
+     * Request a refresh. Safe to call from any thread; if a load is already
+     * running, one more load is started after it finishes.
+     */
+    public void refreshNow() {
+        runOnEdt(() -> {
+            if (!running) {
+                return;
+            }
+            if (worker != null) {
+                refreshPending = true;
+                return;
+            }
+            startWorker();
+        });
+    }
+
+    private void startWorker() {
+        long sequence = ++requested;
+        SwingWorker<DashboardSnapshot, Void> load = new SwingWorker<DashboardSnapshot, Void>() {
+            @Override
+            protected DashboardSnapshot doInBackground() throws Exception {
+                return loader.load();
+            }
+
+            @Override
+            protected void done() {
+                if (worker == this) {
+                    worker = null;
+                }
+                if (!running || isCancelled()) {
+                    return;
+                }
+
+                try {
+                    DashboardSnapshot snapshot = get();
+                    // Never replace newer data with an older load
+                    if (sequence > applied) {
+                        applied = sequence;
+                        consumer.accept(snapshot);
+                    }
+                } catch (InterruptedException | CancellationException e) {
+                    return;
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    System.err.println("Error refreshing dashboard: " + cause.getMessage());
+                }
+
+                if (refreshPending) {
+                    refreshPending = false;
+                    startWorker();
+                }
+            }
+        };
+        worker = load;
+        load.execute();
+    }
+
+    private static void runOnEdt(Runnable task) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            task.run();
+        } else {
+            SwingUtilities.invokeLater(task);
+        }
+    }
+}
@@ -10,6 +10,8 @@ import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
@@ -24,7 +26,7 @@ import javax.swing.JSpinner;
 import javax.swing.JTable;
 import javax.swing.ListSelectionModel;
 import javax.swing.SpinnerDateModel;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.SwingUtilities;
 
 import com.carrental.model.Car;
 import com.carrental.model.Customer;
@@ -34,7 +36,6 @@ import com.carrental.service.AuthenticationService;
 import com.carrental.service.CarService;
 import com.carrental.service.CustomerService;
 import com.carrental.service.RentalService;
-import com.carrental.service.UserService;
 
 /**
  * Rental Management Frame for Staff users
@@ -44,14 +45,17 @@ import com.carrental.service.UserService;
  */
 public class RentalManagementFrame extends JFrame {
 
+  // Rentals fetched per query, and how many such windows are kept loaded
+  private static final int WINDOW_SIZE = 200;
+  private static final int MAX_WINDOWS = 8;
+
   private RentalService rentalService;
   private CarService carService;
   private CustomerService customerService;
   private AuthenticationService authService;
-  private UserService userService;
 
   private JTable rentalTable;
-  private DefaultTableModel tableModel;
+  private WindowedTableModel<Rental> tableModel;
   private JComboBox<String> statusFilter;
 
   // Callback for refreshing parent dashboard
@@ -62,7 +66,6 @@ public class RentalManagementFrame extends JFrame {
     this.carService = new CarService();
     this.customerService = new CustomerService();
     this.authService = new AuthenticationService();
-    this.userService = new UserService();
     initializeComponents();
     setupLayout();
     setupEventHandlers();
@@ -78,16 +81,30 @@ public class RentalManagementFrame extends JFrame {
   }
 
   private void initializeComponents() {
-    // Initialize table model
-    String[] columnNames = { "ID", "Car", "Customer", "Start Date", "End Date", "Total Cost", "Status", "Staff" };
-    tableModel = new DefaultTableModel(columnNames, 0) {
-      @Override
-      public boolean isCellEditable(int row, int column) {
-        return false; // Make table read-only
-      }
-    };
+    // Initialize table model. Rows are fetched newest first as they scroll
+    // into view; related objects come from the joined details query and a
+    // missing one is shown by its ID.
+    tableModel = new WindowedTableModel<Rental>(WINDOW_SIZE, MAX_WINDOWS,
+        ColumnarTableModel.Column.ofInt("ID", Rental::getId),
+        ColumnarTableModel.Column.<Rental>of("Car",
+            rental -> rental.getCar() != null ? rental.getCar() : "Car ID: " + rental.getCarId())
+            .format(RentalManagementFrame::formatCar),
+        ColumnarTableModel.Column.<Rental>of("Customer",
+            rental -> rental.getCustomer() != null ? rental.getCustomer() : "Customer ID: " + rental.getCustomerId())
+            .format(RentalManagementFrame::formatCustomer),
+        ColumnarTableModel.Column.of("Start Date", Rental::getStartDate),
+        ColumnarTableModel.Column.of("End Date", Rental::getEndDate),
+        ColumnarTableModel.Column.of("Total Cost", Rental::getTotalCost).format(cost -> "$" + cost),
+        ColumnarTableModel.Column.of("Status", Rental::getStatus),
+        ColumnarTableModel.Column.<Rental>of("Staff",
+            rental -> rental.getStaff() != null ? rental.getStaff().getUsername() : "Staff ID: " + rental.getStaffId()));
 
     rentalTable = new JTable(tableModel);
+    tableModel.installOn(rentalTable);
+    tableModel.setErrorHandler(error -> JOptionPane.showMessageDialog(this,
+        "Error loading rentals: " + error.getMessage(),
+        "Database Error",
+        JOptionPane.ERROR_MESSAGE));
     rentalTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
     rentalTable.getTableHeader().setReorderingAllowed(false);
 
@@ -145,6 +162,7 @@ public class RentalManagementFrame extends JFrame {
 
     // Table panel
     JScrollPane scrollPane = new JScrollPane(rentalTable);
+    tableModel.followScrolling(scrollPane, rentalTable);
     scrollPane.setPreferredSize(new Dimension(800, 400));
     scrollPane.setBorder(BorderFactory.createLineBorder(ModernUITheme.BORDER_LIGHT, 1));
 
@@ -204,72 +222,43 @@ public class RentalManagementFrame extends JFrame {
   }
 
   private void loadRentals() {
-    try {
-      List<Rental> rentals;
-      String statusFilterValue = (String) statusFilter.getSelectedItem();
-
-      if ("All".equals(statusFilterValue)) {
-        rentals = rentalService.getAllRentals();
-      } else if ("Active".equals(statusFilterValue)) {
-        rentals = rentalService.getActiveRentals();
-      } else {
-        rentals = rentalService.getRentalsByStatus(statusFilterValue.toUpperCase());
-      }
+    String statusFilterValue = (String) statusFilter.getSelectedItem();
+    String status = "All".equals(statusFilterValue) ? null : statusFilterValue.toUpperCase();
 
-      updateTableData(rentals);
-    } catch (SQLException e) {
-      JOptionPane.showMessageDialog(this,
-          "Error loading rentals: " + e.getMessage(),
-          "Database Error",
-          JOptionPane.ERROR_MESSAGE);
-    }
-  }
-
-  private void updateTableData(List<Rental> rentals) {
-    tableModel.setRowCount(0);
-    for (Rental rental : rentals) {
-      // Load related objects separately to avoid statement pointer issues
-      String carInfo;
-      String customerInfo;
-      String staffInfo;
-
-      try {
-        Car car = carService.getCarById(rental.getCarId());
-        carInfo = car != null
-            ? car.getMake() + " " + car.getModel() + " (" + car.getLicensePlate() + ")"
-            : "Car ID: " + rental.getCarId();
-      } catch (Exception e) {
-        carInfo = "Car ID: " + rental.getCarId();
+    // Only the count and the first window are read here; the rest load on scroll
+    tableModel.load(new WindowedTableModel.RowSource<Rental>() {
+      @Override
+      public int count() throws SQLException {
+        return rentalService.countRentals(status);
       }
 
-      try {
-        Customer customer = customerService.getCustomerById(rental.getCustomerId());
-        customerInfo = customer != null
-            ? customer.getName() + " (" + customer.getEmail() + ")"
-            : "Customer ID: " + rental.getCustomerId();
-      } catch (Exception e) {
-        customerInfo = "Customer ID: " + rental.getCustomerId();
+      @Override
+      public List<Rental> fetch(int offset, int limit) throws SQLException {
+        return rentalService.getRentalDetailsWindow(status, offset, limit);
       }
+    });
+  }
 
-      try {
-        User staff = userService.getUserById(rental.getStaffId());
-        staffInfo = staff != null ? staff.getUsername() : "Staff ID: " + rental.getStaffId();
-      } catch (Exception e) {
-        staffInfo = "Staff ID: " + rental.getStaffId();
-      }
+  /**
+   * Car column text, built only when the cell is painted
+   */
+  private static String formatCar(Object value) {
+    if (value instanceof Car) {
+      Car car = (Car) value;
+      return car.getMake() + " " + car.getModel() + " (" + car.getLicensePlate() + ")";
+    }
+    return value.toString();
+  }
 
-      Object[] row = {
-          rental.getId(),
-          carInfo,
-          customerInfo,
-          rental.getStartDate(),
-          rental.getEndDate(),
-          "$" + rental.getTotalCost(),
-          rental.getStatus(),
-          staffInfo
-      };
-      tableModel.addRow(row);
+  /**
+   * Customer column text, built only when the cell is painted
+   */
+  private static String formatCustomer(Object value) {
+    if (value instanceof Customer) {
+      Customer customer = (Customer) value;
+      return customer.getName() + " (" + customer.getEmail() + ")";
     }
+    return value.toString();
   }
 
   private void createNewRental() {
@@ -295,9 +284,12 @@ public class RentalManagementFrame extends JFrame {
       return;
     }
 
-    int rentalId = (Integer) tableModel.getValueAt(selectedRow, 0);
-    String rentalInfo = tableModel.getValueAt(selectedRow, 1) + " - " +
-        tableModel.getValueAt(selectedRow, 2);
+    int rentalId = tableModel.getIdAt(selectedRow);
+    if (rentalId < 0) {
+      return; // Row still loading
+    }
+    String rentalInfo = tableModel.getTextAt(selectedRow, 1) + " - " +
+        tableModel.getTextAt(selectedRow, 2);
 
     int confirm = JOptionPane.showConfirmDialog(this,
         "Are you sure you want to complete this rental?\n" + rentalInfo,
@@ -343,7 +335,10 @@ public class RentalManagementFrame extends JFrame {
       return;
     }
 
-    int rentalId = (Integer) tableModel.getValueAt(selectedRow, 0);
+    int rentalId = tableModel.getIdAt(selectedRow);
+    if (rentalId < 0) {
+      return; // Row still loading
+    }
     try {
       Rental rental = rentalService.getRentalById(rentalId);
       if (rental != null) {
@@ -395,6 +390,8 @@ public class RentalManagementFrame extends JFrame {
     private JComboBox<Customer> customerCombo;
     private JSpinner startDateSpinner, endDateSpinner;
     private JLabel totalCostLabel;
+    private CompletableFuture<?>[] pendingLoads;
+    private boolean disposed = false;
 
     public NewRentalDialog(JFrame parent) {
       super(parent, "Create New Rental", true);
@@ -411,119 +408,106 @@ public class RentalManagementFrame extends JFrame {
       gbc.anchor = GridBagConstraints.WEST;
       gbc.fill = GridBagConstraints.HORIZONTAL;
 
-      try {
-        // Initialize components
-        List<Car> availableCars = carService.getAvailableCars();
-        List<Customer> customers = customerService.getAllCustomers();
-
-        carCombo = new JComboBox<>(availableCars.toArray(new Car[0]));
-        customerCombo = new JComboBox<>(customers.toArray(new Customer[0]));
-
-        // Create date spinners with calendar functionality
-        java.util.Date today = java.sql.Date.valueOf(LocalDate.now());
-        java.util.Date tomorrow = java.sql.Date.valueOf(LocalDate.now().plusDays(1));
-
-        startDateSpinner = new JSpinner(new SpinnerDateModel(today, null, null, java.util.Calendar.DAY_OF_MONTH));
-        endDateSpinner = new JSpinner(new SpinnerDateModel(tomorrow, null, null, java.util.Calendar.DAY_OF_MONTH));
-
-        // Set spinner editor to show only date
-        JSpinner.DateEditor startEditor = new JSpinner.DateEditor(startDateSpinner, "yyyy-MM-dd");
-        JSpinner.DateEditor endEditor = new JSpinner.DateEditor(endDateSpinner, "yyyy-MM-dd");
-        startDateSpinner.setEditor(startEditor);
-        endDateSpinner.setEditor(endEditor);
-
-        totalCostLabel = new JLabel("$0.00");
-
-        // Apply modern styling
-        ModernUITheme.styleComponent(carCombo);
-        ModernUITheme.styleComponent(customerCombo);
-        ModernUITheme.styleComponent(startDateSpinner);
-        ModernUITheme.styleComponent(endDateSpinner);
-        totalCostLabel.setFont(ModernUITheme.FONT_PRIMARY_BOLD);
-        totalCostLabel.setForeground(ModernUITheme.SUCCESS_COLOR);
-
-        // Add components to form with better layout
-        gbc.gridx = 0;
-        gbc.gridy = 0;
-        gbc.gridwidth = 1;
-        gbc.weightx = 0.3;
-        JLabel carLabel = new JLabel("Car:");
-        carLabel.setFont(ModernUITheme.FONT_PRIMARY_BOLD);
-        formPanel.add(carLabel, gbc);
-
-        gbc.gridx = 1;
-        gbc.gridwidth = 2;
-        gbc.weightx = 0.7;
-        formPanel.add(carCombo, gbc);
-
-        gbc.gridx = 0;
-        gbc.gridy = 1;
-        gbc.gridwidth = 1;
-        gbc.weightx = 0.3;
-        JLabel customerLabel = new JLabel("Customer:");
-        customerLabel.setFont(ModernUITheme.FONT_PRIMARY_BOLD);
-        formPanel.add(customerLabel, gbc);
-
-        gbc.gridx = 1;
-        gbc.gridwidth = 2;
-        gbc.weightx = 0.7;
-        formPanel.add(customerCombo, gbc);
-
-        gbc.gridx = 0;
-        gbc.gridy = 2;
-        gbc.gridwidth = 1;
-        gbc.weightx = 0.3;
-        JLabel startDateLabel = new JLabel("Start Date:");
-        startDateLabel.setFont(ModernUITheme.FONT_PRIMARY_BOLD);
-        formPanel.add(startDateLabel, gbc);
-
-        gbc.gridx = 1;
-        gbc.gridwidth = 2;
-        gbc.weightx = 0.7;
-        formPanel.add(startDateSpinner, gbc);
-
-        gbc.gridx = 0;
-        gbc.gridy = 3;
-        gbc.gridwidth = 1;
-        gbc.weightx = 0.3;
-        JLabel endDateLabel = new JLabel("End Date:");
-        endDateLabel.setFont(ModernUITheme.FONT_PRIMARY_BOLD);
-        formPanel.add(endDateLabel, gbc);
-
-        gbc.gridx = 1;
-        gbc.gridwidth = 2;
-        gbc.weightx = 0.7;
-        formPanel.add(endDateSpinner, gbc);
-
-        gbc.gridx = 0;
-        gbc.gridy = 4;
-        gbc.gridwidth = 1;
-        gbc.weightx = 0.3;
-        JLabel costLabel = new JLabel("Total Cost:");
-        costLabel.setFont(ModernUITheme.FONT_PRIMARY_BOLD);
-        formPanel.add(costLabel, gbc);
-
-        gbc.gridx = 1;
-        gbc.gridwidth = 2;
-        gbc.weightx = 0.7;
-        formPanel.add(totalCostLabel, gbc);
-
-        // Add listeners for cost calculation
-        carCombo.addActionListener(e -> calculateTotalCost());
-        startDateSpinner.addChangeListener(e -> calculateTotalCost());
-        endDateSpinner.addChangeListener(e -> calculateTotalCost());
-
-        // Calculate initial cost
-        calculateTotalCost();
-
-      } catch (SQLException e) {
-        JOptionPane.showMessageDialog(this,
-            "Error loading data: " + e.getMessage(),
-            "Error",
-            JOptionPane.ERROR_MESSAGE);
-        dispose();
-        return;
-      }
+      // Initialize components, filled in once cars and customers have loaded
+      carCombo = new JComboBox<>();
+      customerCombo = new JComboBox<>();
+
+      // Create date spinners with calendar functionality
+      java.util.Date today = java.sql.Date.valueOf(LocalDate.now());
+      java.util.Date tomorrow = java.sql.Date.valueOf(LocalDate.now().plusDays(1));
+
+      startDateSpinner = new JSpinner(new SpinnerDateModel(today, null, null, java.util.Calendar.DAY_OF_MONTH));
+      endDateSpinner = new JSpinner(new SpinnerDateModel(tomorrow, null, null, java.util.Calendar.DAY_OF_MONTH));
+
+      // Set spinner editor to show only date
+      JSpinner.DateEditor startEditor = new JSpinner.DateEditor(startDateSpinner, "yyyy-MM-dd");
+      JSpinner.DateEditor endEditor = new JSpinner.DateEditor(endDateSpinner, "yyyy-MM-dd");
+      startDateSpinner.setEditor(startEditor);
+      endDateSpinner.setEditor(endEditor);
+
+      totalCostLabel = new JLabel("$0.00");
+
+      // Apply modern styling
+      ModernUITheme.styleComponent(carCombo);
+      ModernUITheme.styleComponent(customerCombo);
+      ModernUITheme.styleComponent(startDateSpinner);
+      ModernUITheme.styleComponent(endDateSpinner);
+      totalCostLabel.setFont(ModernUITheme.FONT_PRIMARY_BOLD);
+      totalCostLabel.setForeground(ModernUITheme.SUCCESS_COLOR);
+
+      // Add components to form with better layout
+      gbc.gridx = 0;
+      gbc.gridy = 0;
+      gbc.gridwidth = 1;
+      gbc.weightx = 0.3;
+      JLabel carLabel = new JLabel("Car:");
+      carLabel.setFont(ModernUITheme.FONT_PRIMARY_BOLD);
+      formPanel.add(carLabel, gbc);
+
+      gbc.gridx = 1;
+      gbc.gridwidth = 2;
+      gbc.weightx = 0.7;
+      formPanel.add(carCombo, gbc);
+
+      gbc.gridx = 0;
+      gbc.gridy = 1;
+      gbc.gridwidth = 1;
+      gbc.weightx = 0.3;
+      JLabel customerLabel = new JLabel("Customer:");
+      customerLabel.setFont(ModernUITheme.FONT_PRIMARY_BOLD);
+      formPanel.add(customerLabel, gbc);
+
+      gbc.gridx = 1;
+      gbc.gridwidth = 2;
+      gbc.weightx = 0.7;
+      formPanel.add(customerCombo, gbc);
+
+      gbc.gridx = 0;
+      gbc.gridy = 2;
+      gbc.gridwidth = 1;
+      gbc.weightx = 0.3;
+      JLabel startDateLabel = new JLabel("Start Date:");
+      startDateLabel.setFont(ModernUITheme.FONT_PRIMARY_BOLD);
+      formPanel.add(startDateLabel, gbc);
+
+      gbc.gridx = 1;
+      gbc.gridwidth = 2;
+      gbc.weightx = 0.7;
+      formPanel.add(startDateSpinner, gbc);
+
+      gbc.gridx = 0;
+      gbc.gridy = 3;
+      gbc.gridwidth = 1;
+      gbc.weightx = 0.3;
+      JLabel endDateLabel = new JLabel("End Date:");
+      endDateLabel.setFont(ModernUITheme.FONT_PRIMARY_BOLD);
+      formPanel.add(endDateLabel, gbc);
+
+      gbc.gridx = 1;
+      gbc.gridwidth = 2;
+      gbc.weightx = 0.7;
+      formPanel.add(endDateSpinner, gbc);
+
+      gbc.gridx = 0;
+      gbc.gridy = 4;
+      gbc.gridwidth = 1;
+      gbc.weightx = 0.3;
+      JLabel costLabel = new JLabel("Total Cost:");
+      costLabel.setFont(ModernUITheme.FONT_PRIMARY_BOLD);
+      formPanel.add(costLabel, gbc);
+
+      gbc.gridx = 1;
+      gbc.gridwidth = 2;
+      gbc.weightx = 0.7;
+      formPanel.add(totalCostLabel, gbc);
+
+      // Add listeners for cost calculation
+      carCombo.addActionListener(e -> calculateTotalCost());
+      startDateSpinner.addChangeListener(e -> calculateTotalCost());
+      endDateSpinner.addChangeListener(e -> calculateTotalCost());
+
+      // Calculate initial cost
+      calculateTotalCost();
 
       add(formPanel, BorderLayout.CENTER);
 
@@ -543,6 +527,53 @@ public class RentalManagementFrame extends JFrame {
       setLocationRelativeTo(getParent());
       setResizable(true);
       setMinimumSize(new Dimension(450, 350));
+
+      loadSelectionData();
+    }
+
+    /**
+     * Load available cars and customers in parallel without blocking the EDT
+     */
+    private void loadSelectionData() {
+      CompletableFuture<List<Car>> carsFuture = carService.getAvailableCarsAsync();
+      CompletableFuture<List<Customer>> customersFuture = customerService.getAllCustomersAsync();
+      pendingLoads = new CompletableFuture<?>[] { carsFuture, customersFuture };
+
+      CompletableFuture.allOf(carsFuture, customersFuture)
+          .whenComplete((ignored, error) -> SwingUtilities.invokeLater(() -> {
+        if (disposed) {
+          return;
+        }
+        if (error != null) {
+          Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+          JOptionPane.showMessageDialog(this,
+              "Error loading data: " + cause.getMessage(),
+              "Error",
+              JOptionPane.ERROR_MESSAGE);
+          dispose();
+          return;
+        }
+
+        for (Car car : carsFuture.join()) {
+          carCombo.addItem(car);
+        }
+        for (Customer customer : customersFuture.join()) {
+          customerCombo.addItem(customer);
+        }
+        calculateTotalCost();
+      }));
+    }
+
+    @Override
+    public void dispose() {
+      // Stop loads that are still running for a dialog nobody will see
+      disposed = true;
+      if (pendingLoads != null) {
+        for (CompletableFuture<?> load : pendingLoads) {
+          load.cancel(true);
+        }
+      }
+      super.dispose();
     }
 
     private void calculateTotalCost() {
@@ -3,27 +3,35 @@ package com.carrental.gui;
 import java.awt.BorderLayout;
 import java.awt.FlowLayout;
 import java.awt.GridLayout;
+import java.io.File;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
+import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
+import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTabbedPane;
 import javax.swing.JTable;
+import javax.swing.SwingWorker;
 import javax.swing.table.DefaultTableModel;
 
 import com.carrental.model.Car;
 import com.carrental.model.Rental;
+import com.carrental.model.SystemStatistics;
 import com.carrental.service.CarService;
+import com.carrental.service.ExportService;
 import com.carrental.service.RentalService;
+import com.carrental.service.StatisticsService;
 
 /**
  * Reports Interface for Admin users
@@ -36,11 +44,13 @@ public class ReportsFrame extends JFrame {
 
   private CarService carService;
   private RentalService rentalService;
+  private StatisticsService statisticsService;
   private JTabbedPane tabbedPane;
 
   public ReportsFrame() {
     this.carService = new CarService();
     this.rentalService = new RentalService();
+    this.statisticsService = new StatisticsService();
     initializeComponents();
     setupLayout();
     loadReports();
@@ -84,12 +94,15 @@ public class ReportsFrame extends JFrame {
     buttonPanel.setBorder(BorderFactory.createEmptyBorder(15, 20, 15, 20));
 
     JButton refreshButton = ModernUITheme.createModernButton("🔄 Refresh Reports", "primary");
+    JButton exportButton = ModernUITheme.createModernButton("📤 Export Data", "success");
     JButton backButton = ModernUITheme.createModernButton("⬅️ Back to Dashboard", "danger");
 
     refreshButton.addActionListener(e -> loadReports());
+    exportButton.addActionListener(e -> exportData(exportButton));
     backButton.addActionListener(e -> dispose());
 
     buttonPanel.add(refreshButton);
+    buttonPanel.add(exportButton);
     buttonPanel.add(backButton);
     backgroundPanel.add(buttonPanel, BorderLayout.SOUTH);
     add(backgroundPanel, BorderLayout.CENTER);
@@ -113,6 +126,65 @@ public class ReportsFrame extends JFrame {
     tabbedPane.addTab("System Overview", createSystemOverviewPanel());
   }
 
+  /**
+   * Export rentals, cars or customers to a CSV or JSON Lines file
+   */
+  private void exportData(JButton exportButton) {
+    String[] datasets = { "Rentals", "Cars", "Customers" };
+    String dataset = (String) JOptionPane.showInputDialog(this, "Data to export:", "Export Data",
+        JOptionPane.QUESTION_MESSAGE, null, datasets, datasets[0]);
+    if (dataset == null) {
+      return;
+    }
+
+    ExportService.Format format = (ExportService.Format) JOptionPane.showInputDialog(this, "File format:",
+        "Export Data", JOptionPane.QUESTION_MESSAGE, null, ExportService.Format.values(), ExportService.Format.CSV);
+    if (format == null) {
+      return;
+    }
+
+    JFileChooser chooser = new JFileChooser();
+    chooser.setSelectedFile(new File(dataset.toLowerCase() + "." + format.getExtension()));
+    if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+      return;
+    }
+    File file = chooser.getSelectedFile();
+    exportButton.setEnabled(false);
+
+    // Stream the export off the EDT
+    new SwingWorker<Long, Void>() {
+      @Override
+      protected Long doInBackground() throws Exception {
+        ExportService exportService = new ExportService();
+        switch (dataset) {
+          case "Cars":
+            return exportService.exportCars(file, format);
+          case "Customers":
+            return exportService.exportCustomers(file, format);
+          default:
+            return exportService.exportRentals(file, format);
+        }
+      }
+
+      @Override
+      protected void done() {
+        exportButton.setEnabled(true);
+        try {
+          JOptionPane.showMessageDialog(ReportsFrame.this,
+              "Exported " + get() + " " + dataset.toLowerCase() + " to " + file,
+              "Export Complete",
+              JOptionPane.INFORMATION_MESSAGE);
+        } catch (InterruptedException | ExecutionException e) {
+          Throwable cause = e.getCause() != null ? e.getCause() : e;
+          JOptionPane.showMessageDialog(ReportsFrame.this,
+              "Error exporting data: " + cause.getMessage(),
+              "Export Error",
+              JOptionPane.ERROR_MESSAGE);
+        }
+      }
+    }.execute();
+  }
+
   private JPanel createRentalHistoryPanel() {
     JPanel panel = new JPanel(new BorderLayout());
 
@@ -160,13 +232,10 @@ public class ReportsFrame extends JFrame {
 
       // Add summary panel
       JPanel summaryPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
-      summaryPanel.add(new JLabel("Total Rentals: " + rentals.size()));
-
-      long activeRentals = rentals.stream().filter(r -> "ACTIVE".equals(r.getStatus())).count();
-      long completedRentals = rentals.stream().filter(r -> "COMPLETED".equals(r.getStatus())).count();
-
-      summaryPanel.add(new JLabel(" | Active: " + activeRentals));
-      summaryPanel.add(new JLabel(" | Completed: " + completedRentals));
+      SystemStatistics statistics = statisticsService.getStatistics();
+      summaryPanel.add(new JLabel("Total Rentals: " + statistics.getTotalRentals()));
+      summaryPanel.add(new JLabel(" | Active: " + statistics.getActiveRentals()));
+      summaryPanel.add(new JLabel(" | Completed: " + statistics.getCompletedRentals()));
 
       panel.add(summaryPanel, BorderLayout.NORTH);
       panel.add(scrollPane, BorderLayout.CENTER);
@@ -213,15 +282,11 @@ public class ReportsFrame extends JFrame {
 
       // Add summary panel
       JPanel summaryPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
-      summaryPanel.add(new JLabel("Total Cars: " + cars.size()));
-
-      long availableCars = cars.stream().filter(c -> "AVAILABLE".equals(c.getStatus())).count();
-      long rentedCars = cars.stream().filter(c -> "RENTED".equals(c.getStatus())).count();
-      long maintenanceCars = cars.stream().filter(c -> "MAINTENANCE".equals(c.getStatus())).count();
-
-      summaryPanel.add(new JLabel(" | Available: " + availableCars));
-      summaryPanel.add(new JLabel(" | Rented: " + rentedCars));
-      summaryPanel.add(new JLabel(" | Maintenance: " + maintenanceCars));
+      SystemStatistics statistics = statisticsService.getStatistics();
+      summaryPanel.add(new JLabel("Total Cars: " + statistics.getTotalCars()));
+      summaryPanel.add(new JLabel(" | Available: " + statistics.getAvailableCars()));
+      summaryPanel.add(new JLabel(" | Rented: " + statistics.getRentedCars()));
+      summaryPanel.add(new JLabel(" | Maintenance: " + statistics.getMaintenanceCars()));
 
       panel.add(summaryPanel, BorderLayout.NORTH);
       panel.add(scrollPane, BorderLayout.CENTER);
@@ -237,8 +302,9 @@ public class ReportsFrame extends JFrame {
     JPanel panel = new JPanel(new BorderLayout());
 
     try {
-      BigDecimal totalRevenue = rentalService.getTotalRevenue();
-      List<Rental> completedRentals = rentalService.getRentalsByStatus("COMPLETED");
+      SystemStatistics statistics = statisticsService.getStatistics();
+      BigDecimal totalRevenue = statistics.getTotalRevenue();
+      int completedRentals = statistics.getCompletedRentals();
 
       // Create statistics panel
       JPanel statsPanel = new JPanel(new GridLayout(4, 2, 10, 10));
@@ -248,11 +314,11 @@ public class ReportsFrame extends JFrame {
       statsPanel.add(new JLabel("$" + totalRevenue));
 
       statsPanel.add(new JLabel("Completed Rentals:"));
-      statsPanel.add(new JLabel(String.valueOf(completedRentals.size())));
+      statsPanel.add(new JLabel(String.valueOf(completedRentals)));
 
       statsPanel.add(new JLabel("Average Revenue per Rental:"));
-      BigDecimal avgRevenue = completedRentals.isEmpty() ? BigDecimal.ZERO
-          : totalRevenue.divide(BigDecimal.valueOf(completedRentals.size()), 2, RoundingMode.HALF_UP);
+      BigDecimal avgRevenue = completedRentals == 0 ? BigDecimal.ZERO
+          : totalRevenue.divide(BigDecimal.valueOf(completedRentals), 2, RoundingMode.HALF_UP);
       statsPanel.add(new JLabel("$" + avgRevenue));
 
       statsPanel.add(new JLabel("Report Generated:"));
@@ -272,34 +338,29 @@ public class ReportsFrame extends JFrame {
 
     try {
       // Get system statistics
-      List<Car> cars = carService.getAllCars();
-      List<Rental> rentals = rentalService.getAllRentals();
-      List<Rental> activeRentals = rentalService.getActiveRentals();
-      BigDecimal totalRevenue = rentalService.getTotalRevenue();
+      SystemStatistics statistics = statisticsService.getStatistics();
 
       // Create overview panel
       JPanel overviewPanel = new JPanel(new GridLayout(6, 2, 15, 15));
       overviewPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
 
       overviewPanel.add(new JLabel("Total Cars in Fleet:"));
-      overviewPanel.add(new JLabel(String.valueOf(cars.size())));
+      overviewPanel.add(new JLabel(String.valueOf(statistics.getTotalCars())));
 
       overviewPanel.add(new JLabel("Available Cars:"));
-      long availableCars = cars.stream().filter(c -> "AVAILABLE".equals(c.getStatus())).count();
-      overviewPanel.add(new JLabel(String.valueOf(availableCars)));
+      overviewPanel.add(new JLabel(String.valueOf(statistics.getAvailableCars())));
 
       overviewPanel.add(new JLabel("Currently Rented:"));
-      long rentedCars = cars.stream().filter(c -> "RENTED".equals(c.getStatus())).count();
-      overviewPanel.add(new JLabel(String.valueOf(rentedCars)));
+      overviewPanel.add(new JLabel(String.valueOf(statistics.getRentedCars())));
 
       overviewPanel.add(new JLabel("Total Rentals (All Time):"));
-      overviewPanel.add(new JLabel(String.valueOf(rentals.size())));
+      overviewPanel.add(new JLabel(String.valueOf(statistics.getTotalRentals())));
 
       overviewPanel.add(new JLabel("Active Rentals:"));
-      overviewPanel.add(new JLabel(String.valueOf(activeRentals.size())));
+      overviewPanel.add(new JLabel(String.valueOf(statistics.getActiveRentals())));
 
       overviewPanel.add(new JLabel("Total Revenue:"));
-      overviewPanel.add(new JLabel("$" + totalRevenue));
+      overviewPanel.add(new JLabel("$" + statistics.getTotalRevenue()));
 
       panel.add(overviewPanel, BorderLayout.CENTER);
 
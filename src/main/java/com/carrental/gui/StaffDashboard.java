@@ -15,10 +15,10 @@ import java.awt.GridLayout;
 import java.awt.RenderingHints;
 import java.awt.event.ActionListener;
 import java.math.BigDecimal;
-import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Function;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
@@ -33,12 +33,16 @@ import javax.swing.border.EmptyBorder;
 
 import com.carrental.model.Car;
 import com.carrental.model.Customer;
+import com.carrental.model.DashboardSnapshot;
 import com.carrental.model.Rental;
+import com.carrental.model.RevenueBucket;
+import com.carrental.model.SystemStatistics;
 import com.carrental.model.User;
 import com.carrental.service.AuthenticationService;
-import com.carrental.service.CarService;
-import com.carrental.service.CustomerService;
-import com.carrental.service.RentalService;
+import com.carrental.service.DashboardService;
+import com.carrental.util.ChangeEventBus;
+import com.carrental.util.DatabaseManager;
+import com.carrental.util.EntityChangeEvent;
 
 /**
  * Staff Dashboard for managing car rentals and customers
@@ -48,14 +52,19 @@ import com.carrental.service.RentalService;
  */
 public class StaffDashboard extends JFrame {
 
-    private CarService carService;
-    private CustomerService customerService;
-    private RentalService rentalService;
+    private DashboardService dashboardService;
     private AuthenticationService authService;
 
     private CardLayout cardLayout;
     private JPanel mainContentPanel;
     private JPanel dashboardPanel;
+    private JPanel rentalsList;
+    private JPanel alertsList;
+
+    // Cards and charts paint only from this snapshot, which the refresher replaces on the EDT
+    private DashboardSnapshot snapshot = DashboardSnapshot.EMPTY;
+    private DashboardRefresher refresher;
+    private final ChangeEventBus.ChangeSubscriber dataChanges = events -> refresher.refreshNow();
     private JPanel rentalManagementPanel;
     private JPanel customerManagementPanel;
     private JPanel carSearchPanel;
@@ -65,14 +74,20 @@ public class StaffDashboard extends JFrame {
     private JLabel welcomeLabel;
 
     public StaffDashboard() {
-        this.carService = new CarService();
-        this.customerService = new CustomerService();
-        this.rentalService = new RentalService();
+        this.dashboardService = new DashboardService();
         this.authService = new AuthenticationService();
 
         initializeComponents();
         setupLayout();
         setFrameProperties();
+
+        refresher = new DashboardRefresher(dashboardService::loadSnapshot, this::applySnapshot,
+                DatabaseManager.getConfig().getDashboardRefreshMillis());
+        refresher.start();
+
+        // Reload as soon as anything the dashboard shows has changed
+        DatabaseManager.getEventBus().subscribe(dataChanges, EntityChangeEvent.USERS, EntityChangeEvent.CARS,
+                EntityChangeEvent.CUSTOMERS, EntityChangeEvent.RENTALS);
     }
 
     private void initializeComponents() {
@@ -534,16 +549,8 @@ public class StaffDashboard extends JFrame {
                 g2d.setFont(new Font("Segoe UI", Font.BOLD, 16));
                 g2d.drawString("📋 Rental Activity", 20, 30);
 
-                // Get real data from database
-                List<Rental> rentals = new ArrayList<>();
-                try {
-                    rentals = rentalService.getAllRentals();
-                } catch (SQLException e) {
-                    e.printStackTrace();
-                }
-
-                // Calculate rental data (last 6 days or available data)
-                int[] data = calculateRentalData(rentals);
+                // Rental counts for the last 6 days from the latest snapshot
+                int[] data = calculateRentalData(snapshot);
                 int barWidth = (getWidth() - 60) / data.length;
                 int maxValue = Arrays.stream(data).max().orElse(5);
                 if (maxValue == 0)
@@ -581,25 +588,13 @@ public class StaffDashboard extends JFrame {
         return chart;
     }
 
-    private int[] calculateRentalData(List<Rental> rentals) {
-        // Calculate rentals for last 6 days
-        int[] dailyRentals = new int[6];
-        java.time.LocalDate now = java.time.LocalDate.now();
-
-        for (Rental rental : rentals) {
-            try {
-                // Parse rental date and calculate which day it belongs to
-                java.time.LocalDate rentalDate = rental.getStartDate();
-                if (rentalDate != null) {
-                    long daysAgo = java.time.temporal.ChronoUnit.DAYS.between(rentalDate, now);
+    private int[] calculateRentalData(DashboardSnapshot current) {
+        // Rentals started on each of the last 6 days, most recent first
+        int[] dailyRentals = new int[DashboardService.CHART_PERIODS];
 
-                    if (daysAgo >= 0 && daysAgo < 6) {
-                        dailyRentals[(int) daysAgo]++;
-                    }
-                }
-            } catch (Exception e) {
-                // Skip invalid dates
-            }
+        List<RevenueBucket> series = current.getDailyActivity();
+        for (int i = 0; i < series.size() && i < dailyRentals.length; i++) {
+            dailyRentals[i] = series.get(series.size() - 1 - i).getRentalCount();
         }
 
         return dailyRentals;
@@ -627,21 +622,12 @@ public class StaffDashboard extends JFrame {
                 g2d.setFont(new Font("Segoe UI", Font.BOLD, 16));
                 g2d.drawString("🚗 Car Availability", 20, 30);
 
-                // Get real data from database
-                List<Car> cars = new ArrayList<>();
-                List<Rental> rentals = new ArrayList<>();
-                try {
-                    cars = carService.getAllCars();
-                    rentals = rentalService.getAllRentals();
-                } catch (SQLException e) {
-                    e.printStackTrace();
-                }
+                // Read the latest snapshot; never query from paint
+                SystemStatistics statistics = snapshot.getStatistics();
+                int totalCars = statistics != null ? statistics.getTotalCars() : 0;
+                int rentedCars = statistics != null ? statistics.getActiveRentals() : 0;
 
                 // Calculate car availability
-                int totalCars = cars.size();
-                int rentedCars = (int) rentals.stream()
-                        .filter(r -> "ACTIVE".equals(r.getStatus()))
-                        .count();
                 int availableCars = totalCars - rentedCars;
 
                 if (totalCars == 0) {
@@ -705,41 +691,24 @@ public class StaffDashboard extends JFrame {
         header.setBorder(BorderFactory.createEmptyBorder(0, 0, 15, 0));
         panel.add(header, BorderLayout.NORTH);
 
-        // Get real data from database
-        List<Rental> rentals = new ArrayList<>();
-        List<Car> cars = new ArrayList<>();
-        List<Customer> customers = new ArrayList<>();
-
-        try {
-            rentals = rentalService.getAllRentals();
-            cars = carService.getAllCars();
-            customers = customerService.getAllCustomers();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-
-        // Rentals list with better layout
-        JPanel rentalsList = new JPanel();
+        // Rentals list, filled from each snapshot
+        rentalsList = new JPanel();
         rentalsList.setLayout(new BoxLayout(rentalsList, BoxLayout.Y_AXIS));
         rentalsList.setOpaque(false);
+        fillRecentRentals(snapshot);
 
-        // Get recent rentals (last 4)
-        List<Rental> recentRentals = rentals.stream()
-                .sorted((r1, r2) -> r2.getStartDate().compareTo(r1.getStartDate()))
-                .limit(4)
-                .collect(java.util.stream.Collectors.toList());
+        panel.add(rentalsList, BorderLayout.CENTER);
+
+        return panel;
+    }
 
-        for (Rental rental : recentRentals) {
-            // Find car and customer details
-            Car car = cars.stream()
-                    .filter(c -> c.getId() == rental.getCarId())
-                    .findFirst()
-                    .orElse(new Car());
+    private void fillRecentRentals(DashboardSnapshot current) {
+        rentalsList.removeAll();
 
-            Customer customer = customers.stream()
-                    .filter(c -> c.getId() == rental.getCustomerId())
-                    .findFirst()
-                    .orElse(new Customer());
+        for (Rental rental : current.getRecentRentals()) {
+            // Car and customer were attached when the snapshot loaded
+            Car car = rental.getCar() != null ? rental.getCar() : new Car();
+            Customer customer = rental.getCustomer() != null ? rental.getCustomer() : new Customer();
 
             // Calculate amount using actual total cost
             int amount = rental.getTotalCost() != null ? rental.getTotalCost().intValue() : 0;
@@ -758,17 +727,13 @@ public class StaffDashboard extends JFrame {
         }
 
         // If no rentals, show placeholder
-        if (recentRentals.isEmpty()) {
+        if (current.getRecentRentals().isEmpty()) {
             JPanel placeholder = createRentalItem("🚗 No recent rentals", "No data available", "$0", "N/A");
             rentalsList.add(placeholder);
         }
 
         // Add flexible space at bottom
         rentalsList.add(Box.createVerticalGlue());
-
-        panel.add(rentalsList, BorderLayout.CENTER);
-
-        return panel;
     }
 
     private String formatTimeAgo(java.time.LocalDate rentalDate) {
@@ -866,24 +831,23 @@ public class StaffDashboard extends JFrame {
         header.setBorder(BorderFactory.createEmptyBorder(0, 0, 15, 0));
         panel.add(header, BorderLayout.NORTH);
 
-        // Get real data from database
-        List<Car> cars = new ArrayList<>();
-        List<Rental> rentals = new ArrayList<>();
-
-        try {
-            cars = carService.getAllCars();
-            rentals = rentalService.getAllRentals();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-
-        // Alerts list with better layout
-        JPanel alertsList = new JPanel();
+        // Alerts list, filled from each snapshot
+        alertsList = new JPanel();
         alertsList.setLayout(new BoxLayout(alertsList, BoxLayout.Y_AXIS));
         alertsList.setOpaque(false);
+        fillStaffAlerts(snapshot);
+
+        panel.add(alertsList, BorderLayout.CENTER);
+
+        return panel;
+    }
+
+    private void fillStaffAlerts(DashboardSnapshot current) {
+        alertsList.removeAll();
 
         // Generate real alerts based on data
-        List<String[]> alerts = generateStaffAlerts(cars, rentals);
+        SystemStatistics statistics = current.getStatistics();
+        List<String[]> alerts = statistics != null ? generateStaffAlerts(statistics) : new ArrayList<>();
 
         for (String[] alert : alerts) {
             JPanel alertItem = createAlertItem(alert[0], alert[1], alert[2]);
@@ -899,71 +863,34 @@ public class StaffDashboard extends JFrame {
 
         // Add flexible space at bottom
         alertsList.add(Box.createVerticalGlue());
-
-        panel.add(alertsList, BorderLayout.CENTER);
-
-        return panel;
     }
 
-    private List<String[]> generateStaffAlerts(List<Car> cars, List<Rental> rentals) {
+    private List<String[]> generateStaffAlerts(SystemStatistics statistics) {
         List<String[]> alerts = new ArrayList<>();
 
         // Check for overdue rentals
-        long overdueRentals = rentals.stream()
-                .filter(r -> "ACTIVE".equals(r.getStatus()))
-                .filter(r -> {
-                    try {
-                        java.time.LocalDate startDate = r.getStartDate();
-                        if (startDate != null) {
-                            long days = r.getNumberOfDays();
-                            java.time.LocalDate dueDate = startDate.plusDays(days);
-                            return java.time.LocalDate.now().isAfter(dueDate);
-                        }
-                        return false;
-                    } catch (Exception e) {
-                        return false;
-                    }
-                })
-                .count();
+        int overdueRentals = statistics.getOverdueRentals();
 
         if (overdueRentals > 0) {
             alerts.add(new String[] { "● High", overdueRentals + " overdue rental(s)", "1 hour ago" });
         }
 
         // Check for low fleet availability
-        long activeRentals = rentals.stream()
-                .filter(r -> "ACTIVE".equals(r.getStatus()))
-                .count();
-
-        int totalCars = cars.size();
+        int activeRentals = statistics.getActiveRentals();
+        int totalCars = statistics.getTotalCars();
         if (totalCars > 0 && (double) activeRentals / totalCars > 0.8) {
             alerts.add(new String[] { "● Medium", "Low fleet availability", "2 hours ago" });
         }
 
         // Check for recent activity
-        long recentRentals = rentals.stream()
-                .filter(r -> {
-                    try {
-                        java.time.LocalDate startDate = r.getStartDate();
-                        if (startDate != null) {
-                            return java.time.temporal.ChronoUnit.DAYS.between(startDate,
-                                    java.time.LocalDate.now()) <= 1;
-                        }
-                        return false;
-                    } catch (Exception e) {
-                        return false;
-                    }
-                })
-                .count();
+        int recentRentals = statistics.getRecentRentals();
 
         if (recentRentals > 0) {
             alerts.add(new String[] { "● Low", recentRentals + " new rental(s) today", "Just now" });
         }
 
         // Check for maintenance alerts
-        long maintenanceCars = cars.stream()
-                .filter(c -> "MAINTENANCE".equals(c.getStatus()))
-                .count();
+        int maintenanceCars = statistics.getMaintenanceCars();
 
         if (maintenanceCars > 0) {
             alerts.add(new String[] { "● Medium", maintenanceCars + " car(s) in maintenance", "3 hours ago" });
@@ -1220,48 +1147,31 @@ public class StaffDashboard extends JFrame {
         statsPanel.setBorder(new EmptyBorder(20, 30, 20, 30));
         statsPanel.setOpaque(false);
 
-        try {
-            // Get statistics
-            List<Car> cars = carService.getAllCars();
-            List<Customer> customers = customerService.getAllCustomers();
-            List<Rental> rentals = rentalService.getAllRentals();
-
-            // Get current staff ID for individual revenue calculation
-            User currentUser = authService.getCurrentUser();
-            BigDecimal staffRevenue = BigDecimal.ZERO;
-            if (currentUser != null) {
-                staffRevenue = rentalService.getRevenueByStaffId(currentUser.getId());
-            }
+        // Get current staff ID for individual revenue calculation
+        User currentUser = authService.getCurrentUser();
 
-            // Create stat cards
-            statsPanel.add(createStatCard("🚗", "Available Cars",
-                    String.valueOf(cars.stream().filter(c -> "AVAILABLE".equals(c.getStatus())).count()),
-                    ModernUITheme.SUCCESS_COLOR));
-            statsPanel.add(createStatCard("👥", "Total Customers", String.valueOf(customers.size()),
-                    ModernUITheme.PRIMARY_COLOR));
-            statsPanel.add(createStatCard("📋", "Active Rentals",
-                    String.valueOf(rentals.stream().filter(r -> "ACTIVE".equals(r.getStatus())).count()),
-                    ModernUITheme.ACCENT_COLOR));
-            statsPanel.add(createStatCard("💰", "My Revenue",
-                    "$" + staffRevenue, // Show individual staff revenue
-                    ModernUITheme.INFO_COLOR));
-
-        } catch (SQLException e) {
-            // If database error, show placeholder stats
-            statsPanel.add(createStatCard("🚗", "Available Cars", "0", ModernUITheme.SUCCESS_COLOR));
-            statsPanel.add(createStatCard("👥", "Total Customers", "0", ModernUITheme.PRIMARY_COLOR));
-            statsPanel.add(createStatCard("📋", "Active Rentals", "0", ModernUITheme.ACCENT_COLOR));
-            statsPanel.add(createStatCard("💰", "My Revenue", "$0", ModernUITheme.INFO_COLOR));
-        }
+        // Create stat cards; each reads its value from the snapshot when painted
+        statsPanel.add(createStatCard("🚗", "Available Cars", stats -> String.valueOf(stats.getAvailableCars()), "0",
+                ModernUITheme.SUCCESS_COLOR));
+        statsPanel.add(createStatCard("👥", "Total Customers", stats -> String.valueOf(stats.getTotalCustomers()), "0",
+                ModernUITheme.PRIMARY_COLOR));
+        statsPanel.add(createStatCard("📋", "Active Rentals", stats -> String.valueOf(stats.getActiveRentals()), "0",
+                ModernUITheme.ACCENT_COLOR));
+        statsPanel.add(createStatCard("💰", "My Revenue",
+                stats -> "$" + (currentUser != null ? stats.getStaffRevenue(currentUser.getId()) : BigDecimal.ZERO),
+                "$0", ModernUITheme.INFO_COLOR));
 
         return statsPanel;
     }
 
-    private JPanel createStatCard(String icon, String title, String value, Color color) {
+    private JPanel createStatCard(String icon, String title, Function<SystemStatistics, String> valueOf,
+            String placeholder, Color color) {
         JPanel card = new JPanel() {
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
+                SystemStatistics statistics = snapshot.getStatistics();
+                String value = statistics != null ? valueOf.apply(statistics) : placeholder;
                 Graphics2D g2d = (Graphics2D) g;
                 g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
@@ -1323,25 +1233,35 @@ public class StaffDashboard extends JFrame {
      * Refresh the statistics panel
      */
     public void refreshStatistics() {
-        // Remove old statistics panel
-        if (dashboardPanel != null) {
-            dashboardPanel.removeAll();
-
-            // Recreate the dashboard panel
-            dashboardPanel = createDashboardPanel();
-
-            // Update the card layout
-            mainContentPanel.remove(dashboardPanel);
-            mainContentPanel.add(dashboardPanel, "DASHBOARD");
-
-            // Force revalidation and repaint
-            dashboardPanel.revalidate();
-            dashboardPanel.repaint();
-            mainContentPanel.revalidate();
-            mainContentPanel.repaint();
+        // Reload in the background; the panels update when the snapshot arrives
+        if (refresher != null) {
+            refresher.refreshNow();
         }
 
         // Also refresh the welcome message
         updateHeader(getStaffWelcomeMessage());
     }
+
+    /**
+     * Show a freshly loaded snapshot. Called on the EDT; every card, list
+     * and chart is updated before a single layout and repaint.
+     */
+    private void applySnapshot(DashboardSnapshot loaded) {
+        snapshot = loaded;
+        fillRecentRentals(loaded);
+        fillStaffAlerts(loaded);
+
+        dashboardPanel.revalidate();
+        dashboardPanel.repaint();
+    }
+
+    @Override
+    public void dispose() {
+        // Stop refreshing a dashboard nobody will see
+        DatabaseManager.getEventBus().unsubscribe(dataChanges);
+        if (refresher != null) {
+            refresher.stop();
+        }
+        super.dispose();
+    }
 }
@@ -0,0 +1,286 @@
+package com.carrental.gui;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+
+import com.carrental.util.AsyncTasks;
+
+/**
+ * Read-only table model that loads its rows from the database one window
+ * at a time as they are scrolled into view
+ *
+ * Loading reads only the row count and the first window. As the table is
+ * scrolled, the windows covering the visible rows are fetched in the
+ * background, the rows showing blank until they arrive. The next window in
+ * the direction of scrolling is fetched ahead, and once more than the
+ * window limit are held the one farthest from the viewport is dropped, so
+ * memory stays the same however long the list is. Reading cells never
+ * fetches anything.
+ *
+ * Columns are defined and formatted as in {@link ColumnarTableModel}; the
+ * first must be an int column holding a unique id. Rows keep the order of
+ * the source, so headers do not sort. Used on the EDT only.
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+public class WindowedTableModel<T> extends AbstractTableModel {
+
+  /**
+   * Where the rows come from. Both methods run on a background thread.
+   */
+  public interface RowSource<T> {
+    int count() throws SQLException;
+
+    List<T> fetch(int offset, int limit) throws SQLException;
+  }
+
+  private final List<ColumnarTableModel.Column<T>> columns;
+  private final int windowSize;
+  private final int maxWindows;
+  private Consumer<Throwable> errorHandler = error -> System.err.println("Error loading rows: " + error.getMessage());
+
+  private RowSource<T> source;
+  private int rowCount = 0;
+  private final Map<Integer, List<T>> windows = new HashMap<>();
+  private final Set<Integer> pending = new HashSet<>();
+  // Failed windows are not retried until the next load, so a broken connection can't loop
+  private final Set<Integer> failed = new HashSet<>();
+  // Only the first failed window of a load is reported
+  private boolean windowErrorReported = false;
+
+  // Table whose viewport decides which windows to fetch; null until followScrolling
+  private JTable viewportTable;
+  // Window in the middle of the viewport, and where the viewport last started
+  private int viewportWindow = 0;
+  private int firstVisibleRow = 0;
+
+  // Bumped by every load so fetches for an earlier one are dropped
+  private int generation = 0;
+
+  @SafeVarargs
+  public WindowedTableModel(int windowSize, int maxWindows, ColumnarTableModel.Column<T>... columns) {
+    if (windowSize <= 0 || maxWindows < 2) {
+      throw new IllegalArgumentException("Need a positive window size and at least 2 windows");
+    }
+    this.windowSize = windowSize;
+    this.maxWindows = maxWindows;
+    // Copied element by element: passing the varargs array on would let it escape
+    this.columns = new ArrayList<>(columns.length);
+    for (ColumnarTableModel.Column<T> column : columns) {
+      this.columns.add(column);
+    }
+  }
+
+  /**
+   * Called on the EDT when the count fails to load, and for the first
+   * window that fails to load after it
+   */
+  public void setErrorHandler(Consumer<Throwable> errorHandler) {
+    this.errorHandler = errorHandler;
+  }
+
+  /**
+   * Show the rows of a new source. The current rows stay until its count
+   * and first window have loaded, then are replaced in one step.
+   */
+  public void load(RowSource<T> rowSource) {
+    int loadGeneration = ++generation;
+    AsyncTasks.supply(() -> {
+      int count = rowSource.count();
+      return new FirstWindow<>(count, count > 0 ? rowSource.fetch(0, windowSize) : null);
+    }).whenComplete((first, error) -> SwingUtilities.invokeLater(() -> {
+      if (loadGeneration != generation) {
+        return;
+      }
+      if (error != null) {
+        reportError(error);
+        return;
+      }
+
+      source = rowSource;
+      rowCount = first.count;
+      windows.clear();
+      pending.clear();
+      failed.clear();
+      windowErrorReported = false;
+      viewportWindow = 0;
+      firstVisibleRow = 0;
+      if (first.rows != null) {
+        windows.put(0, first.rows);
+      }
+      fireTableDataChanged();
+      // The row count may be unchanged, so the scroll bar won't say to fetch the visible rows
+      requestVisibleRows();
+    }));
+  }
+
+  /**
+   * Show the model in a table with the columns' formatting renderers
+   */
+  public void installOn(JTable table) {
+    table.setModel(this);
+    ColumnarTableModel.installRenderers(table, columns);
+  }
+
+  /**
+   * Fetch windows as the table in this scroll pane is scrolled or resized.
+   * Without it only the first window is ever loaded.
+   */
+  public void followScrolling(JScrollPane scrollPane, JTable table) {
+    viewportTable = table;
+    scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> requestVisibleRows());
+  }
+
+  /**
+   * Id of the entity shown in the given row, or -1 if it has not loaded
+   */
+  public int getIdAt(int row) {
+    Object id = getValueAt(row, 0);
+    return id != null ? (Integer) id : -1;
+  }
+
+  /**
+   * Text shown in a cell, as formatted by its column
+   */
+  public String getTextAt(int row, int column) {
+    return columns.get(column).textOf(getValueAt(row, column));
+  }
+
+  @Override
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  @Override
+  public int getColumnCount() {
+    return columns.size();
+  }
+
+  @Override
+  public String getColumnName(int column) {
+    return columns.get(column).getName();
+  }
+
+  /**
+   * Value of a cell, or null if its window is not loaded
+   */
+  @Override
+  public Object getValueAt(int row, int column) {
+    List<T> rows = windows.get(row / windowSize);
+    // The table may have shrunk since it was counted
+    int offset = row % windowSize;
+    if (rows == null || offset >= rows.size()) {
+      return null;
+    }
+    return columns.get(column).valueOf(rows.get(offset));
+  }
+
+  @Override
+  public boolean isCellEditable(int row, int column) {
+    return false; // Make table read-only
+  }
+
+  private void requestVisibleRows() {
+    if (viewportTable == null) {
+      return;
+    }
+    Rectangle visible = viewportTable.getVisibleRect();
+    int first = viewportTable.rowAtPoint(visible.getLocation());
+    int last = viewportTable.rowAtPoint(new Point(visible.x, visible.y + visible.height - 1));
+    if (first >= 0) {
+      viewportChanged(first, last >= 0 ? last : rowCount - 1);
+    }
+  }
+
+  /**
+   * Fetch the windows covering the visible rows, and the next one in the
+   * direction of scrolling
+   */
+  private void viewportChanged(int first, int last) {
+    int direction = first >= firstVisibleRow ? 1 : -1;
+    firstVisibleRow = first;
+
+    int firstWindow = first / windowSize;
+    int lastWindow = last / windowSize;
+    viewportWindow = (firstWindow + lastWindow) / 2;
+    for (int window = firstWindow; window <= lastWindow; window++) {
+      request(window);
+    }
+    request(direction > 0 ? lastWindow + 1 : firstWindow - 1);
+  }
+
+  private void request(int window) {
+    if (window < 0 || (long) window * windowSize >= rowCount || windows.containsKey(window)
+        || failed.contains(window) || !pending.add(window)) {
+      return;
+    }
+
+    int fetchGeneration = generation;
+    RowSource<T> fetchSource = source;
+    AsyncTasks.supply(() -> fetchSource.fetch(window * windowSize, windowSize))
+        .whenComplete((rows, error) -> SwingUtilities.invokeLater(() -> {
+          if (fetchGeneration != generation) {
+            return;
+          }
+          pending.remove(window);
+          if (error != null) {
+            failed.add(window);
+            if (!windowErrorReported) {
+              windowErrorReported = true;
+              reportError(error);
+            }
+            return;
+          }
+
+          windows.put(window, rows);
+          evictDistantWindows();
+          int first = window * windowSize;
+          int last = Math.min(rowCount, first + windowSize) - 1;
+          if (last >= first) {
+            fireTableRowsUpdated(first, last);
+          }
+        }));
+  }
+
+  private void evictDistantWindows() {
+    while (windows.size() > maxWindows) {
+      int farthest = viewportWindow;
+      for (int window : windows.keySet()) {
+        if (Math.abs(window - viewportWindow) > Math.abs(farthest - viewportWindow)) {
+          farthest = window;
+        }
+      }
+      windows.remove(farthest);
+    }
+  }
+
+  private void reportError(Throwable error) {
+    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    errorHandler.accept(cause);
+  }
+
+  private static class FirstWindow<T> {
+    private final int count;
+    private final List<T> rows;
+
+    FirstWindow(int count, List<T> rows) {
+      this.count = count;
+      this.rows = rows;
+    }
+  }
+}
@@ -36,6 +36,19 @@ public class Car {
     this.status = "AVAILABLE";
   }
 
+  // Copy constructor
+  public Car(Car other) {
+    this.id = other.id;
+    this.make = other.make;
+    this.model = other.model;
+    this.year = other.year;
+    this.licensePlate = other.licensePlate;
+    this.color = other.color;
+    this.status = other.status;
+    this.dailyRate = other.dailyRate;
+    this.createdDate = other.createdDate;
+  }
+
   // Getters and Setters
   public int getId() {
     return id;
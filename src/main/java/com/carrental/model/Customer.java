@@ -29,6 +29,16 @@ public class Customer {
     this.address = address;
   }
 
+  // Copy constructor
+  public Customer(Customer other) {
+    this.id = other.id;
+    this.name = other.name;
+    this.email = other.email;
+    this.phone = other.phone;
+    this.address = other.address;
+    this.createdDate = other.createdDate;
+  }
+
   // Getters and Setters
   public int getId() {
     return id;
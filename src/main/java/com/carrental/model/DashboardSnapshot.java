@@ -0,0 +1,79 @@
+package com.carrental.model;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable set of figures behind the dashboard cards, lists and charts,
+ * loaded together once per refresh so that painting never touches the
+ * database
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+public class DashboardSnapshot {
+
+  /**
+   * Placeholder shown until the first snapshot has loaded
+   */
+  public static final DashboardSnapshot EMPTY = new DashboardSnapshot(null, Collections.emptyList(),
+      Collections.emptyList(), Collections.emptyList(), null);
+
+  private final SystemStatistics statistics;
+  private final List<RevenueBucket> monthlyRevenue;
+  private final List<RevenueBucket> dailyActivity;
+  private final List<Rental> recentRentals;
+  private final LocalDateTime loadedAt;
+
+  public DashboardSnapshot(SystemStatistics statistics, List<RevenueBucket> monthlyRevenue,
+      List<RevenueBucket> dailyActivity, List<Rental> recentRentals, LocalDateTime loadedAt) {
+    this.statistics = statistics;
+    this.monthlyRevenue = Collections.unmodifiableList(monthlyRevenue);
+    this.dailyActivity = Collections.unmodifiableList(dailyActivity);
+    this.recentRentals = Collections.unmodifiableList(recentRentals);
+    this.loadedAt = loadedAt;
+  }
+
+  /**
+   * Statistics at load time, or null before the first load
+   */
+  public SystemStatistics getStatistics() {
+    return statistics;
+  }
+
+  /**
+   * Monthly buckets, oldest first
+   */
+  public List<RevenueBucket> getMonthlyRevenue() {
+    return monthlyRevenue;
+  }
+
+  /**
+   * Daily buckets, oldest first
+   */
+  public List<RevenueBucket> getDailyActivity() {
+    return dailyActivity;
+  }
+
+  /**
+   * Latest rentals by start date, newest first, with car and customer
+   * attached where they still exist
+   */
+  public List<Rental> getRecentRentals() {
+    return recentRentals;
+  }
+
+  public LocalDateTime getLoadedAt() {
+    return loadedAt;
+  }
+
+  public boolean isLoaded() {
+    return statistics != null;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("DashboardSnapshot{loadedAt=%s, %s}", loadedAt, statistics);
+  }
+}
@@ -0,0 +1,55 @@
+package com.carrental.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a list ordered newest first, with opaque tokens for the
+ * neighbouring pages
+ * 
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+public class Page<T> {
+
+  private final List<T> items;
+  private final String nextToken;
+  private final String previousToken;
+
+  public Page(List<T> items, String nextToken, String previousToken) {
+    this.items = Collections.unmodifiableList(items);
+    this.nextToken = nextToken;
+    this.previousToken = previousToken;
+  }
+
+  public List<T> getItems() {
+    return items;
+  }
+
+  /**
+   * Token for the following (older) page, or null on the last page
+   */
+  public String getNextToken() {
+    return nextToken;
+  }
+
+  /**
+   * Token for the preceding (newer) page, or null on the first page
+   */
+  public String getPreviousToken() {
+    return previousToken;
+  }
+
+  public boolean hasNext() {
+    return nextToken != null;
+  }
+
+  public boolean hasPrevious() {
+    return previousToken != null;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Page of %d (hasNext=%s, hasPrevious=%s)", items.size(), hasNext(), hasPrevious());
+  }
+}
@@ -42,6 +42,22 @@ public class Rental {
     this.status = "ACTIVE";
   }
 
+  // Copy constructor, copying the related objects too
+  public Rental(Rental other) {
+    this.id = other.id;
+    this.carId = other.carId;
+    this.customerId = other.customerId;
+    this.staffId = other.staffId;
+    this.startDate = other.startDate;
+    this.endDate = other.endDate;
+    this.totalCost = other.totalCost;
+    this.status = other.status;
+    this.createdDate = other.createdDate;
+    this.car = other.car != null ? new Car(other.car) : null;
+    this.customer = other.customer != null ? new Customer(other.customer) : null;
+    this.staff = other.staff != null ? new User(other.staff) : null;
+  }
+
   // Getters and Setters
   public int getId() {
     return id;
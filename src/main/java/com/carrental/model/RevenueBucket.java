@@ -0,0 +1,91 @@
+package com.carrental.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Rental count and revenue for one day, week or month, keyed by the start
+ * date of the rentals it covers
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+public class RevenueBucket {
+
+  /**
+   * Length of one bucket. Weeks start on Monday, months on the 1st.
+   */
+  public enum Granularity {
+    DAY,
+    WEEK,
+    MONTH;
+
+    /**
+     * First day of the bucket containing the given date
+     */
+    public LocalDate bucketStart(LocalDate date) {
+      switch (this) {
+        case WEEK:
+          return date.minusDays(date.getDayOfWeek().getValue() - 1);
+        case MONTH:
+          return date.withDayOfMonth(1);
+        default:
+          return date;
+      }
+    }
+
+    /**
+     * First day of the bucket after the one starting on the given date
+     */
+    public LocalDate next(LocalDate bucketStart) {
+      switch (this) {
+        case WEEK:
+          return bucketStart.plusWeeks(1);
+        case MONTH:
+          return bucketStart.plusMonths(1);
+        default:
+          return bucketStart.plusDays(1);
+      }
+    }
+  }
+
+  private final LocalDate periodStart;
+  private final int rentalCount;
+  private final int completedCount;
+  private final BigDecimal revenue;
+
+  public RevenueBucket(LocalDate periodStart, int rentalCount, int completedCount, BigDecimal revenue) {
+    this.periodStart = periodStart;
+    this.rentalCount = rentalCount;
+    this.completedCount = completedCount;
+    this.revenue = revenue;
+  }
+
+  public LocalDate getPeriodStart() {
+    return periodStart;
+  }
+
+  /**
+   * Number of rentals of any status starting in this bucket
+   */
+  public int getRentalCount() {
+    return rentalCount;
+  }
+
+  public int getCompletedCount() {
+    return completedCount;
+  }
+
+  /**
+   * Exact revenue from completed rentals starting in this bucket
+   */
+  public BigDecimal getRevenue() {
+    return revenue;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("RevenueBucket{%s: rentals=%d, completed=%d, revenue=%s}", periodStart, rentalCount,
+        completedCount, revenue);
+  }
+}
@@ -0,0 +1,142 @@
+package com.carrental.model;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of rental, fleet and revenue figures for dashboards
+ * and reports
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+public class SystemStatistics {
+
+  private final Map<String, Integer> rentalsByStatus;
+  private final Map<String, Integer> carsByStatus;
+  private final Map<Integer, BigDecimal> revenueByStaff;
+  private final BigDecimal totalRevenue;
+  private final int totalCustomers;
+  private final int totalUsers;
+  private final int overdueRentals;
+  private final int recentRentals;
+
+  public SystemStatistics(Map<String, Integer> rentalsByStatus, Map<String, Integer> carsByStatus,
+      Map<Integer, BigDecimal> revenueByStaff, BigDecimal totalRevenue, int totalCustomers, int totalUsers,
+      int overdueRentals, int recentRentals) {
+    this.rentalsByStatus = Collections.unmodifiableMap(new HashMap<>(rentalsByStatus));
+    this.carsByStatus = Collections.unmodifiableMap(new HashMap<>(carsByStatus));
+    this.revenueByStaff = Collections.unmodifiableMap(new HashMap<>(revenueByStaff));
+    this.totalRevenue = totalRevenue;
+    this.totalCustomers = totalCustomers;
+    this.totalUsers = totalUsers;
+    this.overdueRentals = overdueRentals;
+    this.recentRentals = recentRentals;
+  }
+
+  /**
+   * Number of rentals with the given status
+   */
+  public int getRentalCount(String status) {
+    return rentalsByStatus.getOrDefault(status, 0);
+  }
+
+  public int getTotalRentals() {
+    return sum(rentalsByStatus);
+  }
+
+  public int getActiveRentals() {
+    return getRentalCount("ACTIVE");
+  }
+
+  public int getCompletedRentals() {
+    return getRentalCount("COMPLETED");
+  }
+
+  /**
+   * Number of cars with the given status
+   */
+  public int getCarCount(String status) {
+    return carsByStatus.getOrDefault(status, 0);
+  }
+
+  public int getTotalCars() {
+    return sum(carsByStatus);
+  }
+
+  public int getAvailableCars() {
+    return getCarCount("AVAILABLE");
+  }
+
+  public int getRentedCars() {
+    return getCarCount("RENTED");
+  }
+
+  public int getMaintenanceCars() {
+    return getCarCount("MAINTENANCE");
+  }
+
+  public int getTotalCustomers() {
+    return totalCustomers;
+  }
+
+  public int getTotalUsers() {
+    return totalUsers;
+  }
+
+  /**
+   * Revenue from completed rentals
+   */
+  public BigDecimal getTotalRevenue() {
+    return totalRevenue;
+  }
+
+  /**
+   * Revenue from completed rentals handled by the given staff member
+   */
+  public BigDecimal getStaffRevenue(int staffId) {
+    return revenueByStaff.getOrDefault(staffId, BigDecimal.ZERO);
+  }
+
+  public Map<String, Integer> getRentalsByStatus() {
+    return rentalsByStatus;
+  }
+
+  public Map<String, Integer> getCarsByStatus() {
+    return carsByStatus;
+  }
+
+  public Map<Integer, BigDecimal> getRevenueByStaff() {
+    return revenueByStaff;
+  }
+
+  /**
+   * Active rentals whose end date has passed
+   */
+  public int getOverdueRentals() {
+    return overdueRentals;
+  }
+
+  /**
+   * Rentals starting yesterday or later
+   */
+  public int getRecentRentals() {
+    return recentRentals;
+  }
+
+  private static int sum(Map<String, Integer> counts) {
+    int total = 0;
+    for (int count : counts.values()) {
+      total += count;
+    }
+    return total;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("SystemStatistics{rentals=%s, cars=%s, customers=%d, users=%d, revenue=%s}",
+        rentalsByStatus, carsByStatus, totalCustomers, totalUsers, getTotalRevenue());
+  }
+}
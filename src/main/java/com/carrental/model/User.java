@@ -26,6 +26,15 @@ public class User {
         this.role = role;
     }
     
+    // Copy constructor
+    public User(User other) {
+        this.id = other.id;
+        this.username = other.username;
+        this.password = other.password;
+        this.role = other.role;
+        this.createdDate = other.createdDate;
+    }
+    
     // Getters and Setters
     public int getId() {
         return id;
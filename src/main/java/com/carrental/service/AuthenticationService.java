@@ -140,6 +140,8 @@ public class AuthenticationService {
         } catch (Exception e) {
             System.err.println("Error updating password: " + e.getMessage());
             return false;
+        } finally {
+            UserService.invalidateCachedUser(userId);
         }
     }
 }
@@ -3,19 +3,42 @@ package com.carrental.service;
 import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.carrental.dao.CarDAO;
 import com.carrental.model.Car;
+import com.carrental.model.Page;
+import com.carrental.util.AsyncTasks;
+import com.carrental.util.ChangeEventBus;
+import com.carrental.util.DatabaseManager;
+import com.carrental.util.EntityChangeEvent;
 
 /**
  * Service class for handling car-related business logic
+ *
+ * Lookups by id, license plate and status are answered from an in-memory
+ * copy of the fleet shared by all instances. Writes made through this
+ * service update it once their transaction commits; a rollback leaves it
+ * untouched. Changes made by other processes discard it.
  * 
  * @author Md Toriqul Islam
  * @version 1.0.0
  */
 public class CarService {
 
+    // Same order as CarDAO.getAllCars
+    private static final Comparator<Car> NEWEST_FIRST = Comparator
+            .comparing(Car::getCreatedDate, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Comparator.comparingInt(Car::getId).reversed());
+
+    private static final FleetCache FLEET = new FleetCache();
+
     private CarDAO carDAO;
 
     public CarService() {
@@ -29,6 +52,41 @@ public class CarService {
             String color, BigDecimal dailyRate) throws Exception {
 
         // Validate input
+        Car car = validateNewCar(make, model, year, licensePlate, color, dailyRate);
+
+        // Check if license plate already exists
+        if (FLEET.hasLicensePlate(carDAO, car.getLicensePlate())) {
+            throw new IllegalArgumentException("License plate already exists");
+        }
+
+        return DatabaseManager.executeWrite(connection -> {
+            boolean created = carDAO.createCarWithConnection(car, connection);
+            if (created) {
+                DatabaseManager.afterCommit(connection, () -> FLEET.put(car));
+            }
+            return created;
+        });
+    }
+
+    /**
+     * Create many validated cars with provided connection (for transaction
+     * management). Batch inserts do not read back column defaults, so the
+     * fleet cache is reloaded once the transaction commits.
+     */
+    public int createCarsWithConnection(List<Car> cars, Connection connection) throws SQLException {
+        int created = carDAO.createCarsWithConnection(cars, cars.size(), connection);
+        if (created > 0) {
+            DatabaseManager.afterCommit(connection, FLEET::invalidate);
+        }
+        return created;
+    }
+
+    /**
+     * Validate the fields of a new car and build the trimmed car object.
+     * Does not check whether the license plate is already taken.
+     */
+    public Car validateNewCar(String make, String model, int year, String licensePlate,
+            String color, BigDecimal dailyRate) {
         if (make == null || make.trim().isEmpty()) {
             throw new IllegalArgumentException("Make is required");
         }
@@ -48,37 +106,43 @@ public class CarService {
             throw new IllegalArgumentException("Daily rate must be greater than 0");
         }
 
-        // Check if license plate already exists
-        if (carDAO.licensePlateExists(licensePlate.trim())) {
-            throw new IllegalArgumentException("License plate already exists");
-        }
-
-        // Create car object
-        Car car = new Car(make.trim(), model.trim(), year, licensePlate.trim(),
-                color.trim(), dailyRate);
-
-        return carDAO.createCar(car);
+        return new Car(make.trim(), model.trim(), year, licensePlate.trim(), color.trim(), dailyRate);
     }
 
     /**
      * Get all cars
      */
     public List<Car> getAllCars() throws SQLException {
-        return carDAO.getAllCars();
+        return FLEET.getAll(carDAO);
+    }
+
+    /**
+     * Get one page of cars, newest first. Pass null for the first page,
+     * then the next or previous token of the page being shown.
+     */
+    public Page<Car> getCarsPage(String pageToken, int pageSize) throws SQLException {
+        return carDAO.getCarsPage(pageToken, pageSize);
     }
 
     /**
      * Get available cars
      */
     public List<Car> getAvailableCars() throws SQLException {
-        return carDAO.getAvailableCars();
+        return FLEET.getByStatus(carDAO, "AVAILABLE");
     }
 
     /**
      * Get car by ID
      */
     public Car getCarById(int id) throws SQLException {
-        return carDAO.getCarById(id);
+        return FLEET.get(carDAO, id);
+    }
+
+    /**
+     * Get the cars with the given IDs; missing IDs are skipped
+     */
+    public List<Car> getCarsByIds(Collection<Integer> ids) throws SQLException {
+        return FLEET.getAll(carDAO, ids);
     }
 
     /**
@@ -113,7 +177,13 @@ public class CarService {
             throw new IllegalArgumentException("Daily rate must be greater than 0");
         }
 
-        return carDAO.updateCar(car);
+        return DatabaseManager.executeWrite(connection -> {
+            boolean updated = carDAO.updateCarWithConnection(car, connection);
+            if (updated) {
+                DatabaseManager.afterCommit(connection, () -> FLEET.put(car));
+            }
+            return updated;
+        });
     }
 
     /**
@@ -125,27 +195,269 @@ public class CarService {
             throw new IllegalArgumentException("Invalid status. Must be AVAILABLE, RENTED, or MAINTENANCE");
         }
 
-        return carDAO.updateCarStatus(carId, status);
+        return DatabaseManager.executeWrite(connection -> updateCarStatusWithConnection(carId, status, connection));
     }
 
     /**
      * Update car status with provided connection (for transaction management)
      */
     public boolean updateCarStatusWithConnection(int carId, String status, Connection connection) throws SQLException {
-        return carDAO.updateCarStatusWithConnection(carId, status, connection);
+        boolean updated = carDAO.updateCarStatusWithConnection(carId, status, connection);
+        if (updated) {
+            DatabaseManager.afterCommit(connection, () -> FLEET.updateStatus(carId, status));
+        }
+        return updated;
+    }
+
+    /**
+     * Change a car's status only if the database still shows the expected
+     * one, with provided connection (for transaction management)
+     */
+    public boolean changeCarStatusWithConnection(int carId, String expectedStatus, String status,
+            Connection connection) throws SQLException {
+        boolean updated = carDAO.changeCarStatusWithConnection(carId, expectedStatus, status, connection);
+        if (updated) {
+            DatabaseManager.afterCommit(connection, () -> FLEET.updateStatus(carId, status));
+        }
+        return updated;
     }
 
     /**
      * Delete car
      */
     public boolean deleteCar(int id) throws SQLException {
-        return carDAO.deleteCar(id);
+        return DatabaseManager.executeWrite(connection -> {
+            boolean deleted = carDAO.deleteCarWithConnection(id, connection);
+            if (deleted) {
+                DatabaseManager.afterCommit(connection, () -> FLEET.remove(id));
+            }
+            return deleted;
+        });
     }
 
     /**
      * Check if car exists
      */
     public boolean carExists(int id) throws SQLException {
-        return carDAO.getCarById(id) != null;
+        return FLEET.get(carDAO, id) != null;
+    }
+
+    /**
+     * Create a car asynchronously
+     */
+    public CompletableFuture<Boolean> createCarAsync(String make, String model, int year, String licensePlate,
+            String color, BigDecimal dailyRate) {
+        return AsyncTasks.supplyWrite(() -> createCar(make, model, year, licensePlate, color, dailyRate));
+    }
+
+    /**
+     * Get all cars asynchronously
+     */
+    public CompletableFuture<List<Car>> getAllCarsAsync() {
+        return AsyncTasks.supply(() -> getAllCars());
+    }
+
+    /**
+     * Get available cars asynchronously
+     */
+    public CompletableFuture<List<Car>> getAvailableCarsAsync() {
+        return AsyncTasks.supply(() -> getAvailableCars());
+    }
+
+    /**
+     * Get car by ID asynchronously
+     */
+    public CompletableFuture<Car> getCarByIdAsync(int id) {
+        return AsyncTasks.supply(() -> getCarById(id));
+    }
+
+    /**
+     * Search cars asynchronously
+     */
+    public CompletableFuture<List<Car>> searchCarsAsync(String searchTerm) {
+        return AsyncTasks.supply(() -> searchCars(searchTerm));
+    }
+
+    /**
+     * Update car asynchronously
+     */
+    public CompletableFuture<Boolean> updateCarAsync(Car car) {
+        return AsyncTasks.supplyWrite(() -> updateCar(car));
+    }
+
+    /**
+     * Update car status asynchronously
+     */
+    public CompletableFuture<Boolean> updateCarStatusAsync(int carId, String status) {
+        return AsyncTasks.supplyWrite(() -> updateCarStatus(carId, status));
+    }
+
+    /**
+     * Delete car asynchronously
+     */
+    public CompletableFuture<Boolean> deleteCarAsync(int id) {
+        return AsyncTasks.supplyWrite(() -> deleteCar(id));
+    }
+
+    /**
+     * All cars indexed by id, license plate and status. Loaded in one query
+     * on first use; callers always get copies.
+     */
+    private static class FleetCache {
+        // Null until loaded
+        private Map<Integer, Car> byId;
+        private final Map<String, Car> byLicensePlate = new HashMap<>();
+        private final Map<String, Map<Integer, Car>> byStatus = new HashMap<>();
+
+        // Sorted views, rebuilt on the first read after a change
+        private List<Car> newestFirst;
+        private final Map<String, List<Car>> newestFirstByStatus = new HashMap<>();
+
+        private ChangeEventBus subscribedBus;
+
+        synchronized List<Car> getAll(CarDAO carDAO) throws SQLException {
+            ensureLoaded(carDAO);
+            if (newestFirst == null) {
+                newestFirst = sorted(byId.values());
+            }
+            return copies(newestFirst);
+        }
+
+        synchronized List<Car> getByStatus(CarDAO carDAO, String status) throws SQLException {
+            ensureLoaded(carDAO);
+            List<Car> cars = newestFirstByStatus.get(status);
+            if (cars == null) {
+                cars = sorted(byStatus.getOrDefault(status, new HashMap<>()).values());
+                newestFirstByStatus.put(status, cars);
+            }
+            return copies(cars);
+        }
+
+        synchronized Car get(CarDAO carDAO, int id) throws SQLException {
+            ensureLoaded(carDAO);
+            Car car = byId.get(id);
+            return car != null ? new Car(car) : null;
+        }
+
+        synchronized List<Car> getAll(CarDAO carDAO, Collection<Integer> ids) throws SQLException {
+            ensureLoaded(carDAO);
+            List<Car> cars = new ArrayList<>();
+            for (int id : ids) {
+                Car car = byId.get(id);
+                if (car != null) {
+                    cars.add(new Car(car));
+                }
+            }
+            return cars;
+        }
+
+        synchronized boolean hasLicensePlate(CarDAO carDAO, String licensePlate) throws SQLException {
+            ensureLoaded(carDAO);
+            return byLicensePlate.containsKey(licensePlate);
+        }
+
+        synchronized void put(Car car) {
+            if (byId == null) {
+                return;
+            }
+            Car cached = new Car(car);
+            Car previous = byId.get(car.getId());
+            if (previous != null) {
+                if (cached.getCreatedDate() == null) {
+                    cached.setCreatedDate(previous.getCreatedDate());
+                }
+                unindex(previous);
+            }
+            index(cached);
+        }
+
+        synchronized void updateStatus(int id, String status) {
+            Car previous = byId != null ? byId.get(id) : null;
+            if (previous != null) {
+                Car updated = new Car(previous);
+                updated.setStatus(status);
+                unindex(previous);
+                index(updated);
+            }
+        }
+
+        synchronized void remove(int id) {
+            Car previous = byId != null ? byId.get(id) : null;
+            if (previous != null) {
+                unindex(previous);
+            }
+        }
+
+        /**
+         * Drop everything; the next read reloads the fleet
+         */
+        synchronized void invalidate() {
+            byId = null;
+            byLicensePlate.clear();
+            byStatus.clear();
+            newestFirst = null;
+            newestFirstByStatus.clear();
+        }
+
+        private void ensureLoaded(CarDAO carDAO) throws SQLException {
+            if (byId != null) {
+                return;
+            }
+
+            // Writes from other processes never pass through this service
+            ChangeEventBus bus = DatabaseManager.getEventBus();
+            if (bus != subscribedBus) {
+                bus.subscribe(events -> {
+                    for (EntityChangeEvent event : events) {
+                        if (event.isReload()) {
+                            invalidate();
+                            return;
+                        }
+                    }
+                }, EntityChangeEvent.CARS);
+                subscribedBus = bus;
+            }
+
+            byId = new HashMap<>();
+            for (Car car : carDAO.getAllCars()) {
+                index(car);
+            }
+        }
+
+        private void index(Car car) {
+            byId.put(car.getId(), car);
+            byLicensePlate.put(car.getLicensePlate(), car);
+            byStatus.computeIfAbsent(car.getStatus(), status -> new HashMap<>()).put(car.getId(), car);
+            changed();
+        }
+
+        private void unindex(Car car) {
+            byId.remove(car.getId());
+            byLicensePlate.remove(car.getLicensePlate());
+            Map<Integer, Car> sameStatus = byStatus.get(car.getStatus());
+            if (sameStatus != null) {
+                sameStatus.remove(car.getId());
+            }
+            changed();
+        }
+
+        private void changed() {
+            newestFirst = null;
+            newestFirstByStatus.clear();
+        }
+
+        private static List<Car> sorted(Collection<Car> cars) {
+            List<Car> list = new ArrayList<>(cars);
+            list.sort(NEWEST_FIRST);
+            return list;
+        }
+
+        private static List<Car> copies(List<Car> cars) {
+            List<Car> list = new ArrayList<>(cars.size());
+            for (Car car : cars) {
+                list.add(new Car(car));
+            }
+            return list;
+        }
     }
 }
@@ -0,0 +1,365 @@
+package com.carrental.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import com.carrental.dao.CarDAO;
+import com.carrental.dao.CustomerDAO;
+import com.carrental.model.Car;
+import com.carrental.model.Customer;
+import com.carrental.util.CsvReader;
+import com.carrental.util.CsvWriter;
+import com.carrental.util.DatabaseManager;
+
+/**
+ * Service class for bulk importing customers and cars from CSV files
+ *
+ * Files are streamed: rows are validated with the same rules as the
+ * interactive create methods and written in chunks, each chunk in its own
+ * writer transaction, so only one chunk is ever held in memory. Rows that
+ * fail validation or already exist are written to a reject file together
+ * with their line number and the reason.
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+public class CsvImportService {
+
+    public static final List<String> CUSTOMER_COLUMNS = Arrays.asList("name", "email", "phone", "address");
+    public static final List<String> CAR_COLUMNS = Arrays.asList("make", "model", "year", "license_plate", "color",
+            "daily_rate");
+
+    private CustomerService customerService;
+    private CarService carService;
+    private CustomerDAO customerDAO;
+    private CarDAO carDAO;
+
+    public CsvImportService() {
+        this.customerService = new CustomerService();
+        this.carService = new CarService();
+        this.customerDAO = new CustomerDAO();
+        this.carDAO = new CarDAO();
+    }
+
+    /**
+     * Import customers from a CSV file with the columns name, email, phone
+     * and address. Emails already in the database or repeated in the file
+     * are rejected.
+     */
+    public ImportResult importCustomers(File csvFile, File rejectFile, ProgressListener listener)
+            throws IOException, SQLException {
+        return runImport(csvFile, rejectFile, CUSTOMER_COLUMNS, listener,
+                fields -> customerService.validateNewCustomer(fields.get(0), fields.get(1), fields.get(2),
+                        fields.get(3)),
+                Customer::getEmail,
+                "Email already exists",
+                customerDAO::findExistingEmailsWithConnection,
+                (customers, connection) -> customerDAO.createCustomersWithConnection(customers, customers.size(),
+                        connection));
+    }
+
+    /**
+     * Import cars from a CSV file with the columns make, model, year,
+     * license_plate, color and daily_rate. License plates already in the
+     * database or repeated in the file are rejected.
+     */
+    public ImportResult importCars(File csvFile, File rejectFile, ProgressListener listener)
+            throws IOException, SQLException {
+        return runImport(csvFile, rejectFile, CAR_COLUMNS, listener,
+                fields -> carService.validateNewCar(fields.get(0), fields.get(1), parseYear(fields.get(2)),
+                        fields.get(3), fields.get(4), parseDailyRate(fields.get(5))),
+                Car::getLicensePlate,
+                "License plate already exists",
+                carDAO::findExistingLicensePlatesWithConnection,
+                carService::createCarsWithConnection);
+    }
+
+    private <T> ImportResult runImport(File csvFile, File rejectFile, List<String> columns,
+            ProgressListener listener, RowParser<T> parser, KeyExtractor<T> keyExtractor, String duplicateMessage,
+            ExistingKeyFinder existingKeyFinder, ChunkWriter<T> chunkWriter) throws IOException, SQLException {
+
+        int chunkSize = DatabaseManager.getConfig().getBatchSize();
+        ImportResult result = new ImportResult(rejectFile);
+
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(csvFile.toPath(), StandardCharsets.UTF_8));
+                RejectWriter rejects = new RejectWriter(rejectFile, result)) {
+
+            List<String> header = reader.readRecord();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV file is empty");
+            }
+            int[] columnIndexes = resolveColumns(header, columns);
+            rejects.setHeader(header);
+
+            // Keyed by the unique column so duplicates inside the file are caught per chunk;
+            // duplicates across chunks are caught by the database lookup
+            Map<String, PendingRow<T>> chunk = new LinkedHashMap<>();
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                result.rowsRead++;
+                long line = reader.getRecordLineNumber();
+
+                T row;
+                try {
+                    row = parser.parse(select(record, columnIndexes, header.size()));
+                } catch (IllegalArgumentException e) {
+                    rejects.reject(line, record, e.getMessage());
+                    continue;
+                }
+
+                String key = keyExtractor.key(row);
+                if (chunk.containsKey(key)) {
+                    rejects.reject(line, record, "Duplicate of line " + chunk.get(key).line);
+                    continue;
+                }
+                chunk.put(key, new PendingRow<>(row, record, line));
+
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(chunk, rejects, result, duplicateMessage, existingKeyFinder, chunkWriter);
+                    reportProgress(listener, result);
+                }
+            }
+
+            writeChunk(chunk, rejects, result, duplicateMessage, existingKeyFinder, chunkWriter);
+            reportProgress(listener, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Look up the chunk's keys and insert the new rows in one writer transaction
+     */
+    private <T> void writeChunk(Map<String, PendingRow<T>> chunk, RejectWriter rejects, ImportResult result,
+            String duplicateMessage, ExistingKeyFinder existingKeyFinder, ChunkWriter<T> chunkWriter)
+            throws IOException, SQLException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        Set<String> existing = DatabaseManager.executeInTransaction(connection -> {
+            Set<String> found = existingKeyFinder.find(chunk.keySet(), connection);
+            List<T> rows = new ArrayList<>();
+            for (Map.Entry<String, PendingRow<T>> entry : chunk.entrySet()) {
+                if (!found.contains(entry.getKey())) {
+                    rows.add(entry.getValue().row);
+                }
+            }
+            if (!rows.isEmpty()) {
+                chunkWriter.write(rows, connection);
+            }
+            return found;
+        });
+
+        for (Map.Entry<String, PendingRow<T>> entry : chunk.entrySet()) {
+            if (existing.contains(entry.getKey())) {
+                PendingRow<T> pending = entry.getValue();
+                rejects.reject(pending.line, pending.record, duplicateMessage);
+            } else {
+                result.imported++;
+            }
+        }
+        chunk.clear();
+    }
+
+    private void reportProgress(ProgressListener listener, ImportResult result) throws InterruptedIOException {
+        if (listener != null) {
+            listener.onProgress(result.rowsRead, result.imported, result.rejected);
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Import cancelled after " + result.imported + " rows");
+        }
+    }
+
+    /**
+     * Map the expected columns to their positions in the header
+     */
+    private int[] resolveColumns(List<String> header, List<String> columns) {
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim().toLowerCase(Locale.ROOT);
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                // Byte order mark written by spreadsheet exports
+                name = name.substring(1);
+            }
+            positions.putIfAbsent(name, i);
+        }
+
+        int[] indexes = new int[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            Integer position = positions.get(columns.get(i));
+            if (position == null) {
+                throw new IllegalArgumentException("Missing column: " + columns.get(i)
+                        + ". Expected columns: " + String.join(", ", columns));
+            }
+            indexes[i] = position;
+        }
+        return indexes;
+    }
+
+    private List<String> select(List<String> record, int[] columnIndexes, int expectedColumns) {
+        if (record.size() != expectedColumns) {
+            throw new IllegalArgumentException("Expected " + expectedColumns + " columns but found " + record.size());
+        }
+        List<String> fields = new ArrayList<>(columnIndexes.length);
+        for (int index : columnIndexes) {
+            fields.add(record.get(index));
+        }
+        return fields;
+    }
+
+    private int parseYear(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid year: " + value);
+        }
+    }
+
+    private BigDecimal parseDailyRate(String value) {
+        try {
+            return new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid daily rate: " + value);
+        }
+    }
+
+    /**
+     * Receives progress after every chunk written
+     */
+    public interface ProgressListener {
+        void onProgress(long rowsRead, long imported, long rejected);
+    }
+
+    @FunctionalInterface
+    private interface RowParser<T> {
+        T parse(List<String> fields);
+    }
+
+    @FunctionalInterface
+    private interface KeyExtractor<T> {
+        String key(T row);
+    }
+
+    @FunctionalInterface
+    private interface ExistingKeyFinder {
+        Set<String> find(Collection<String> keys, Connection connection) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter<T> {
+        int write(List<T> rows, Connection connection) throws SQLException;
+    }
+
+    /**
+     * Parsed row waiting for its chunk to be written
+     */
+    private static class PendingRow<T> {
+        private final T row;
+        private final List<String> record;
+        private final long line;
+
+        PendingRow(T row, List<String> record, long line) {
+            this.row = row;
+            this.record = record;
+            this.line = line;
+        }
+    }
+
+    /**
+     * Writes rejected rows, creating the reject file on the first reject
+     */
+    private static class RejectWriter implements AutoCloseable {
+        private final File rejectFile;
+        private final ImportResult result;
+        private List<String> header;
+        private CsvWriter writer;
+
+        RejectWriter(File rejectFile, ImportResult result) {
+            this.rejectFile = rejectFile;
+            this.result = result;
+        }
+
+        void setHeader(List<String> header) {
+            this.header = header;
+        }
+
+        void reject(long line, List<String> record, String reason) throws IOException {
+            result.rejected++;
+            if (rejectFile == null) {
+                return;
+            }
+            if (writer == null) {
+                Writer out = Files.newBufferedWriter(rejectFile.toPath(), StandardCharsets.UTF_8);
+                writer = new CsvWriter(out);
+                List<String> rejectHeader = new ArrayList<>(header);
+                rejectHeader.add("line");
+                rejectHeader.add("error");
+                writer.writeRecord(rejectHeader);
+            }
+
+            List<String> fields = new ArrayList<>(record);
+            fields.add(String.valueOf(line));
+            fields.add(reason);
+            writer.writeRecord(fields);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (writer != null) {
+                writer.close();
+                result.rejectFileWritten = true;
+            }
+        }
+    }
+
+    /**
+     * Inner class for import results
+     */
+    public static class ImportResult {
+        private final File rejectFile;
+        private long rowsRead;
+        private long imported;
+        private long rejected;
+        private boolean rejectFileWritten;
+
+        public ImportResult(File rejectFile) {
+            this.rejectFile = rejectFile;
+        }
+
+        public long getRowsRead() {
+            return rowsRead;
+        }
+
+        public long getImported() {
+            return imported;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        /**
+         * Reject file, or null if no row was rejected
+         */
+        public File getRejectFile() {
+            return rejectFileWritten ? rejectFile : null;
+        }
+    }
+}
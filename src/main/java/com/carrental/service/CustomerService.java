@@ -2,19 +2,33 @@ package com.carrental.service;
 
 import com.carrental.dao.CustomerDAO;
 import com.carrental.model.Customer;
+import com.carrental.model.Page;
+import com.carrental.util.AsyncTasks;
+import com.carrental.util.DatabaseConfig;
+import com.carrental.util.DatabaseManager;
+import com.carrental.util.EntityChangeEvent;
+import com.carrental.util.LruCache;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
 
 /**
  * Service class for handling customer-related business logic
+ *
+ * Lookups by id go through a bounded cache shared by all instances. Updates
+ * and deletes made through this service invalidate the customer; changes
+ * made by other processes clear the cache.
  * 
  * @author Md Toriqul Islam
  * @version 1.0.0
  */
 public class CustomerService {
     
+    private static final LruCache<Integer, Customer> CACHE = createCache();
+    
     private CustomerDAO customerDAO;
     
     public CustomerService() {
@@ -27,6 +41,21 @@ public class CustomerService {
     public boolean createCustomer(String name, String email, String phone, String address) throws Exception {
         
         // Validate input
+        Customer customer = validateNewCustomer(name, email, phone, address);
+        
+        // Check if email already exists
+        if (customerDAO.emailExists(customer.getEmail())) {
+            throw new IllegalArgumentException("Email already exists");
+        }
+        
+        return customerDAO.createCustomer(customer);
+    }
+    
+    /**
+     * Validate the fields of a new customer and build the trimmed customer
+     * object. Does not check whether the email is already taken.
+     */
+    public Customer validateNewCustomer(String name, String email, String phone, String address) {
         if (name == null || name.trim().isEmpty()) {
             throw new IllegalArgumentException("Name is required");
         }
@@ -45,15 +74,7 @@ public class CustomerService {
             throw new IllegalArgumentException("Invalid email format");
         }
         
-        // Check if email already exists
-        if (customerDAO.emailExists(email.trim())) {
-            throw new IllegalArgumentException("Email already exists");
-        }
-        
-        // Create customer object
-        Customer customer = new Customer(name.trim(), email.trim(), phone.trim(), address.trim());
-        
-        return customerDAO.createCustomer(customer);
+        return new Customer(name.trim(), email.trim(), phone.trim(), address.trim());
     }
     
     /**
@@ -62,12 +83,27 @@ public class CustomerService {
     public List<Customer> getAllCustomers() throws SQLException {
         return customerDAO.getAllCustomers();
     }
+
+    /**
+     * Get one page of customers, newest first. Pass null for the first page,
+     * then the next or previous token of the page being shown.
+     */
+    public Page<Customer> getCustomersPage(String pageToken, int pageSize) throws SQLException {
+        return customerDAO.getCustomersPage(pageToken, pageSize);
+    }
     
     /**
      * Get customer by ID
      */
     public Customer getCustomerById(int id) throws SQLException {
-        return customerDAO.getCustomerById(id);
+        return CACHE.get(id, customerDAO::getCustomerById);
+    }
+    
+    /**
+     * Get the customers with the given IDs; missing IDs are skipped
+     */
+    public List<Customer> getCustomersByIds(Collection<Integer> ids) throws SQLException {
+        return CACHE.getAll(ids, customerDAO::getCustomersByIds, Customer::getId);
     }
     
     /**
@@ -117,21 +153,43 @@ public class CustomerService {
             throw new IllegalArgumentException("Invalid email format");
         }
         
-        return customerDAO.updateCustomer(customer);
+        try {
+            return customerDAO.updateCustomer(customer);
+        } finally {
+            CACHE.invalidate(customer.getId());
+        }
     }
     
     /**
      * Delete customer
      */
     public boolean deleteCustomer(int id) throws SQLException {
-        return customerDAO.deleteCustomer(id);
+        try {
+            return customerDAO.deleteCustomer(id);
+        } finally {
+            CACHE.invalidate(id);
+        }
     }
     
     /**
      * Check if customer exists
      */
     public boolean customerExists(int id) throws SQLException {
-        return customerDAO.getCustomerById(id) != null;
+        return getCustomerById(id) != null;
+    }
+    
+    /**
+     * Hit, miss and eviction counts of the customer lookup cache
+     */
+    public static LruCache.CacheStats getCacheStats() {
+        return CACHE.getStats();
+    }
+    
+    private static LruCache<Integer, Customer> createCache() {
+        DatabaseConfig config = DatabaseManager.getConfig();
+        return new LruCache<Integer, Customer>("customers", config.getCustomerCacheSize(),
+                config.getCustomerCacheTtlMillis(), Customer::new)
+                .clearOnReload(EntityChangeEvent.CUSTOMERS);
     }
     
     /**
@@ -142,4 +200,53 @@ public class CustomerService {
         Pattern pattern = Pattern.compile(emailRegex);
         return pattern.matcher(email).matches();
     }
+
+    /**
+     * Create a customer asynchronously
+     */
+    public CompletableFuture<Boolean> createCustomerAsync(String name, String email, String phone, String address) {
+        return AsyncTasks.supplyWrite(() -> createCustomer(name, email, phone, address));
+    }
+
+    /**
+     * Get all customers asynchronously
+     */
+    public CompletableFuture<List<Customer>> getAllCustomersAsync() {
+        return AsyncTasks.supply(() -> getAllCustomers());
+    }
+
+    /**
+     * Get customer by ID asynchronously
+     */
+    public CompletableFuture<Customer> getCustomerByIdAsync(int id) {
+        return AsyncTasks.supply(() -> getCustomerById(id));
+    }
+
+    /**
+     * Get customer by email asynchronously
+     */
+    public CompletableFuture<Customer> getCustomerByEmailAsync(String email) {
+        return AsyncTasks.supply(() -> getCustomerByEmail(email));
+    }
+
+    /**
+     * Search customers asynchronously
+     */
+    public CompletableFuture<List<Customer>> searchCustomersAsync(String searchTerm) {
+        return AsyncTasks.supply(() -> searchCustomers(searchTerm));
+    }
+
+    /**
+     * Update customer asynchronously
+     */
+    public CompletableFuture<Boolean> updateCustomerAsync(Customer customer) {
+        return AsyncTasks.supplyWrite(() -> updateCustomer(customer));
+    }
+
+    /**
+     * Delete customer asynchronously
+     */
+    public CompletableFuture<Boolean> deleteCustomerAsync(int id) {
+        return AsyncTasks.supplyWrite(() -> deleteCustomer(id));
+    }
 }
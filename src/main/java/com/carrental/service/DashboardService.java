@@ -0,0 +1,74 @@
+package com.carrental.service;
+
+import com.carrental.model.DashboardSnapshot;
+import com.carrental.model.Rental;
+import com.carrental.model.RevenueBucket.Granularity;
+import com.carrental.util.AsyncTasks;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service class for loading dashboard snapshots
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+public class DashboardService {
+
+    /**
+     * Number of bars in the dashboard charts
+     */
+    public static final int CHART_PERIODS = 6;
+
+    /**
+     * Number of rentals in the dashboard's recent list
+     */
+    public static final int RECENT_RENTALS = 4;
+
+    private StatisticsService statisticsService;
+    private RentalService rentalService;
+
+    public DashboardService() {
+        this.statisticsService = new StatisticsService();
+        this.rentalService = new RentalService();
+    }
+
+    /**
+     * Load everything the dashboard cards, lists and charts show
+     */
+    public DashboardSnapshot loadSnapshot() throws SQLException {
+        return new DashboardSnapshot(
+                statisticsService.getStatistics(),
+                rentalService.getRecentRevenueSeries(Granularity.MONTH, CHART_PERIODS),
+                rentalService.getRecentRevenueSeries(Granularity.DAY, CHART_PERIODS),
+                loadRecentRentals(),
+                LocalDateTime.now());
+    }
+
+    /**
+     * Load a snapshot on a background thread
+     */
+    public CompletableFuture<DashboardSnapshot> loadSnapshotAsync() {
+        return AsyncTasks.supply(() -> loadSnapshot());
+    }
+
+    private List<Rental> loadRecentRentals() throws SQLException {
+        List<Rental> rentals = rentalService.getRecentRentals(RECENT_RENTALS);
+
+        // Queue every car and customer first so each type is fetched in one query
+        EntityBatchLoader loader = new EntityBatchLoader();
+        for (Rental rental : rentals) {
+            loader.requestCar(rental.getCarId());
+            loader.requestCustomer(rental.getCustomerId());
+        }
+        for (Rental rental : rentals) {
+            rental.setCar(loader.getCar(rental.getCarId()));
+            rental.setCustomer(loader.getCustomer(rental.getCustomerId()));
+        }
+
+        return rentals;
+    }
+}
@@ -0,0 +1,137 @@
+package com.carrental.service;
+
+import com.carrental.model.Car;
+import com.carrental.model.Customer;
+import com.carrental.model.User;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * Batched, memoizing loader for cars, customers and users
+ *
+ * Create one loader per screen refresh. IDs queued with the request methods
+ * are fetched together the first time any entity of that type is read, with
+ * at most one IN query per type instead of one lookup per row; entities
+ * already in the service caches are not queried at all. Results, including
+ * IDs that were not found, are kept for the life of the loader.
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+public class EntityBatchLoader {
+
+    private final Batch<Car> cars;
+    private final Batch<Customer> customers;
+    private final Batch<User> users;
+
+    public EntityBatchLoader() {
+        // The services answer from their caches where they can
+        CarService carService = new CarService();
+        CustomerService customerService = new CustomerService();
+        UserService userService = new UserService();
+
+        this.cars = new Batch<>(carService::getCarsByIds, Car::getId);
+        this.customers = new Batch<>(customerService::getCustomersByIds, Customer::getId);
+        this.users = new Batch<>(userService::getUsersByIds, User::getId);
+    }
+
+    /**
+     * Queue a car ID for the next car batch
+     */
+    public void requestCar(int id) {
+        cars.request(id);
+    }
+
+    /**
+     * Queue a customer ID for the next customer batch
+     */
+    public void requestCustomer(int id) {
+        customers.request(id);
+    }
+
+    /**
+     * Queue a user ID for the next user batch
+     */
+    public void requestUser(int id) {
+        users.request(id);
+    }
+
+    /**
+     * Get a car, loading all queued car IDs first if needed
+     *
+     * @return the car, or null if it does not exist
+     */
+    public Car getCar(int id) throws SQLException {
+        return cars.get(id);
+    }
+
+    /**
+     * Get a customer, loading all queued customer IDs first if needed
+     *
+     * @return the customer, or null if it does not exist
+     */
+    public Customer getCustomer(int id) throws SQLException {
+        return customers.get(id);
+    }
+
+    /**
+     * Get a user, loading all queued user IDs first if needed
+     *
+     * @return the user, or null if it does not exist
+     */
+    public User getUser(int id) throws SQLException {
+        return users.get(id);
+    }
+
+    @FunctionalInterface
+    private interface BatchQuery<T> {
+        List<T> load(Collection<Integer> ids) throws SQLException;
+    }
+
+    /**
+     * Pending IDs and loaded results for one entity type
+     */
+    private static class Batch<T> {
+        private final BatchQuery<T> query;
+        private final ToIntFunction<T> idOf;
+        private final Set<Integer> pending = new LinkedHashSet<>();
+        private final Map<Integer, T> loaded = new HashMap<>();
+
+        Batch(BatchQuery<T> query, ToIntFunction<T> idOf) {
+            this.query = query;
+            this.idOf = idOf;
+        }
+
+        void request(int id) {
+            if (!loaded.containsKey(id)) {
+                pending.add(id);
+            }
+        }
+
+        T get(int id) throws SQLException {
+            request(id);
+            if (!pending.isEmpty()) {
+                dispatch();
+            }
+            return loaded.get(id);
+        }
+
+        private void dispatch() throws SQLException {
+            for (T entity : query.load(pending)) {
+                loaded.put(idOf.applyAsInt(entity), entity);
+            }
+            // Remember misses too, so they are not queried again
+            for (Integer id : pending) {
+                loaded.putIfAbsent(id, null);
+            }
+            pending.clear();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.carrental.service;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.carrental.dao.CarDAO;
+import com.carrental.dao.CustomerDAO;
+import com.carrental.dao.RentalDAO;
+import com.carrental.util.CsvWriter;
+import com.carrental.util.DatabaseConfig;
+import com.carrental.util.DatabaseManager;
+import com.carrental.util.JsonLinesWriter;
+
+/**
+ * Service class for exporting rentals, cars and customers to CSV or JSON Lines
+ *
+ * Rows are streamed from a forward-only cursor straight into a buffered
+ * file channel, one row at a time, so memory use stays flat regardless of
+ * table size. The export reads from a single connection, so it sees one
+ * consistent snapshot even while writes continue.
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+public class ExportService {
+
+    /**
+     * Supported export formats
+     */
+    public enum Format {
+        CSV("csv"),
+        JSONL("jsonl");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private static final List<String> RENTAL_COLUMNS = Arrays.asList("id", "car_id", "customer_id", "staff_id",
+            "start_date", "end_date", "total_cost", "status", "created_date");
+    private static final List<String> CAR_COLUMNS = Arrays.asList("id", "make", "model", "year", "license_plate",
+            "color", "status", "daily_rate", "created_date");
+    private static final List<String> CUSTOMER_COLUMNS = Arrays.asList("id", "name", "email", "phone", "address",
+            "created_date");
+
+    private RentalDAO rentalDAO;
+    private CarDAO carDAO;
+    private CustomerDAO customerDAO;
+
+    public ExportService() {
+        this.rentalDAO = new RentalDAO();
+        this.carDAO = new CarDAO();
+        this.customerDAO = new CustomerDAO();
+    }
+
+    /**
+     * Export all rentals, returning the number of rows written
+     */
+    public long exportRentals(File file, Format format) throws IOException, SQLException {
+        try (RecordSink sink = openSink(file, format, RENTAL_COLUMNS)) {
+            return rentalDAO.forEachRental(getFetchSize(), rental -> sink.write(Arrays.asList(
+                    rental.getId(),
+                    rental.getCarId(),
+                    rental.getCustomerId(),
+                    rental.getStaffId(),
+                    rental.getStartDate(),
+                    rental.getEndDate(),
+                    rental.getTotalCost(),
+                    rental.getStatus(),
+                    rental.getCreatedDate())));
+        }
+    }
+
+    /**
+     * Export all cars, returning the number of rows written
+     */
+    public long exportCars(File file, Format format) throws IOException, SQLException {
+        try (RecordSink sink = openSink(file, format, CAR_COLUMNS)) {
+            return carDAO.forEachCar(getFetchSize(), car -> sink.write(Arrays.asList(
+                    car.getId(),
+                    car.getMake(),
+                    car.getModel(),
+                    car.getYear(),
+                    car.getLicensePlate(),
+                    car.getColor(),
+                    car.getStatus(),
+                    car.getDailyRate(),
+                    car.getCreatedDate())));
+        }
+    }
+
+    /**
+     * Export all customers, returning the number of rows written
+     */
+    public long exportCustomers(File file, Format format) throws IOException, SQLException {
+        try (RecordSink sink = openSink(file, format, CUSTOMER_COLUMNS)) {
+            return customerDAO.forEachCustomer(getFetchSize(), customer -> sink.write(Arrays.asList(
+                    customer.getId(),
+                    customer.getName(),
+                    customer.getEmail(),
+                    customer.getPhone(),
+                    customer.getAddress(),
+                    customer.getCreatedDate())));
+        }
+    }
+
+    private int getFetchSize() {
+        return DatabaseManager.getConfig().getExportFetchSize();
+    }
+
+    /**
+     * Open the output file as a buffered writer over a file channel and
+     * write the header for the chosen format
+     */
+    private RecordSink openSink(File file, Format format, List<String> columns) throws IOException {
+        DatabaseConfig config = DatabaseManager.getConfig();
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            Writer writer = new BufferedWriter(
+                    Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), config.getExportBufferSize()),
+                    config.getExportBufferSize());
+
+            if (format == Format.JSONL) {
+                JsonLinesWriter jsonWriter = new JsonLinesWriter(writer);
+                return new RecordSink() {
+                    @Override
+                    public void write(List<?> values) throws IOException {
+                        jsonWriter.writeObject(columns, values);
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        jsonWriter.close();
+                    }
+                };
+            }
+
+            CsvWriter csvWriter = new CsvWriter(writer);
+            csvWriter.writeRecord(columns);
+            return new RecordSink() {
+                @Override
+                public void write(List<?> values) throws IOException {
+                    List<String> fields = new ArrayList<>(values.size());
+                    for (Object value : values) {
+                        fields.add(value != null ? value.toString() : null);
+                    }
+                    csvWriter.writeRecord(fields);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    csvWriter.close();
+                }
+            };
+        } catch (IOException | RuntimeException e) {
+            // The sink never reached the caller, so nothing else will close the file
+            try {
+                channel.close();
+            } catch (IOException closeError) {
+                e.addSuppressed(closeError);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Destination for exported records in one of the formats
+     */
+    private interface RecordSink extends AutoCloseable {
+        void write(List<?> values) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+}
@@ -1,15 +1,23 @@
 package com.carrental.service;
 
 import java.math.BigDecimal;
-import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.carrental.dao.RentalDAO;
 import com.carrental.model.Car;
 import com.carrental.model.Customer;
+import com.carrental.model.Page;
 import com.carrental.model.Rental;
+import com.carrental.model.RevenueBucket;
+import com.carrental.model.RevenueBucket.Granularity;
+import com.carrental.model.SystemStatistics;
+import com.carrental.util.AsyncTasks;
 import com.carrental.util.DatabaseManager;
 
 /**
@@ -23,11 +31,13 @@ public class RentalService {
     private RentalDAO rentalDAO;
     private CarService carService;
     private CustomerService customerService;
+    private StatisticsService statisticsService;
 
     public RentalService() {
         this.rentalDAO = new RentalDAO();
         this.carService = new CarService();
         this.customerService = new CustomerService();
+        this.statisticsService = new StatisticsService();
     }
 
     /**
@@ -62,7 +72,8 @@ public class RentalService {
             throw new IllegalArgumentException("End date cannot be before start date");
         }
 
-        // Check if car exists and is available
+        // Check if car exists and is available. The cached status only rejects
+        // early; the status change below is what reserves the car.
         Car car = carService.getCarById(carId);
         if (car == null) {
             throw new IllegalArgumentException("Car not found");
@@ -84,54 +95,29 @@ public class RentalService {
         // Create rental object
         Rental rental = new Rental(carId, customerId, staffId, startDate, endDate, totalCost);
 
-        // Use transaction management for data consistency
-        Connection connection = null;
-        boolean transactionSuccess = false;
-
+        // Create the rental and mark the car rented in one writer transaction
         try {
-            // Get connection and start transaction
-            connection = DatabaseManager.getConnection();
-            connection.setAutoCommit(false); // Start transaction
-
-            // Create rental record
-            boolean rentalCreated = rentalDAO.createRentalWithConnection(rental, connection);
-            if (!rentalCreated) {
-                throw new SQLException("Failed to create rental record");
-            }
-
-            // Update car status to RENTED
-            boolean carStatusUpdated = carService.updateCarStatusWithConnection(carId, "RENTED", connection);
-            if (!carStatusUpdated) {
-                throw new SQLException("Failed to update car status");
-            }
-
-            // If both operations succeed, commit the transaction
-            connection.commit();
-            transactionSuccess = true;
+            return DatabaseManager.executeInTransaction(connection -> {
+                // Mark the car rented only if it is still available, so two
+                // terminals can never rent the same car
+                boolean carReserved = carService.changeCarStatusWithConnection(carId, "AVAILABLE", "RENTED",
+                        connection);
+                if (!carReserved) {
+                    throw new IllegalArgumentException("Car is not available for rental");
+                }
 
-        } catch (SQLException e) {
-            // If any operation fails, rollback the transaction
-            if (connection != null) {
-                try {
-                    connection.rollback();
-                } catch (SQLException rollbackEx) {
-                    System.err.println("Error rolling back transaction: " + rollbackEx.getMessage());
+                // Create rental record
+                boolean rentalCreated = rentalDAO.createRentalWithConnection(rental, connection);
+                if (!rentalCreated) {
+                    throw new SQLException("Failed to create rental record");
                 }
-            }
+
+                return true;
+            });
+        } catch (SQLException e) {
+            // The transaction has already been rolled back
             throw new SQLException("Transaction failed: " + e.getMessage(), e);
-        } finally {
-            // Reset auto-commit and close connection
-            if (connection != null) {
-                try {
-                    connection.setAutoCommit(true);
-                    connection.close();
-                } catch (SQLException e) {
-                    System.err.println("Error closing connection: " + e.getMessage());
-                }
-            }
         }
-
-        return transactionSuccess;
     }
 
     /**
@@ -148,55 +134,28 @@ public class RentalService {
             throw new IllegalArgumentException("Rental is not active");
         }
 
-        // Use transaction management for data consistency
-        Connection connection = null;
-        boolean transactionSuccess = false;
-
+        // Complete the rental and release the car in one writer transaction
         try {
-            // Get connection and start transaction
-            connection = DatabaseManager.getConnection();
-            connection.setAutoCommit(false); // Start transaction
-
-            // Update rental status to COMPLETED
-            boolean rentalUpdated = rentalDAO.updateRentalStatusWithConnection(rentalId, "COMPLETED", connection);
-            if (!rentalUpdated) {
-                throw new SQLException("Failed to update rental status");
-            }
-
-            // Update car status to AVAILABLE
-            boolean carStatusUpdated = carService.updateCarStatusWithConnection(rental.getCarId(), "AVAILABLE",
-                    connection);
-            if (!carStatusUpdated) {
-                throw new SQLException("Failed to update car status");
-            }
-
-            // If both operations succeed, commit the transaction
-            connection.commit();
-            transactionSuccess = true;
+            return DatabaseManager.executeInTransaction(connection -> {
+                // Update rental status to COMPLETED
+                boolean rentalUpdated = rentalDAO.updateRentalStatusWithConnection(rentalId, "COMPLETED", connection);
+                if (!rentalUpdated) {
+                    throw new SQLException("Failed to update rental status");
+                }
 
-        } catch (SQLException e) {
-            // If any operation fails, rollback the transaction
-            if (connection != null) {
-                try {
-                    connection.rollback();
-                } catch (SQLException rollbackEx) {
-                    System.err.println("Error rolling back transaction: " + rollbackEx.getMessage());
+                // Update car status to AVAILABLE
+                boolean carStatusUpdated = carService.updateCarStatusWithConnection(rental.getCarId(), "AVAILABLE",
+                        connection);
+                if (!carStatusUpdated) {
+                    throw new SQLException("Failed to update car status");
                 }
-            }
+
+                return true;
+            });
+        } catch (SQLException e) {
+            // The transaction has already been rolled back
             throw new SQLException("Transaction failed: " + e.getMessage(), e);
-        } finally {
-            // Reset auto-commit and close connection
-            if (connection != null) {
-                try {
-                    connection.setAutoCommit(true);
-                    connection.close();
-                } catch (SQLException e) {
-                    System.err.println("Error closing connection: " + e.getMessage());
-                }
-            }
         }
-
-        return transactionSuccess;
     }
 
     /**
@@ -206,6 +165,21 @@ public class RentalService {
         return rentalDAO.getAllRentals();
     }
 
+    /**
+     * Get one page of rentals, newest first. Pass null for the first page,
+     * then the next or previous token of the page being shown.
+     */
+    public Page<Rental> getRentalsPage(String pageToken, int pageSize) throws SQLException {
+        return rentalDAO.getRentalsPage(pageToken, pageSize);
+    }
+
+    /**
+     * Get the rentals with the latest start dates
+     */
+    public List<Rental> getRecentRentals(int limit) throws SQLException {
+        return rentalDAO.getRecentRentals(limit);
+    }
+
     /**
      * Get active rentals
      */
@@ -213,6 +187,35 @@ public class RentalService {
         return rentalDAO.getActiveRentals();
     }
 
+    /**
+     * Get all rentals with car, customer and staff details loaded in one query
+     */
+    public List<Rental> getRentalDetails() throws SQLException {
+        return rentalDAO.getRentalDetails(null);
+    }
+
+    /**
+     * Get rentals of one status with car, customer and staff details loaded in one query
+     */
+    public List<Rental> getRentalDetailsByStatus(String status) throws SQLException {
+        return rentalDAO.getRentalDetails(status);
+    }
+
+    /**
+     * Count rentals of one status, or all rentals if status is null
+     */
+    public int countRentals(String status) throws SQLException {
+        return rentalDAO.countRentals(status);
+    }
+
+    /**
+     * Get one window of the rental list, newest first, with car, customer
+     * and staff details. Pass null to include every status.
+     */
+    public List<Rental> getRentalDetailsWindow(String status, int offset, int limit) throws SQLException {
+        return rentalDAO.getRentalDetailsWindow(status, offset, limit);
+    }
+
     /**
      * Get rentals by status
      */
@@ -262,6 +265,59 @@ public class RentalService {
         return rentalDAO.getRevenueByStaffId(staffId);
     }
 
+    /**
+     * Rebuild the daily revenue rollup from all completed rentals, for
+     * backfilling or repairing it. Returns the number of rollup rows.
+     */
+    public int rebuildRevenueRollup() throws SQLException {
+        return rentalDAO.rebuildDailyRevenue();
+    }
+
+    /**
+     * Get rental counts and completed revenue per day, week or month for
+     * rentals starting between the two dates (inclusive), oldest first.
+     * Buckets with no rentals are included with zero values.
+     */
+    public List<RevenueBucket> getRevenueSeries(Granularity granularity, LocalDate fromDate, LocalDate toDate)
+            throws SQLException {
+        if (granularity == null || fromDate == null || toDate == null) {
+            throw new IllegalArgumentException("Granularity and date range are required");
+        }
+        if (toDate.isBefore(fromDate)) {
+            throw new IllegalArgumentException("End date must be on or after start date");
+        }
+
+        Map<LocalDate, RevenueBucket> found = new HashMap<>();
+        for (RevenueBucket bucket : rentalDAO.getRevenueSeries(granularity, fromDate, toDate)) {
+            found.put(bucket.getPeriodStart(), bucket);
+        }
+
+        List<RevenueBucket> series = new ArrayList<>();
+        for (LocalDate period = granularity.bucketStart(fromDate); !period.isAfter(toDate);
+                period = granularity.next(period)) {
+            RevenueBucket bucket = found.get(period);
+            series.add(bucket != null ? bucket : new RevenueBucket(period, 0, 0, BigDecimal.valueOf(0, 2)));
+        }
+        return series;
+    }
+
+    /**
+     * Get the series for the given number of buckets up to and including
+     * the current one, oldest first
+     */
+    public List<RevenueBucket> getRecentRevenueSeries(Granularity granularity, int periods) throws SQLException {
+        if (periods <= 0) {
+            throw new IllegalArgumentException("Number of periods must be positive");
+        }
+
+        LocalDate today = LocalDate.now();
+        LocalDate fromDate = granularity.bucketStart(today);
+        for (int i = 1; i < periods; i++) {
+            fromDate = granularity.bucketStart(fromDate.minusDays(1));
+        }
+        return getRevenueSeries(granularity, fromDate, today);
+    }
+
     /**
      * Check if car is available for rental
      */
@@ -274,14 +330,91 @@ public class RentalService {
      * Get rental statistics
      */
     public RentalStatistics getRentalStatistics() throws SQLException {
-        List<Rental> allRentals = getAllRentals();
-        List<Rental> activeRentals = getActiveRentals();
-        BigDecimal totalRevenue = getTotalRevenue();
+        SystemStatistics statistics = statisticsService.getStatistics();
 
         return new RentalStatistics(
-                allRentals.size(),
-                activeRentals.size(),
-                totalRevenue);
+                statistics.getTotalRentals(),
+                statistics.getActiveRentals(),
+                statistics.getTotalRevenue());
+    }
+
+    /**
+     * Create a rental asynchronously
+     */
+    public CompletableFuture<Boolean> createRentalAsync(int carId, int customerId, int staffId,
+            LocalDate startDate, LocalDate endDate) {
+        return AsyncTasks.supplyWrite(() -> createRental(carId, customerId, staffId, startDate, endDate));
+    }
+
+    /**
+     * Complete a rental asynchronously
+     */
+    public CompletableFuture<Boolean> completeRentalAsync(int rentalId) {
+        return AsyncTasks.supplyWrite(() -> completeRental(rentalId));
+    }
+
+    /**
+     * Get all rentals asynchronously
+     */
+    public CompletableFuture<List<Rental>> getAllRentalsAsync() {
+        return AsyncTasks.supply(() -> getAllRentals());
+    }
+
+    /**
+     * Get active rentals asynchronously
+     */
+    public CompletableFuture<List<Rental>> getActiveRentalsAsync() {
+        return AsyncTasks.supply(() -> getActiveRentals());
+    }
+
+    /**
+     * Get rentals by status asynchronously
+     */
+    public CompletableFuture<List<Rental>> getRentalsByStatusAsync(String status) {
+        return AsyncTasks.supply(() -> getRentalsByStatus(status));
+    }
+
+    /**
+     * Get rental by ID asynchronously
+     */
+    public CompletableFuture<Rental> getRentalByIdAsync(int id) {
+        return AsyncTasks.supply(() -> getRentalById(id));
+    }
+
+    /**
+     * Get total revenue asynchronously
+     */
+    public CompletableFuture<BigDecimal> getTotalRevenueAsync() {
+        return AsyncTasks.supply(() -> getTotalRevenue());
+    }
+
+    /**
+     * Get a revenue series asynchronously
+     */
+    public CompletableFuture<List<RevenueBucket>> getRevenueSeriesAsync(Granularity granularity,
+            LocalDate fromDate, LocalDate toDate) {
+        return AsyncTasks.supply(() -> getRevenueSeries(granularity, fromDate, toDate));
+    }
+
+    /**
+     * Get revenue by date range asynchronously
+     */
+    public CompletableFuture<BigDecimal> getRevenueByDateRangeAsync(LocalDate startDate, LocalDate endDate) {
+        return AsyncTasks.supply(() -> getRevenueByDateRange(startDate, endDate));
+    }
+
+    /**
+     * Get revenue for a specific staff member asynchronously
+     */
+    public CompletableFuture<BigDecimal> getRevenueByStaffIdAsync(int staffId) {
+        return AsyncTasks.supply(() -> getRevenueByStaffId(staffId));
+    }
+
+    /**
+     * Get rental statistics asynchronously
+     */
+    public CompletableFuture<RentalStatistics> getRentalStatisticsAsync() {
+        return AsyncTasks.supply(() -> getRentalStatistics());
     }
 
     /**
@@ -0,0 +1,41 @@
+package com.carrental.service;
+
+import com.carrental.dao.StatisticsDAO;
+import com.carrental.model.SystemStatistics;
+import com.carrental.util.AsyncTasks;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service class for dashboard and report statistics
+ *
+ * Counts and revenue are aggregated by the database with COUNT/SUM and
+ * GROUP BY instead of loading full lists and counting them in Java.
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+public class StatisticsService {
+
+    private StatisticsDAO statisticsDAO;
+
+    public StatisticsService() {
+        this.statisticsDAO = new StatisticsDAO();
+    }
+
+    /**
+     * Get current rental, fleet and revenue statistics
+     */
+    public SystemStatistics getStatistics() throws SQLException {
+        return statisticsDAO.getStatistics(LocalDate.now());
+    }
+
+    /**
+     * Get current statistics asynchronously
+     */
+    public CompletableFuture<SystemStatistics> getStatisticsAsync() {
+        return AsyncTasks.supply(() -> getStatistics());
+    }
+}
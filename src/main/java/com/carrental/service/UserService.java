@@ -1,21 +1,35 @@
 package com.carrental.service;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.commons.codec.digest.DigestUtils;
 
 import com.carrental.dao.UserDAO;
+import com.carrental.model.Page;
 import com.carrental.model.User;
+import com.carrental.util.AsyncTasks;
+import com.carrental.util.DatabaseConfig;
+import com.carrental.util.DatabaseManager;
+import com.carrental.util.EntityChangeEvent;
+import com.carrental.util.LruCache;
 
 /**
  * Service class for user management operations
+ *
+ * Lookups by id go through a bounded cache shared by all instances. Updates
+ * and deletes made through this service invalidate the user; changes made
+ * by other processes clear the cache.
  * 
  * @author Md Toriqul Islam
  * @version 1.0.0
  */
 public class UserService {
 
+  private static final LruCache<Integer, User> CACHE = createCache();
+
   private UserDAO userDAO;
 
   public UserService() {
@@ -62,11 +76,26 @@ public class UserService {
     return userDAO.getAllUsers();
   }
 
+  /**
+   * Get one page of users, newest first. Pass null for the first page,
+   * then the next or previous token of the page being shown.
+   */
+  public Page<User> getUsersPage(String pageToken, int pageSize) throws SQLException {
+    return userDAO.getUsersPage(pageToken, pageSize);
+  }
+
   /**
    * Get user by ID
    */
   public User getUserById(int id) throws SQLException {
-    return userDAO.getUserById(id);
+    return CACHE.get(id, userDAO::getUserById);
+  }
+
+  /**
+   * Get the users with the given IDs; missing IDs are skipped
+   */
+  public List<User> getUsersByIds(Collection<Integer> ids) throws SQLException {
+    return CACHE.getAll(ids, userDAO::getUsersByIds, User::getId);
   }
 
   /**
@@ -109,14 +138,18 @@ public class UserService {
       throw new IllegalArgumentException("Role must be ADMIN or STAFF");
     }
 
-    boolean updated = userDAO.updateUser(user);
+    try {
+      boolean updated = userDAO.updateUser(user);
 
-    // If password was updated, update it separately
-    if (updated && user.getPassword() != null && !user.getPassword().isEmpty()) {
-      userDAO.updatePassword(user.getId(), user.getPassword());
-    }
+      // If password was updated, update it separately
+      if (updated && user.getPassword() != null && !user.getPassword().isEmpty()) {
+        userDAO.updatePassword(user.getId(), user.getPassword());
+      }
 
-    return updated;
+      return updated;
+    } finally {
+      CACHE.invalidate(user.getId());
+    }
   }
 
   /**
@@ -129,12 +162,16 @@ public class UserService {
     }
 
     // Get user to check if it's admin
-    User user = userDAO.getUserById(userId);
+    User user = getUserById(userId);
     if (user != null && "ADMIN".equals(user.getRole())) {
       throw new IllegalArgumentException("Cannot delete admin user");
     }
 
-    return userDAO.deleteUser(userId);
+    try {
+      return userDAO.deleteUser(userId);
+    } finally {
+      CACHE.invalidate(userId);
+    }
   }
 
   /**
@@ -150,4 +187,74 @@ public class UserService {
   public List<User> getUsersByRole(String role) throws SQLException {
     return userDAO.getUsersByRole(role);
   }
+
+  /**
+   * Hit, miss and eviction counts of the user lookup cache
+   */
+  public static LruCache.CacheStats getCacheStats() {
+    return CACHE.getStats();
+  }
+
+  /**
+   * Drop a user from the lookup cache after writing it outside this service
+   */
+  static void invalidateCachedUser(int userId) {
+    CACHE.invalidate(userId);
+  }
+
+  private static LruCache<Integer, User> createCache() {
+    DatabaseConfig config = DatabaseManager.getConfig();
+    return new LruCache<Integer, User>("users", config.getUserCacheSize(),
+        config.getUserCacheTtlMillis(), User::new)
+        .clearOnReload(EntityChangeEvent.USERS);
+  }
+
+  /**
+   * Create a user asynchronously
+   */
+  public CompletableFuture<Boolean> createUserAsync(String username, String password, String role) {
+    return AsyncTasks.supplyWrite(() -> createUser(username, password, role));
+  }
+
+  /**
+   * Get all users asynchronously
+   */
+  public CompletableFuture<List<User>> getAllUsersAsync() {
+    return AsyncTasks.supply(() -> getAllUsers());
+  }
+
+  /**
+   * Get user by ID asynchronously
+   */
+  public CompletableFuture<User> getUserByIdAsync(int id) {
+    return AsyncTasks.supply(() -> getUserById(id));
+  }
+
+  /**
+   * Search users asynchronously
+   */
+  public CompletableFuture<List<User>> searchUsersAsync(String searchTerm) {
+    return AsyncTasks.supply(() -> searchUsers(searchTerm));
+  }
+
+  /**
+   * Update user asynchronously
+   */
+  public CompletableFuture<Boolean> updateUserAsync(User user) {
+    return AsyncTasks.supplyWrite(() -> updateUser(user));
+  }
+
+  /**
+   * Delete user asynchronously
+   */
+  public CompletableFuture<Boolean> deleteUserAsync(int userId) {
+    return AsyncTasks.supplyWrite(() -> deleteUser(userId));
+  }
+
+  /**
+   * Get users by role asynchronously
+   */
+  public CompletableFuture<List<User>> getUsersByRoleAsync(String role) {
+    return AsyncTasks.supply(() -> getUsersByRole(role));
+  }
 }
@@ -0,0 +1,154 @@
+package com.carrental.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs blocking service calls off the caller's thread and exposes them as
+ * {@link CompletableFuture}s.
+ *
+ * Every read gets a timeout, and cancelling it (or timing out) interrupts
+ * the worker thread, which aborts waits for a pooled connection or for the
+ * database writer. Cancel the future returned here rather than a dependent
+ * stage, since {@code thenApply} and friends do not propagate cancellation.
+ *
+ * Writes get neither. Interrupting a write only stops the wait for the
+ * database writer, which still commits it, so the caller would be told a
+ * committed write failed. A write can be cancelled until it starts; once
+ * started it always runs to the end and reports its real outcome.
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+public final class AsyncTasks {
+
+    private static ExecutorService executor = null;
+
+    private AsyncTasks() {
+    }
+
+    /**
+     * Run a task asynchronously with the configured default timeout
+     */
+    public static <T> CompletableFuture<T> supply(Callable<T> task) {
+        return supply(task, DatabaseManager.getConfig().getAsyncTimeoutMillis());
+    }
+
+    /**
+     * Run a task asynchronously, failing with a TimeoutException and
+     * interrupting the task if it has not finished within the timeout
+     */
+    public static <T> CompletableFuture<T> supply(Callable<T> task, long timeoutMillis) {
+        InterruptibleFuture<T> future = new InterruptibleFuture<>();
+        future.task = getExecutor().submit(() -> {
+            try {
+                future.complete(task.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t instanceof CompletionException ? t.getCause() : t);
+            }
+        });
+
+        if (timeoutMillis > 0) {
+            future.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        // Stop the worker once nobody is waiting for its result any more
+        future.whenComplete((result, error) -> {
+            if (error != null) {
+                future.task.cancel(true);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Run a database write asynchronously, with no timeout. Cancelling the
+     * future skips the write if it has not started yet; after that cancel()
+     * returns false and the future completes with the write's result.
+     */
+    public static <T> CompletableFuture<T> supplyWrite(Callable<T> task) {
+        WriteFuture<T> future = new WriteFuture<>();
+        getExecutor().execute(() -> {
+            if (!future.claim()) {
+                return; // Cancelled before it started
+            }
+            try {
+                future.complete(task.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t instanceof CompletionException ? t.getCause() : t);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Stop the worker threads, interrupting tasks still running
+     */
+    public static synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            int threads = DatabaseManager.getConfig().getAsyncThreads();
+            AtomicInteger counter = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, "service-async-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            // Idle workers exit, so an idle application holds no extra threads
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
+        }
+        return executor;
+    }
+
+    /**
+     * CompletableFuture whose cancel() also interrupts the running task
+     */
+    private static class InterruptibleFuture<T> extends CompletableFuture<T> {
+        private volatile Future<?> task;
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            Future<?> running = task;
+            if (running != null) {
+                running.cancel(true);
+            }
+            return cancelled;
+        }
+    }
+
+    /**
+     * CompletableFuture that can only be cancelled before its write starts
+     */
+    private static class WriteFuture<T> extends CompletableFuture<T> {
+        // Taken by whichever comes first: the worker starting the write or cancel()
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (!claim()) {
+                return isCancelled();
+            }
+            return super.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.carrental.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Chunked JDBC batch inserts that hand generated ids back to the rows.
+ *
+ * Rows are sent with {@code addBatch()/executeBatch()} in chunks, and the
+ * ids of a chunk are derived from one {@code last_insert_rowid()} lookup.
+ * That is only valid because inserts run on the single writer connection
+ * inside one transaction, so no other insert can interleave and an
+ * AUTOINCREMENT table hands out consecutive ids.
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+public final class BatchInsert {
+
+    private BatchInsert() {
+    }
+
+    /**
+     * Binds one row's values to the insert statement
+     */
+    @FunctionalInterface
+    public interface Binder<T> {
+        void bind(PreparedStatement pstmt, T row) throws SQLException;
+    }
+
+    /**
+     * Stores the generated id on a row
+     */
+    @FunctionalInterface
+    public interface IdSetter<T> {
+        void setId(T row, int id);
+    }
+
+    /**
+     * Insert all rows on the given connection, which must be inside a
+     * transaction on the writer connection
+     *
+     * @return number of rows inserted
+     */
+    public static <T> int insert(Connection connection, String query, List<T> rows, int chunkSize,
+            Binder<T> binder, IdSetter<T> idSetter) throws SQLException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be greater than 0");
+        }
+        if (connection.getAutoCommit()) {
+            throw new SQLException("Batch inserts must run inside a transaction");
+        }
+
+        int inserted = 0;
+        try (PreparedStatement pstmt = connection.prepareStatement(query);
+                PreparedStatement idStmt = connection.prepareStatement("SELECT last_insert_rowid()")) {
+
+            for (int start = 0; start < rows.size(); start += chunkSize) {
+                List<T> chunk = rows.subList(start, Math.min(start + chunkSize, rows.size()));
+                for (T row : chunk) {
+                    binder.bind(pstmt, row);
+                    pstmt.addBatch();
+                }
+
+                int[] counts = pstmt.executeBatch();
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] != 1) {
+                        throw new SQLException("Batch insert failed at row " + (start + i));
+                    }
+                }
+
+                try (ResultSet rs = idStmt.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new SQLException("Could not read generated ids");
+                    }
+                    int firstId = rs.getInt(1) - chunk.size() + 1;
+                    for (int i = 0; i < chunk.size(); i++) {
+                        idSetter.setId(chunk.get(i), firstId + i);
+                    }
+                }
+                inserted += chunk.size();
+            }
+        }
+
+        return inserted;
+    }
+}
@@ -0,0 +1,254 @@
+package com.carrental.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detects committed changes to the database, including those made by
+ * other processes sharing the same file.
+ *
+ * Each check runs {@code PRAGMA data_version} on a dedicated connection.
+ * SQLite bumps that value whenever another connection commits, and reading
+ * it costs no more than a shared-memory lookup, so it can be polled often.
+ * Only when it moves are the per-table counters in {@code table_versions}
+ * read, to tell listeners which tables changed.
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+public class ChangeDetector {
+
+    /**
+     * Notified with the tables that changed since the last check, each
+     * mapped to the number of rows inserted, updated or deleted. Called on
+     * the detector's thread.
+     */
+    @FunctionalInterface
+    public interface ChangeListener {
+        void tablesChanged(Map<String, Long> changes);
+    }
+
+    /**
+     * Notified with the tables whose versions were just read for the first
+     * time. Changes committed before that read are never reported as
+     * changes. Called on the detector's thread.
+     */
+    @FunctionalInterface
+    public interface BaselineListener {
+        void baselineEstablished(Set<String> tables);
+    }
+
+    private final long pollMillis;
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final List<BaselineListener> baselineListeners = new CopyOnWriteArrayList<>();
+
+    // Guarded by this
+    private final Map<String, Long> tableVersions = new HashMap<>();
+    private Connection connection;
+    private PreparedStatement dataVersionQuery;
+    private PreparedStatement tableVersionsQuery;
+    private long dataVersion = -1;
+    private ScheduledExecutorService poller;
+    private boolean stopped = false;
+
+    public ChangeDetector(long pollMillis) {
+        this.pollMillis = pollMillis;
+    }
+
+    /**
+     * Start polling in the background. Does nothing if the poll interval is 0.
+     */
+    public synchronized void start() {
+        if (poller != null || pollMillis <= 0) {
+            return;
+        }
+        stopped = false;
+
+        // The first poll only records the current versions
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-change-detector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::poll, 0, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop polling and close the dedicated connection
+     */
+    public synchronized void shutdown() {
+        stopped = true;
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+        closeConnection();
+    }
+
+    public void addListener(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    public void addBaselineListener(BaselineListener listener) {
+        baselineListeners.add(listener);
+    }
+
+    /**
+     * Last observed version of a table, or -1 if it is not tracked. A cached
+     * value read at one version is stale once this returns a higher one.
+     */
+    public synchronized long getVersion(String table) {
+        return tableVersions.getOrDefault(table, -1L);
+    }
+
+    /**
+     * Check for changes immediately, notify listeners and return the tables
+     * that changed since the previous check
+     */
+    public Set<String> checkNow() throws SQLException {
+        connectIfNeeded();
+        Map<String, Long> changed;
+        Set<String> baseline = new LinkedHashSet<>();
+        synchronized (this) {
+            changed = connection != null ? detectChanges(baseline) : Collections.emptyMap();
+        }
+        if (!baseline.isEmpty()) {
+            notifyBaselineListeners(baseline);
+        }
+        if (!changed.isEmpty()) {
+            notifyListeners(changed);
+        }
+        return changed.keySet();
+    }
+
+    private void poll() {
+        try {
+            checkNow();
+        } catch (SQLException e) {
+            System.err.println("Error checking for database changes: " + e.getMessage());
+            // Reopen on the next poll in case the connection went bad
+            synchronized (this) {
+                closeConnection();
+            }
+        }
+    }
+
+    /**
+     * Open the dedicated connection if there is none. Done without holding
+     * this lock: opening goes through DatabaseManager, whose lock is held
+     * while it shuts this detector down.
+     */
+    private void connectIfNeeded() throws SQLException {
+        synchronized (this) {
+            if (connection != null || stopped) {
+                return;
+            }
+        }
+
+        Connection opened = DatabaseManager.openConnection();
+        synchronized (this) {
+            if (connection == null && !stopped) {
+                connection = opened;
+                dataVersionQuery = connection.prepareStatement("PRAGMA data_version");
+                return;
+            }
+        }
+        // Shut down, or another caller connected first
+        opened.close();
+    }
+
+    private Map<String, Long> detectChanges(Set<String> baseline) throws SQLException {
+        if (tableVersionsQuery == null) {
+            if (!tableVersionsExists()) {
+                // Not migrated yet; versions are read once migration 4 has committed
+                return Collections.emptyMap();
+            }
+            tableVersionsQuery = connection.prepareStatement("SELECT table_name, version FROM table_versions");
+        }
+
+        long current;
+        try (ResultSet rs = dataVersionQuery.executeQuery()) {
+            current = rs.next() ? rs.getLong(1) : 0;
+        }
+        if (current == dataVersion) {
+            return Collections.emptyMap();
+        }
+        dataVersion = current;
+
+        Map<String, Long> changed = new LinkedHashMap<>();
+        try (ResultSet rs = tableVersionsQuery.executeQuery()) {
+            while (rs.next()) {
+                String table = rs.getString("table_name");
+                long version = rs.getLong("version");
+                Long previous = tableVersions.put(table, version);
+                if (previous == null) {
+                    baseline.add(table);
+                } else if (previous != version) {
+                    changed.put(table, version - previous);
+                }
+            }
+        }
+        return changed;
+    }
+
+    private boolean tableVersionsExists() throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'table_versions'");
+                ResultSet rs = pstmt.executeQuery()) {
+            return rs.next();
+        }
+    }
+
+    private void notifyBaselineListeners(Set<String> baseline) {
+        Set<String> tables = Collections.unmodifiableSet(baseline);
+        for (BaselineListener listener : baselineListeners) {
+            try {
+                listener.baselineEstablished(tables);
+            } catch (RuntimeException e) {
+                System.err.println("Error in database change listener: " + e.getMessage());
+            }
+        }
+    }
+
+    private void notifyListeners(Map<String, Long> changed) {
+        Map<String, Long> changes = Collections.unmodifiableMap(changed);
+        for (ChangeListener listener : listeners) {
+            try {
+                listener.tablesChanged(changes);
+            } catch (RuntimeException e) {
+                System.err.println("Error in database change listener: " + e.getMessage());
+            }
+        }
+    }
+
+    private void closeConnection() {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing change detector connection: " + e.getMessage());
+            }
+            connection = null;
+            dataVersionQuery = null;
+            tableVersionsQuery = null;
+            dataVersion = -1;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.carrental.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.sqlite.SQLiteCommitListener;
+import org.sqlite.SQLiteConnection;
+import org.sqlite.SQLiteUpdateListener;
+
+/**
+ * Publishes committed entity changes to subscribers.
+ *
+ * Writes made by this application are captured with SQLite's update and
+ * commit hooks on each connection, so every DAO write produces one event
+ * per changed row with its id. SQLite calls the commit hook before the
+ * commit is visible to other connections, so the events are only held
+ * there and are published by {@link #publishCommitted()} once the commit
+ * has returned.
+ * Writes made by other processes are picked up from the
+ * {@link ChangeDetector} and published as one {@link EntityChangeEvent.Type#RELOAD}
+ * event per table.
+ *
+ * Events are delivered in commit order on a single background thread;
+ * Swing subscribers should hand off to the EDT themselves.
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+public class ChangeEventBus {
+
+    /**
+     * Receives the events of one commit, filtered to the subscribed tables
+     */
+    @FunctionalInterface
+    public interface ChangeSubscriber {
+        void entitiesChanged(List<EntityChangeEvent> events);
+    }
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final List<ChangeDetector.ChangeListener> commitListeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService dispatcher;
+
+    // Rows changed by our own commits that the change detector has not seen yet, by table
+    private final Map<String, Long> unseenLocalChanges = new HashMap<>();
+
+    // Events of commits made on this thread that are not yet published
+    private final ThreadLocal<List<EntityChangeEvent>> committedEvents = ThreadLocal.withInitial(ArrayList::new);
+
+    public ChangeEventBus() {
+        this.dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "change-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Subscribe to changes in the given tables
+     */
+    public void subscribe(ChangeSubscriber subscriber, String... tables) {
+        if (tables.length == 0) {
+            throw new IllegalArgumentException("At least one table is required");
+        }
+        subscriptions.add(new Subscription(subscriber, new HashSet<>(Arrays.asList(tables))));
+    }
+
+    public void unsubscribe(ChangeSubscriber subscriber) {
+        subscriptions.removeIf(subscription -> subscription.subscriber == subscriber);
+    }
+
+    /**
+     * Notify the listener with the number of rows changed per table when
+     * one of our transactions commits, before any subscriber hears of it.
+     * It is called twice per commit on the committing thread: from SQLite's
+     * commit hook, before other connections can see the commit, and again
+     * from {@link #publishCommitted()} once they can. It must be quick and
+     * must not touch the database.
+     */
+    public void addCommitListener(ChangeDetector.ChangeListener listener) {
+        commitListeners.add(listener);
+    }
+
+    /**
+     * Install the update and commit hooks that report this connection's writes
+     */
+    public void attach(Connection connection) throws SQLException {
+        SQLiteConnection sqliteConnection = connection.unwrap(SQLiteConnection.class);
+        ConnectionHook hook = new ConnectionHook();
+        sqliteConnection.addUpdateListener(hook);
+        sqliteConnection.addCommitListener(hook);
+    }
+
+    /**
+     * Publish the events of the commits made on the calling thread. Called
+     * once a commit has returned, when its rows are visible to every
+     * connection; does nothing if the thread has no unpublished commits.
+     */
+    public void publishCommitted() {
+        List<EntityChangeEvent> events = committedEvents.get();
+        if (events.isEmpty()) {
+            return;
+        }
+        committedEvents.remove();
+        notifyCommitListeners(countByTable(events));
+        publish(events);
+    }
+
+    /**
+     * Change detector callback. A table whose counter moved by more rows
+     * than our own commits account for was also changed elsewhere.
+     */
+    public void externalChanges(Map<String, Long> changes) {
+        List<EntityChangeEvent> events = new ArrayList<>();
+        synchronized (unseenLocalChanges) {
+            for (Map.Entry<String, Long> change : changes.entrySet()) {
+                String table = change.getKey();
+                long local = unseenLocalChanges.getOrDefault(table, 0L);
+                if (change.getValue() > local) {
+                    events.add(new EntityChangeEvent(EntityChangeEvent.Type.RELOAD, table, 0));
+                }
+                // Our commits the detector has not seen yet are carried over to its next check
+                long unseen = Math.max(0, local - change.getValue());
+                if (unseen > 0) {
+                    unseenLocalChanges.put(table, unseen);
+                } else {
+                    unseenLocalChanges.remove(table);
+                }
+            }
+        }
+        publish(events);
+    }
+
+    /**
+     * Change detector callback for tables it has just started tracking. Our
+     * commits before that point are part of its baseline, so it will never
+     * report them and they must not offset later external changes.
+     */
+    public void baselineEstablished(Set<String> tables) {
+        synchronized (unseenLocalChanges) {
+            unseenLocalChanges.keySet().removeAll(tables);
+        }
+    }
+
+    /**
+     * Stop delivering events
+     */
+    public void shutdown() {
+        dispatcher.shutdownNow();
+    }
+
+    // Called from the commit hook: the commit is not visible to other connections yet
+    private void committed(List<EntityChangeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Map<String, Long> changes = countByTable(events);
+        synchronized (unseenLocalChanges) {
+            for (Map.Entry<String, Long> change : changes.entrySet()) {
+                unseenLocalChanges.merge(change.getKey(), change.getValue(), Long::sum);
+            }
+        }
+        notifyCommitListeners(changes);
+        committedEvents.get().addAll(events);
+    }
+
+    private void notifyCommitListeners(Map<String, Long> changes) {
+        for (ChangeDetector.ChangeListener listener : commitListeners) {
+            try {
+                listener.tablesChanged(changes);
+            } catch (RuntimeException e) {
+                System.err.println("Error in commit listener: " + e.getMessage());
+            }
+        }
+    }
+
+    private static Map<String, Long> countByTable(List<EntityChangeEvent> events) {
+        Map<String, Long> changes = new HashMap<>();
+        for (EntityChangeEvent event : events) {
+            changes.merge(event.getTable(), 1L, Long::sum);
+        }
+        return changes;
+    }
+
+    private void publish(List<EntityChangeEvent> events) {
+        if (events.isEmpty() || dispatcher.isShutdown()) {
+            return;
+        }
+        dispatcher.execute(() -> {
+            for (Subscription subscription : subscriptions) {
+                subscription.deliver(events);
+            }
+        });
+    }
+
+    private static class Subscription {
+        private final ChangeSubscriber subscriber;
+        private final Set<String> tables;
+
+        Subscription(ChangeSubscriber subscriber, Set<String> tables) {
+            this.subscriber = subscriber;
+            this.tables = tables;
+        }
+
+        void deliver(List<EntityChangeEvent> events) {
+            List<EntityChangeEvent> matching = new ArrayList<>();
+            for (EntityChangeEvent event : events) {
+                if (tables.contains(event.getTable())) {
+                    matching.add(event);
+                }
+            }
+            if (matching.isEmpty()) {
+                return;
+            }
+            try {
+                subscriber.entitiesChanged(matching);
+            } catch (RuntimeException e) {
+                System.err.println("Error in change event subscriber: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Buffers one connection's row changes until its transaction ends. The
+     * hooks run inside SQLite on the connection's own thread, so they must
+     * not touch the database.
+     */
+    private class ConnectionHook implements SQLiteUpdateListener, SQLiteCommitListener {
+        private List<EntityChangeEvent> pending = new ArrayList<>();
+
+        @Override
+        public void onUpdate(SQLiteUpdateListener.Type type, String database, String table, long rowId) {
+            EntityChangeEvent.Type eventType;
+            switch (type) {
+                case INSERT:
+                    eventType = EntityChangeEvent.Type.INSERT;
+                    break;
+                case DELETE:
+                    eventType = EntityChangeEvent.Type.DELETE;
+                    break;
+                default:
+                    eventType = EntityChangeEvent.Type.UPDATE;
+                    break;
+            }
+            pending.add(new EntityChangeEvent(eventType, table, (int) rowId));
+        }
+
+        @Override
+        public void onCommit() {
+            List<EntityChangeEvent> events = pending;
+            pending = new ArrayList<>();
+            committed(events);
+        }
+
+        @Override
+        public void onRollback() {
+            pending = new ArrayList<>();
+        }
+    }
+}
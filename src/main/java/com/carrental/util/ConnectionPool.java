@@ -0,0 +1,370 @@
+package com.carrental.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of SQLite connections.
+ *
+ * Connections handed out by {@link #borrow()} are proxies: calling
+ * {@code close()} returns the underlying connection to the pool instead of
+ * closing it, so DAOs can keep using try-with-resources.
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+public class ConnectionPool {
+
+    private final ConnectionFactory connectionFactory;
+    private final int maxSize;
+    private final long checkoutTimeoutMillis;
+    private final long validationIdleMillis;
+    private final int statementCacheSize;
+
+    private final BlockingDeque<PhysicalConnection> idleConnections = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private volatile boolean shutdown = false;
+
+    // Instrumentation counters
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicLong checkouts = new AtomicLong();
+    private final AtomicLong connectionsCreated = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong checkoutTimeouts = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final StatementCache.Counters statementCounters = new StatementCache.Counters();
+
+    public ConnectionPool(ConnectionFactory connectionFactory, int maxSize, long checkoutTimeoutMillis,
+            long validationIdleMillis, int statementCacheSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be greater than 0");
+        }
+        this.connectionFactory = connectionFactory;
+        this.maxSize = maxSize;
+        this.checkoutTimeoutMillis = checkoutTimeoutMillis;
+        this.validationIdleMillis = validationIdleMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Borrow a connection from the pool, waiting up to the checkout timeout
+     * if all connections are in use
+     */
+    public Connection borrow() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        long waitStart = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(checkoutTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                checkoutTimeouts.incrementAndGet();
+                throw new SQLException("Timed out after " + checkoutTimeoutMillis
+                        + " ms waiting for a database connection (pool size " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        totalWaitNanos.addAndGet(System.nanoTime() - waitStart);
+
+        try {
+            PhysicalConnection physical = takeIdleConnection();
+            if (physical == null) {
+                physical = openConnection();
+            }
+            checkouts.incrementAndGet();
+            return wrap(physical);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Close all idle connections and reject further checkouts. Connections
+     * that are still borrowed are closed when they are returned.
+     */
+    public void shutdown() {
+        shutdown = true;
+        PhysicalConnection idle;
+        while ((idle = idleConnections.pollFirst()) != null) {
+            closeQuietly(idle);
+        }
+    }
+
+    /**
+     * Get a snapshot of the pool counters
+     */
+    public PoolStats getStats() {
+        return new PoolStats(
+                maxSize,
+                openConnections.get(),
+                idleConnections.size(),
+                maxSize - permits.availablePermits(),
+                checkouts.get(),
+                connectionsCreated.get(),
+                validationFailures.get(),
+                checkoutTimeouts.get(),
+                TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get()),
+                statementCounters.getHits(),
+                statementCounters.getMisses(),
+                statementCounters.getEvictions());
+    }
+
+    /**
+     * Take the most recently used idle connection, validating it first if it
+     * has been idle for longer than the validation threshold
+     */
+    private PhysicalConnection takeIdleConnection() {
+        PhysicalConnection idle;
+        while ((idle = idleConnections.pollFirst()) != null) {
+            long idleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - idle.idleSince);
+            if (idleMillis < validationIdleMillis || isUsable(idle.connection)) {
+                return idle;
+            }
+            validationFailures.incrementAndGet();
+            closeQuietly(idle);
+        }
+        return null;
+    }
+
+    private PhysicalConnection openConnection() throws SQLException {
+        Connection connection = connectionFactory.open();
+        openConnections.incrementAndGet();
+        connectionsCreated.incrementAndGet();
+        return new PhysicalConnection(connection,
+                new StatementCache(connection, statementCacheSize, statementCounters));
+    }
+
+    /**
+     * Return a physical connection to the pool after its proxy was closed
+     */
+    private void release(PhysicalConnection physical) {
+        try {
+            Connection connection = physical.connection;
+            boolean reusable = !shutdown && !connection.isClosed();
+            if (reusable && !connection.getAutoCommit()) {
+                // Never hand out a connection with a transaction left open
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            if (reusable) {
+                physical.idleSince = System.nanoTime();
+                idleConnections.offerFirst(physical);
+            } else {
+                closeQuietly(physical);
+            }
+        } catch (SQLException e) {
+            System.err.println("Discarding pooled connection: " + e.getMessage());
+            closeQuietly(physical);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean isUsable(Connection connection) {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("SELECT 1");
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void closeQuietly(PhysicalConnection physical) {
+        try {
+            physical.statementCache.closeAll();
+            if (!physical.connection.isClosed()) {
+                physical.connection.close();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        } finally {
+            openConnections.decrementAndGet();
+        }
+    }
+
+    private Connection wrap(PhysicalConnection physical) {
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new PooledConnectionHandler(physical));
+    }
+
+    /**
+     * Invocation handler that turns close() into a return to the pool and
+     * serves prepareStatement(String) from the connection's statement cache
+     */
+    private class PooledConnectionHandler implements InvocationHandler {
+        private final PhysicalConnection physical;
+        private boolean closed = false;
+
+        PooledConnectionHandler(PhysicalConnection physical) {
+            this.physical = physical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(physical);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || physical.connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical.connection + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+
+            if ("prepareStatement".equals(method.getName()) && args.length == 1) {
+                return physical.statementCache.prepare((String) args[0]);
+            }
+
+            try {
+                return method.invoke(physical.connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Opens new physical connections for the pool
+     */
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    /**
+     * Physical connection with its statement cache and the time it was last returned
+     */
+    private static class PhysicalConnection {
+        private final Connection connection;
+        private final StatementCache statementCache;
+        private long idleSince;
+
+        PhysicalConnection(Connection connection, StatementCache statementCache) {
+            this.connection = connection;
+            this.statementCache = statementCache;
+        }
+    }
+
+    /**
+     * Inner class for pool statistics
+     */
+    public static class PoolStats {
+        private final int maxSize;
+        private final int openConnections;
+        private final int idleConnections;
+        private final int activeConnections;
+        private final long checkouts;
+        private final long connectionsCreated;
+        private final long validationFailures;
+        private final long checkoutTimeouts;
+        private final long totalWaitMillis;
+        private final long statementCacheHits;
+        private final long statementCacheMisses;
+        private final long statementCacheEvictions;
+
+        public PoolStats(int maxSize, int openConnections, int idleConnections, int activeConnections,
+                long checkouts, long connectionsCreated, long validationFailures, long checkoutTimeouts,
+                long totalWaitMillis, long statementCacheHits, long statementCacheMisses,
+                long statementCacheEvictions) {
+            this.maxSize = maxSize;
+            this.openConnections = openConnections;
+            this.idleConnections = idleConnections;
+            this.activeConnections = activeConnections;
+            this.checkouts = checkouts;
+            this.connectionsCreated = connectionsCreated;
+            this.validationFailures = validationFailures;
+            this.checkoutTimeouts = checkoutTimeouts;
+            this.totalWaitMillis = totalWaitMillis;
+            this.statementCacheHits = statementCacheHits;
+            this.statementCacheMisses = statementCacheMisses;
+            this.statementCacheEvictions = statementCacheEvictions;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public int getOpenConnections() {
+            return openConnections;
+        }
+
+        public int getIdleConnections() {
+            return idleConnections;
+        }
+
+        public int getActiveConnections() {
+            return activeConnections;
+        }
+
+        public long getCheckouts() {
+            return checkouts;
+        }
+
+        public long getConnectionsCreated() {
+            return connectionsCreated;
+        }
+
+        public long getValidationFailures() {
+            return validationFailures;
+        }
+
+        public long getCheckoutTimeouts() {
+            return checkoutTimeouts;
+        }
+
+        public long getTotalWaitMillis() {
+            return totalWaitMillis;
+        }
+
+        public long getStatementCacheHits() {
+            return statementCacheHits;
+        }
+
+        public long getStatementCacheMisses() {
+            return statementCacheMisses;
+        }
+
+        public long getStatementCacheEvictions() {
+            return statementCacheEvictions;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "PoolStats[max=%d, open=%d, idle=%d, active=%d, checkouts=%d, created=%d, invalid=%d, timeouts=%d, waitMs=%d, "
+                            + "stmtHits=%d, stmtMisses=%d, stmtEvictions=%d]",
+                    maxSize, openConnections, idleConnections, activeConnections, checkouts,
+                    connectionsCreated, validationFailures, checkoutTimeouts, totalWaitMillis,
+                    statementCacheHits, statementCacheMisses, statementCacheEvictions);
+        }
+    }
+}
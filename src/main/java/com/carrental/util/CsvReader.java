@@ -0,0 +1,117 @@
+package com.carrental.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader for RFC 4180 style CSV.
+ *
+ * Records are parsed one at a time straight from the underlying reader, so
+ * memory use does not depend on the file size. Quoted fields may contain
+ * commas, doubled quotes and line breaks.
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+public class CsvReader implements Closeable {
+
+    private final BufferedReader reader;
+    private final StringBuilder field = new StringBuilder();
+    private long lineNumber = 1;
+    private long recordLineNumber = 0;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    }
+
+    /**
+     * Read the next record
+     *
+     * @return the record's fields, or null at end of input
+     */
+    public List<String> readRecord() throws IOException {
+        int c = reader.read();
+        // Skip blank lines between records
+        while (c == '\r' || c == '\n') {
+            skipLineBreak(c);
+            c = reader.read();
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        recordLineNumber = lineNumber;
+        List<String> fields = new ArrayList<>();
+        boolean quoted = false;
+        boolean fieldStart = true;
+        field.setLength(0);
+
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field starting on line " + recordLineNumber);
+                }
+                if (c == '"') {
+                    c = reader.read();
+                    if (c == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+                fieldStart = false;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStart = true;
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                fields.add(field.toString());
+                if (c != -1) {
+                    skipLineBreak(c);
+                }
+                return fields;
+            } else {
+                field.append((char) c);
+                fieldStart = false;
+            }
+            c = reader.read();
+        }
+    }
+
+    /**
+     * Line on which the most recently read record started, 1-based
+     */
+    public long getRecordLineNumber() {
+        return recordLineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Consume the rest of a line break that started with c
+     */
+    private void skipLineBreak(int c) throws IOException {
+        lineNumber++;
+        if (c == '\r') {
+            reader.mark(1);
+            if (reader.read() != '\n') {
+                reader.reset();
+            }
+        }
+    }
+}
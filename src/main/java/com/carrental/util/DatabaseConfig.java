@@ -0,0 +1,338 @@
+package com.carrental.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * External database configuration: database location, pool settings and
+ * named SQLite tuning profiles.
+ *
+ * Settings are read from the file named by the {@code carrental.config}
+ * system property, or from {@code config/carrental.properties} if present.
+ * Any key can also be overridden with a system property of the same name
+ * prefixed by {@code carrental.}, e.g. {@code -Dcarrental.db.profile=performance}.
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+public class DatabaseConfig {
+
+    private static final String CONFIG_PROPERTY = "carrental.config";
+    private static final String DEFAULT_CONFIG_FILE = "config/carrental.properties";
+    private static final String DEFAULT_DB_PATH = "src/main/resources/database/carrental.db";
+    private static final String DEFAULT_PROFILE = "balanced";
+
+    private static final List<String> JOURNAL_MODES = Arrays.asList("DELETE", "TRUNCATE", "PERSIST", "MEMORY", "WAL",
+            "OFF");
+    private static final List<String> SYNCHRONOUS_LEVELS = Arrays.asList("OFF", "NORMAL", "FULL", "EXTRA");
+    private static final List<String> TEMP_STORES = Arrays.asList("DEFAULT", "FILE", "MEMORY");
+
+    private static final Map<String, TuningProfile> BUILT_IN_PROFILES = new HashMap<>();
+
+    static {
+        // Safe general-purpose settings: WAL lets readers run alongside the writer
+        BUILT_IN_PROFILES.put("balanced", new TuningProfile("balanced", "WAL", "NORMAL", 0L, -8192L, "DEFAULT", 5000L));
+        // Large page cache and memory-mapped reads for a DB on fast local storage
+        BUILT_IN_PROFILES.put("performance",
+                new TuningProfile("performance", "WAL", "NORMAL", 268435456L, -65536L, "MEMORY", 5000L));
+        // Maximum durability, e.g. for a DB on a network share where WAL is not safe
+        BUILT_IN_PROFILES.put("durable", new TuningProfile("durable", "DELETE", "FULL", 0L, -2000L, "DEFAULT", 10000L));
+    }
+
+    private final Properties properties;
+
+    private DatabaseConfig(Properties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Load configuration from the external config file, if any
+     */
+    public static DatabaseConfig load() {
+        Properties properties = new Properties();
+        String configPath = System.getProperty(CONFIG_PROPERTY);
+        File configFile = new File(configPath != null ? configPath : DEFAULT_CONFIG_FILE);
+
+        if (configFile.isFile()) {
+            try (InputStream in = new FileInputStream(configFile)) {
+                properties.load(in);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read database config " + configFile + ": " + e.getMessage(), e);
+            }
+        } else if (configPath != null) {
+            throw new IllegalStateException("Database config file not found: " + configFile);
+        }
+
+        return new DatabaseConfig(properties);
+    }
+
+    /**
+     * Get the database file path
+     */
+    public String getDatabasePath() {
+        return get("db.path", DEFAULT_DB_PATH);
+    }
+
+    /**
+     * Get the JDBC URL for the database file
+     */
+    public String getJdbcUrl() {
+        return "jdbc:sqlite:" + getDatabasePath();
+    }
+
+    public int getPoolSize() {
+        return (int) getLong("pool.size", 4);
+    }
+
+    public long getCheckoutTimeoutMillis() {
+        return getLong("pool.checkoutTimeoutMs", 10_000L);
+    }
+
+    public long getValidationIdleMillis() {
+        return getLong("pool.validationIdleMs", 30_000L);
+    }
+
+    /**
+     * Number of prepared statements cached per connection, 0 disables caching
+     */
+    public int getStatementCacheSize() {
+        return (int) getLong("pool.statementCacheSize", 64);
+    }
+
+    /**
+     * Rows sent per JDBC batch by the bulk insert methods
+     */
+    public int getBatchSize() {
+        return (int) getLong("batch.size", 500);
+    }
+
+    /**
+     * Rows fetched per cursor step by streaming exports
+     */
+    public int getExportFetchSize() {
+        return (int) getLong("export.fetchSize", 1000);
+    }
+
+    /**
+     * Size in bytes of the write buffer used by streaming exports
+     */
+    public int getExportBufferSize() {
+        return (int) getLong("export.bufferSize", 65536);
+    }
+
+    /**
+     * Number of worker threads for asynchronous service calls
+     */
+    public int getAsyncThreads() {
+        return (int) getLong("async.threads", 8);
+    }
+
+    /**
+     * Default timeout for asynchronous service calls, 0 waits forever
+     */
+    public long getAsyncTimeoutMillis() {
+        return getLong("async.timeoutMs", 30_000L);
+    }
+
+    /**
+     * Interval between background dashboard refreshes, 0 refreshes only on demand
+     */
+    public int getDashboardRefreshMillis() {
+        return (int) getLong("dashboard.refreshMs", 30_000L);
+    }
+
+    /**
+     * Interval between checks for changes made by other connections or
+     * processes, 0 disables change detection
+     */
+    public long getChangePollMillis() {
+        return getLong("changes.pollMs", 250L);
+    }
+
+    /**
+     * Maximum number of customers kept by the customer lookup cache
+     */
+    public int getCustomerCacheSize() {
+        return (int) getLong("cache.customers.size", 1000);
+    }
+
+    /**
+     * How long a cached customer stays valid, 0 until evicted or changed
+     */
+    public long getCustomerCacheTtlMillis() {
+        return getLong("cache.customers.ttlMs", 0L);
+    }
+
+    /**
+     * Maximum number of users kept by the user lookup cache
+     */
+    public int getUserCacheSize() {
+        return (int) getLong("cache.users.size", 100);
+    }
+
+    /**
+     * How long a cached user stays valid, 0 until evicted or changed
+     */
+    public long getUserCacheTtlMillis() {
+        return getLong("cache.users.ttlMs", 0L);
+    }
+
+    /**
+     * Number of query results kept by the query cache, 0 disables it
+     */
+    public int getQueryCacheSize() {
+        return (int) getLong("cache.queries.size", 200);
+    }
+
+    /**
+     * Largest query result, in rows, the query cache keeps
+     */
+    public int getQueryCacheMaxRows() {
+        return (int) getLong("cache.queries.maxRows", 10_000);
+    }
+
+    /**
+     * Resolve the active tuning profile. Values given as
+     * {@code profile.<name>.<setting>} override the built-in profile of the
+     * same name, or define a new profile on top of the default one.
+     */
+    public TuningProfile getTuningProfile() {
+        String name = get("db.profile", DEFAULT_PROFILE).trim().toLowerCase(Locale.ROOT);
+        TuningProfile base = BUILT_IN_PROFILES.getOrDefault(name, BUILT_IN_PROFILES.get(DEFAULT_PROFILE));
+        String prefix = "profile." + name + ".";
+
+        if (!BUILT_IN_PROFILES.containsKey(name) && !hasKeyWithPrefix(prefix)) {
+            throw new IllegalArgumentException("Unknown database tuning profile: " + name);
+        }
+
+        return new TuningProfile(
+                name,
+                choice(prefix + "journal_mode", base.journalMode, JOURNAL_MODES),
+                choice(prefix + "synchronous", base.synchronous, SYNCHRONOUS_LEVELS),
+                getLong(prefix + "mmap_size", base.mmapSize),
+                getLong(prefix + "cache_size", base.cacheSize),
+                choice(prefix + "temp_store", base.tempStore, TEMP_STORES),
+                getLong(prefix + "busy_timeout", base.busyTimeout));
+    }
+
+    private String get(String key, String defaultValue) {
+        String value = System.getProperty("carrental." + key);
+        if (value == null) {
+            value = properties.getProperty(key);
+        }
+        return value != null && !value.trim().isEmpty() ? value.trim() : defaultValue;
+    }
+
+    private long getLong(String key, long defaultValue) {
+        String value = get(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + key + ": " + value);
+        }
+    }
+
+    private String choice(String key, String defaultValue, List<String> allowed) {
+        String value = get(key, defaultValue).toUpperCase(Locale.ROOT);
+        if (!allowed.contains(value)) {
+            throw new IllegalArgumentException("Invalid value for " + key + ": " + value + ". Must be one of " + allowed);
+        }
+        return value;
+    }
+
+    private boolean hasKeyWithPrefix(String prefix) {
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Named set of SQLite pragmas applied to every connection when it is opened
+     */
+    public static class TuningProfile {
+        private final String name;
+        private final String journalMode;
+        private final String synchronous;
+        private final long mmapSize;
+        private final long cacheSize;
+        private final String tempStore;
+        private final long busyTimeout;
+
+        public TuningProfile(String name, String journalMode, String synchronous, long mmapSize, long cacheSize,
+                String tempStore, long busyTimeout) {
+            this.name = name;
+            this.journalMode = journalMode;
+            this.synchronous = synchronous;
+            this.mmapSize = mmapSize;
+            this.cacheSize = cacheSize;
+            this.tempStore = tempStore;
+            this.busyTimeout = busyTimeout;
+        }
+
+        /**
+         * Apply the profile's pragmas to a freshly opened connection
+         */
+        public void apply(Connection connection) throws SQLException {
+            try (Statement stmt = connection.createStatement()) {
+                // busy_timeout first so the journal mode switch can wait for other connections
+                stmt.execute("PRAGMA busy_timeout = " + busyTimeout);
+                stmt.execute("PRAGMA journal_mode = " + journalMode);
+                stmt.execute("PRAGMA synchronous = " + synchronous);
+                stmt.execute("PRAGMA mmap_size = " + mmapSize);
+                stmt.execute("PRAGMA cache_size = " + cacheSize);
+                stmt.execute("PRAGMA temp_store = " + tempStore);
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getJournalMode() {
+            return journalMode;
+        }
+
+        public String getSynchronous() {
+            return synchronous;
+        }
+
+        public long getMmapSize() {
+            return mmapSize;
+        }
+
+        public long getCacheSize() {
+            return cacheSize;
+        }
+
+        public String getTempStore() {
+            return tempStore;
+        }
+
+        public long getBusyTimeout() {
+            return busyTimeout;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s (journal_mode=%s, synchronous=%s, mmap_size=%d, cache_size=%d, temp_store=%s, busy_timeout=%d)",
+                    name, journalMode, synchronous, mmapSize, cacheSize, tempStore, busyTimeout);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.carrental.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single-writer / multi-reader execution model for SQLite.
+ *
+ * All mutating work is queued to one writer thread that owns the only
+ * write connection, so writes never contend for SQLite's write lock and
+ * never see SQLITE_BUSY from each other. Queries run on a separate reader
+ * pool; with WAL enabled they proceed while a write is in progress.
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+public class DatabaseExecutor {
+
+    /**
+     * Unit of database work run against a connection
+     */
+    @FunctionalInterface
+    public interface SqlWork<T> {
+        T execute(Connection connection) throws SQLException;
+    }
+
+    private final ConnectionPool writerPool;
+    private final ConnectionPool readerPool;
+    private final ExecutorService writerThread;
+    private final ExecutorService readerThreads;
+
+    // Run on the writer thread once its writes are visible to other connections
+    private final Runnable afterWritesVisible;
+
+    // Connection held by the writer thread while it runs a task, for nested writes
+    private final ThreadLocal<Connection> currentWriteConnection = new ThreadLocal<>();
+
+    // Callbacks for the end of the transaction the writer thread is running
+    private final ThreadLocal<List<TransactionCallback>> transactionCallbacks = new ThreadLocal<>();
+
+    /**
+     * @param afterWritesVisible run on the writer thread after each
+     *                           transaction commits and after each
+     *                           auto-commit write completes
+     */
+    public DatabaseExecutor(ConnectionPool writerPool, ConnectionPool readerPool, int readerThreadCount,
+            Runnable afterWritesVisible) {
+        this.writerPool = writerPool;
+        this.readerPool = readerPool;
+        this.afterWritesVisible = afterWritesVisible;
+        this.writerThread = Executors.newSingleThreadExecutor(namedDaemonThreads("db-writer"));
+        this.readerThreads = Executors.newFixedThreadPool(readerThreadCount, namedDaemonThreads("db-reader"));
+    }
+
+    /**
+     * Queue mutating work on the writer thread
+     */
+    public <T> CompletableFuture<T> submitWrite(SqlWork<T> work) {
+        if (isWriterThread()) {
+            // Already on the writer: queuing would deadlock, run it in place
+            return runNow(() -> executeOnWriter(work));
+        }
+        return CompletableFuture.supplyAsync(() -> unchecked(() -> executeOnWriter(work)), writerThread);
+    }
+
+    /**
+     * Queue work on the writer thread inside a single transaction that is
+     * committed if the work returns normally and rolled back otherwise
+     */
+    public <T> CompletableFuture<T> submitTransaction(SqlWork<T> work) {
+        return submitWrite(connection -> runInTransaction(connection, work));
+    }
+
+    /**
+     * Queue a query on the reader pool
+     */
+    public <T> CompletableFuture<T> submitRead(SqlWork<T> work) {
+        return CompletableFuture.supplyAsync(() -> unchecked(() -> {
+            try (Connection connection = readerPool.borrow()) {
+                return work.execute(connection);
+            }
+        }), readerThreads);
+    }
+
+    /**
+     * Run mutating work on the writer thread and wait for the result
+     */
+    public <T> T write(SqlWork<T> work) throws SQLException {
+        return await(submitWrite(work));
+    }
+
+    /**
+     * Run work in a writer transaction and wait for the result
+     */
+    public <T> T transaction(SqlWork<T> work) throws SQLException {
+        return await(submitTransaction(work));
+    }
+
+    /**
+     * Run a callback once the writer transaction on the given connection
+     * ends. A connection in auto-commit mode has already committed its last
+     * statement, so the commit callback runs at once. The rollback callback
+     * may be null.
+     */
+    public void onTransactionEnd(Connection connection, Runnable afterCommit, Runnable afterRollback)
+            throws SQLException {
+        if (connection.getAutoCommit()) {
+            afterCommit.run();
+            return;
+        }
+
+        List<TransactionCallback> callbacks = transactionCallbacks.get();
+        if (callbacks == null) {
+            throw new IllegalStateException("Connection is not in a writer transaction");
+        }
+        callbacks.add(new TransactionCallback(afterCommit, afterRollback));
+    }
+
+    /**
+     * Stop accepting work, let queued writes finish and release connections
+     */
+    public void shutdown() {
+        readerThreads.shutdown();
+        writerThread.shutdown();
+        try {
+            if (!writerThread.awaitTermination(10, TimeUnit.SECONDS)) {
+                System.err.println("Pending database writes did not finish before shutdown");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writerPool.shutdown();
+    }
+
+    /**
+     * Wait for a future and rethrow database failures as SQLException
+     */
+    public static <T> T await(CompletableFuture<T> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for database work", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new SQLException(cause.getMessage(), cause);
+        }
+    }
+
+    private boolean isWriterThread() {
+        return currentWriteConnection.get() != null;
+    }
+
+    private <T> T executeOnWriter(SqlWork<T> work) throws SQLException {
+        Connection nested = currentWriteConnection.get();
+        if (nested != null) {
+            return work.execute(nested);
+        }
+
+        try (Connection connection = writerPool.borrow()) {
+            currentWriteConnection.set(connection);
+            try {
+                return work.execute(connection);
+            } finally {
+                currentWriteConnection.remove();
+                // Auto-commit statements committed as they ran, even if a later one failed
+                afterWritesVisible.run();
+            }
+        }
+    }
+
+    private <T> T runInTransaction(Connection connection, SqlWork<T> work) throws SQLException {
+        if (!connection.getAutoCommit()) {
+            // Nested inside an outer transaction: join it
+            return work.execute(connection);
+        }
+
+        List<TransactionCallback> callbacks = new ArrayList<>();
+        transactionCallbacks.set(callbacks);
+        connection.setAutoCommit(false);
+        T result;
+        try {
+            result = work.execute(connection);
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            try {
+                connection.rollback();
+            } catch (SQLException rollbackEx) {
+                System.err.println("Error rolling back transaction: " + rollbackEx.getMessage());
+            }
+            for (TransactionCallback callback : callbacks) {
+                if (callback.afterRollback != null) {
+                    callback.afterRollback.run();
+                }
+            }
+            throw e;
+        } finally {
+            transactionCallbacks.remove();
+            connection.setAutoCommit(true);
+        }
+
+        for (TransactionCallback callback : callbacks) {
+            callback.afterCommit.run();
+        }
+        afterWritesVisible.run();
+        return result;
+    }
+
+    private static class TransactionCallback {
+        private final Runnable afterCommit;
+        private final Runnable afterRollback;
+
+        TransactionCallback(Runnable afterCommit, Runnable afterRollback) {
+            this.afterCommit = afterCommit;
+            this.afterRollback = afterRollback;
+        }
+    }
+
+    private static <T> CompletableFuture<T> runNow(SqlCallable<T> callable) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            future.complete(callable.call());
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        }
+        return future;
+    }
+
+    private static <T> T unchecked(SqlCallable<T> callable) {
+        try {
+            return callable.call();
+        } catch (SQLException e) {
+            // Unwrapped again by await()
+            throw new CompletionException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlCallable<T> {
+        T call() throws SQLException;
+    }
+
+    private static ThreadFactory namedDaemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -18,9 +18,12 @@ import org.apache.commons.codec.digest.DigestUtils;
  */
 public class DatabaseManager {
 
-    private static final String DB_URL = "jdbc:sqlite:src/main/resources/database/carrental.db";
-    private static final String DB_DIR = "src/main/resources/database";
-    private static Connection connection = null;
+    private static DatabaseConfig config = null;
+    private static ConnectionPool pool = null;
+    private static DatabaseExecutor executor = null;
+    private static ChangeDetector changeDetector = null;
+    private static ChangeEventBus eventBus = null;
+    private static QueryCache queryCache = null;
 
     /**
      * Initialize the database and create tables if they don't exist
@@ -33,114 +36,196 @@ public class DatabaseManager {
             throw new SQLException("SQLite JDBC driver not found", e);
         }
 
+        DatabaseConfig databaseConfig = getConfig();
+        System.out.println("Using database " + databaseConfig.getDatabasePath()
+                + " with tuning profile " + databaseConfig.getTuningProfile());
+
         // Create database directory if it doesn't exist
-        File dbDir = new File(DB_DIR);
-        if (!dbDir.exists()) {
+        File dbDir = new File(databaseConfig.getDatabasePath()).getAbsoluteFile().getParentFile();
+        if (dbDir != null && !dbDir.exists()) {
             dbDir.mkdirs();
         }
 
-        // Create connection
-        connection = DriverManager.getConnection(DB_URL);
-
-        // Create tables
-        createTables();
+        executeWrite(connection -> {
+            // Create or upgrade the schema
+            SchemaMigrator.migrate(connection);
 
-        // Insert default data if tables are empty
-        insertDefaultData();
+            // Insert default data if tables are empty
+            insertDefaultData(connection);
+            return null;
+        });
     }
 
     /**
-     * Get database connection
+     * Borrow a connection from the pool. Closing the returned connection
+     * hands it back to the pool.
      */
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            connection = DriverManager.getConnection(DB_URL);
+        return getPool().borrow();
+    }
+
+    /**
+     * Run mutating work on the single writer connection and wait for it.
+     * All inserts, updates and deletes go through here so SQLite only ever
+     * sees one writer.
+     */
+    public static <T> T executeWrite(DatabaseExecutor.SqlWork<T> work) throws SQLException {
+        return getExecutor().write(work);
+    }
+
+    /**
+     * Run work as one transaction on the writer connection and wait for it
+     */
+    public static <T> T executeInTransaction(DatabaseExecutor.SqlWork<T> work) throws SQLException {
+        return getExecutor().transaction(work);
+    }
+
+    /**
+     * Run a callback after the writer transaction on the given connection
+     * commits, or another if it rolls back. In auto-commit mode the write
+     * has already committed and the commit callback runs at once.
+     */
+    public static void onTransactionEnd(Connection connection, Runnable afterCommit, Runnable afterRollback)
+            throws SQLException {
+        getExecutor().onTransactionEnd(connection, afterCommit, afterRollback);
+    }
+
+    /**
+     * Run a callback after the writer transaction on the given connection
+     * commits; nothing runs if it rolls back
+     */
+    public static void afterCommit(Connection connection, Runnable afterCommit) throws SQLException {
+        getExecutor().onTransactionEnd(connection, afterCommit, null);
+    }
+
+    /**
+     * Get the writer/reader executor for asynchronous database work
+     */
+    public static synchronized DatabaseExecutor getExecutor() {
+        if (executor == null) {
+            DatabaseConfig databaseConfig = getConfig();
+            ConnectionPool writerPool = new ConnectionPool(DatabaseManager::openConnection, 1,
+                    databaseConfig.getCheckoutTimeoutMillis(), databaseConfig.getValidationIdleMillis(),
+                    databaseConfig.getStatementCacheSize());
+            // Change events are published only once other connections can see the commit
+            executor = new DatabaseExecutor(writerPool, getPool(), databaseConfig.getPoolSize(),
+                    getEventBus()::publishCommitted);
         }
-        return connection;
+        return executor;
     }
 
     /**
-     * Close database connection
+     * Get the change detector, starting it on first use
      */
-    public static void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
-        } catch (SQLException e) {
-            System.err.println("Error closing database connection: " + e.getMessage());
+    public static synchronized ChangeDetector getChangeDetector() {
+        if (changeDetector == null) {
+            changeDetector = new ChangeDetector(getConfig().getChangePollMillis());
+            changeDetector.start();
+        }
+        return changeDetector;
+    }
+
+    /**
+     * Get the bus that publishes committed entity changes, both our own and
+     * those the change detector sees from other processes
+     */
+    public static synchronized ChangeEventBus getEventBus() {
+        if (eventBus == null) {
+            eventBus = new ChangeEventBus();
+            getChangeDetector().addBaselineListener(eventBus::baselineEstablished);
+            getChangeDetector().addListener(eventBus::externalChanges);
         }
+        return eventBus;
     }
 
     /**
-     * Create all necessary tables
-     */
-    private static void createTables() throws SQLException {
-        String[] createTableQueries = {
-                // Users table
-                """
-                        CREATE TABLE IF NOT EXISTS users (
-                            id INTEGER PRIMARY KEY AUTOINCREMENT,
-                            username VARCHAR(50) UNIQUE NOT NULL,
-                            password VARCHAR(255) NOT NULL,
-                            role VARCHAR(20) NOT NULL CHECK (role IN ('ADMIN', 'STAFF')),
-                            created_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-                        )
-                        """,
-
-                // Cars table
-                """
-                        CREATE TABLE IF NOT EXISTS cars (
-                            id INTEGER PRIMARY KEY AUTOINCREMENT,
-                            make VARCHAR(50) NOT NULL,
-                            model VARCHAR(50) NOT NULL,
-                            year INTEGER NOT NULL,
-                            license_plate VARCHAR(20) UNIQUE NOT NULL,
-                            color VARCHAR(30) NOT NULL,
-                            status VARCHAR(20) NOT NULL DEFAULT 'AVAILABLE'
-                                CHECK (status IN ('AVAILABLE', 'RENTED', 'MAINTENANCE')),
-                            daily_rate DECIMAL(10,2) NOT NULL,
-                            created_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-                        )
-                        """,
-
-                // Customers table
-                """
-                        CREATE TABLE IF NOT EXISTS customers (
-                            id INTEGER PRIMARY KEY AUTOINCREMENT,
-                            name VARCHAR(100) NOT NULL,
-                            email VARCHAR(100) UNIQUE NOT NULL,
-                            phone VARCHAR(20) NOT NULL,
-                            address TEXT NOT NULL,
-                            created_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-                        )
-                        """,
-
-                // Rentals table
-                """
-                        CREATE TABLE IF NOT EXISTS rentals (
-                            id INTEGER PRIMARY KEY AUTOINCREMENT,
-                            car_id INTEGER NOT NULL,
-                            customer_id INTEGER NOT NULL,
-                            staff_id INTEGER NOT NULL,
-                            start_date DATE NOT NULL,
-                            end_date DATE NOT NULL,
-                            total_cost DECIMAL(10,2) NOT NULL,
-                            status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE'
-                                CHECK (status IN ('ACTIVE', 'COMPLETED', 'CANCELLED')),
-                            created_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                            FOREIGN KEY (car_id) REFERENCES cars(id),
-                            FOREIGN KEY (customer_id) REFERENCES customers(id),
-                            FOREIGN KEY (staff_id) REFERENCES users(id)
-                        )
-                        """
-        };
-
-        try (Statement stmt = connection.createStatement()) {
-            for (String query : createTableQueries) {
-                stmt.execute(query);
+     * Get the cache of query results shared by the DAOs. It relies on change
+     * detection to notice writes, so it is disabled when that is turned off.
+     */
+    public static synchronized QueryCache getQueryCache() {
+        if (queryCache == null) {
+            DatabaseConfig databaseConfig = getConfig();
+            if (databaseConfig.getChangePollMillis() > 0) {
+                queryCache = new QueryCache(databaseConfig.getQueryCacheSize(),
+                        databaseConfig.getQueryCacheMaxRows());
+                getEventBus().addCommitListener(queryCache::tablesChanged);
+                getChangeDetector().addListener(queryCache::tablesChanged);
+            } else {
+                queryCache = new QueryCache(0, 0);
             }
         }
+        return queryCache;
+    }
+
+    /**
+     * Shut down the change detector, the event bus, the async workers, the
+     * executor and the connection pool
+     */
+    public static synchronized void closeConnection() {
+        if (changeDetector != null) {
+            changeDetector.shutdown();
+            changeDetector = null;
+        }
+        if (eventBus != null) {
+            eventBus.shutdown();
+            eventBus = null;
+        }
+        queryCache = null;
+        AsyncTasks.shutdown();
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    /**
+     * Get connection pool statistics
+     */
+    public static ConnectionPool.PoolStats getPoolStats() {
+        return getPool().getStats();
+    }
+
+    /**
+     * Get the database configuration, loading it on first use
+     */
+    public static synchronized DatabaseConfig getConfig() {
+        if (config == null) {
+            config = DatabaseConfig.load();
+        }
+        return config;
+    }
+
+    private static synchronized ConnectionPool getPool() {
+        if (pool == null) {
+            DatabaseConfig databaseConfig = getConfig();
+            pool = new ConnectionPool(DatabaseManager::openConnection, databaseConfig.getPoolSize(),
+                    databaseConfig.getCheckoutTimeoutMillis(), databaseConfig.getValidationIdleMillis(),
+                    databaseConfig.getStatementCacheSize());
+        }
+        return pool;
+    }
+
+    /**
+     * Open a new physical connection with the configured tuning profile
+     * applied. Used by the pools and by components that need a connection
+     * of their own.
+     */
+    static Connection openConnection() throws SQLException {
+        DatabaseConfig databaseConfig = getConfig();
+        Connection connection = DriverManager.getConnection(databaseConfig.getJdbcUrl());
+        try {
+            databaseConfig.getTuningProfile().apply(connection);
+            // Report every write made through this connection
+            getEventBus().attach(connection);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return connection;
     }
 
     /**
@@ -153,7 +238,7 @@ public class DatabaseManager {
     /**
      * Insert default data into tables
      */
-    private static void insertDefaultData() throws SQLException {
+    private static void insertDefaultData(Connection connection) throws SQLException {
         // Check if default admin user exists
         String checkAdminQuery = "SELECT COUNT(*) FROM users WHERE username = 'Toriq'";
         try (Statement stmt = connection.createStatement();
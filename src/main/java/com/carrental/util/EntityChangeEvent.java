@@ -0,0 +1,58 @@
+package com.carrental.util;
+
+/**
+ * A committed change to one row of an entity table, or a notice that a
+ * table was changed by another process and must be reloaded
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+public class EntityChangeEvent {
+
+    public static final String USERS = "users";
+    public static final String CARS = "cars";
+    public static final String CUSTOMERS = "customers";
+    public static final String RENTALS = "rentals";
+
+    public enum Type {
+        INSERT, UPDATE, DELETE,
+        /**
+         * Rows changed outside this application; which ones is unknown
+         */
+        RELOAD
+    }
+
+    private final Type type;
+    private final String table;
+    private final int id;
+
+    public EntityChangeEvent(Type type, String table, int id) {
+        this.type = type;
+        this.table = table;
+        this.id = id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    /**
+     * Id of the changed row, 0 for {@link Type#RELOAD}
+     */
+    public int getId() {
+        return id;
+    }
+
+    public boolean isReload() {
+        return type == Type.RELOAD;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + table + (type == Type.RELOAD ? "" : " #" + id);
+    }
+}
@@ -0,0 +1,95 @@
+package com.carrental.util;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Writes one flat JSON object per line (JSON Lines). Numbers and booleans
+ * are written as JSON literals, null as null and everything else as a string.
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+public class JsonLinesWriter implements Closeable, Flushable {
+
+    private final Writer writer;
+
+    public JsonLinesWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Write one object with the given field names and values
+     */
+    public void writeObject(List<String> names, List<?> values) throws IOException {
+        if (names.size() != values.size()) {
+            throw new IllegalArgumentException("Expected " + names.size() + " values but got " + values.size());
+        }
+
+        writer.write('{');
+        for (int i = 0; i < names.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeString(names.get(i));
+            writer.write(':');
+            writeValue(values.get(i));
+        }
+        writer.write("}\n");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value == null) {
+            writer.write("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            writer.write(value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString());
+        } else {
+            writeString(value.toString());
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+            }
+        }
+        writer.write('"');
+    }
+}
@@ -0,0 +1,139 @@
+package com.carrental.util;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+import com.carrental.model.Page;
+
+/**
+ * Keyset pagination over a table ordered by (created_date DESC, id DESC).
+ *
+ * Instead of OFFSET, each page continues from the (created_date, id) of the
+ * last row seen, so the database seeks straight to it through the
+ * created_date index (which implicitly ends in the rowid) and every page
+ * costs the same no matter how deep it is. Page tokens carry that key and
+ * the direction, encoded so callers treat them as opaque.
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+public final class KeysetPager {
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private static final String NEXT = "n";
+    private static final String PREVIOUS = "p";
+
+    private KeysetPager() {
+    }
+
+    /**
+     * Maps the current row of a result set to an object
+     */
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Fetch one page of the table
+     *
+     * @param pageToken token from a previous page, or null for the first page
+     */
+    public static <T> Page<T> fetch(String table, String pageToken, int pageSize, RowMapper<T> mapper)
+            throws SQLException {
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        String[] key = pageToken != null ? decode(pageToken) : null;
+        boolean backward = key != null && PREVIOUS.equals(key[0]);
+
+        String query;
+        if (key == null) {
+            query = "SELECT * FROM " + table + " ORDER BY created_date DESC, id DESC LIMIT ?";
+        } else if (backward) {
+            query = "SELECT * FROM " + table + " WHERE (created_date, id) > (?, ?) ORDER BY created_date ASC, id ASC LIMIT ?";
+        } else {
+            query = "SELECT * FROM " + table + " WHERE (created_date, id) < (?, ?) ORDER BY created_date DESC, id DESC LIMIT ?";
+        }
+
+        List<T> items = new ArrayList<>();
+        List<String[]> keys = new ArrayList<>();
+
+        try (Connection conn = DatabaseManager.getConnection();
+                PreparedStatement pstmt = conn.prepareStatement(query)) {
+
+            int index = 1;
+            if (key != null) {
+                pstmt.setString(index++, key[1]);
+                pstmt.setInt(index++, Integer.parseInt(key[2]));
+            }
+            // One extra row tells whether another page follows
+            pstmt.setInt(index, pageSize + 1);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    keys.add(new String[] { rs.getString("created_date"), String.valueOf(rs.getInt("id")) });
+                    items.add(mapper.map(rs));
+                }
+            }
+        }
+
+        boolean more = items.size() > pageSize;
+        if (more) {
+            items.remove(pageSize);
+            keys.remove(pageSize);
+        }
+        if (backward) {
+            Collections.reverse(items);
+            Collections.reverse(keys);
+        }
+        if (items.isEmpty()) {
+            return new Page<>(items, null, null);
+        }
+
+        String[] first = keys.get(0);
+        String[] last = keys.get(keys.size() - 1);
+        String nextToken;
+        String previousToken;
+        if (backward) {
+            nextToken = encode(NEXT, last);
+            previousToken = more ? encode(PREVIOUS, first) : null;
+        } else {
+            nextToken = more ? encode(NEXT, last) : null;
+            previousToken = key != null ? encode(PREVIOUS, first) : null;
+        }
+
+        return new Page<>(items, nextToken, previousToken);
+    }
+
+    private static String encode(String direction, String[] key) {
+        String raw = direction + "|" + key[1] + "|" + key[0];
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token into {direction, created_date, id}
+     */
+    private static String[] decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            if (parts.length != 3 || !(NEXT.equals(parts[0]) || PREVIOUS.equals(parts[0]))) {
+                throw new IllegalArgumentException("Invalid page token");
+            }
+            Integer.parseInt(parts[1]);
+            return new String[] { parts[0], parts[2], parts[1] };
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page token", e);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.carrental.util;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Size-bounded cache of database entities with least-recently-used
+ * eviction and an optional time to live.
+ *
+ * Loads run outside the cache lock. A value loaded while its key was
+ * invalidated is returned to the caller but not stored, so an update that
+ * commits during a load never leaves the old row cached. Values are copied
+ * on the way in and out, so callers may modify what they get back.
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+public class LruCache<K, V> {
+
+    /**
+     * Loads one value, or null if there is none
+     */
+    @FunctionalInterface
+    public interface Loader<K, V> {
+        V load(K key) throws SQLException;
+    }
+
+    /**
+     * Loads the values for many keys in one go, leaving out missing ones
+     */
+    @FunctionalInterface
+    public interface BulkLoader<K, V> {
+        List<V> load(Collection<K> keys) throws SQLException;
+    }
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final UnaryOperator<V> copier;
+    private final LinkedHashMap<K, CacheEntry<V>> entries;
+
+    // Table whose external changes clear the cache, and the bus that reports them
+    private volatile String reloadTable;
+    private ChangeEventBus subscribedBus;
+
+    // Guarded by this
+    private long generation = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long expirations = 0;
+
+    /**
+     * @param ttlMillis how long an entry stays valid, 0 for no limit
+     * @param copier    copies a value so the cached instance is never shared
+     */
+    public LruCache(String name, int maxSize, long ttlMillis, UnaryOperator<V> copier) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be greater than 0");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.copier = copier;
+        // Access order: every hit moves the entry to the young end
+        this.entries = new LinkedHashMap<K, CacheEntry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                if (size() > LruCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Clear the whole cache whenever another process changes the table.
+     * Writes made through this application must invalidate their own keys.
+     */
+    public LruCache<K, V> clearOnReload(String table) {
+        this.reloadTable = table;
+        return this;
+    }
+
+    /**
+     * Get a value, loading and caching it on a miss
+     */
+    public V get(K key, Loader<K, V> loader) throws SQLException {
+        long loadGeneration;
+        synchronized (this) {
+            V cached = lookup(key);
+            if (cached != null) {
+                hits++;
+                return copier.apply(cached);
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+
+        subscribeForReloads();
+        V loaded = loader.load(key);
+        if (loaded != null) {
+            synchronized (this) {
+                if (loadGeneration == generation) {
+                    store(key, loaded);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Get the values for many keys in the order given, loading all misses
+     * with a single call. Keys with no value are left out.
+     */
+    public List<V> getAll(Collection<K> keys, BulkLoader<K, V> loader, Function<V, K> keyOf) throws SQLException {
+        Map<K, V> found = new HashMap<>();
+        Set<K> missing = new LinkedHashSet<>();
+        long loadGeneration;
+        synchronized (this) {
+            for (K key : keys) {
+                V cached = lookup(key);
+                if (cached != null) {
+                    hits++;
+                    found.put(key, copier.apply(cached));
+                } else if (missing.add(key)) {
+                    misses++;
+                }
+            }
+            loadGeneration = generation;
+        }
+
+        if (!missing.isEmpty()) {
+            subscribeForReloads();
+            List<V> loaded = loader.load(missing);
+            synchronized (this) {
+                for (V value : loaded) {
+                    found.put(keyOf.apply(value), value);
+                    if (loadGeneration == generation) {
+                        store(keyOf.apply(value), value);
+                    }
+                }
+            }
+        }
+
+        List<V> values = new ArrayList<>();
+        for (K key : keys) {
+            V value = found.get(key);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Drop one entry, e.g. after the row was updated or deleted
+     */
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+        generation++;
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        generation++;
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(name, entries.size(), maxSize, hits, misses, evictions, expirations);
+    }
+
+    private void subscribeForReloads() {
+        String table = reloadTable;
+        if (table == null) {
+            return;
+        }
+        // A new bus is created after the database is reopened
+        ChangeEventBus bus = DatabaseManager.getEventBus();
+        synchronized (this) {
+            if (bus == subscribedBus) {
+                return;
+            }
+            subscribedBus = bus;
+        }
+        bus.subscribe(events -> {
+            for (EntityChangeEvent event : events) {
+                if (event.isReload()) {
+                    invalidateAll();
+                    return;
+                }
+            }
+        }, table);
+    }
+
+    private V lookup(K key) {
+        CacheEntry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (ttlNanos > 0 && System.nanoTime() - entry.storedAt > ttlNanos) {
+            entries.remove(key);
+            expirations++;
+            return null;
+        }
+        return entry.value;
+    }
+
+    private void store(K key, V value) {
+        entries.put(key, new CacheEntry<>(copier.apply(value), System.nanoTime()));
+    }
+
+    private static class CacheEntry<V> {
+        private final V value;
+        private final long storedAt;
+
+        CacheEntry(V value, long storedAt) {
+            this.value = value;
+            this.storedAt = storedAt;
+        }
+    }
+
+    /**
+     * Inner class for cache statistics
+     */
+    public static class CacheStats {
+        private final String name;
+        private final int size;
+        private final int maxSize;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long expirations;
+
+        public CacheStats(String name, int size, int maxSize, long hits, long misses, long evictions,
+                long expirations) {
+            this.name = name;
+            this.size = size;
+            this.maxSize = maxSize;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public long getExpirations() {
+            return expirations;
+        }
+
+        /**
+         * Fraction of lookups answered from the cache
+         */
+        public double getHitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("CacheStats[%s: size=%d/%d, hits=%d, misses=%d, evictions=%d, expired=%d]",
+                    name, size, maxSize, hits, misses, evictions, expirations);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.carrental.util;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cache of query results keyed by SQL text and bound parameters.
+ *
+ * Each result is tagged with the tables it reads and the version of each
+ * table when the query started. A table's version moves whenever the
+ * {@link ChangeDetector} sees its counter move, and twice for each of our
+ * own commits touching it: when SQLite starts the commit and again once
+ * the commit is visible. A result is served only while none of its tables
+ * has changed; checking that costs a few map lookups.
+ *
+ * A read that starts between the two moves may still see the old rows, but
+ * it is tagged with the first version, so the second move retires it as
+ * soon as the commit is visible. Results with more rows than the row limit
+ * are not kept.
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+public class QueryCache {
+
+    /**
+     * Runs the query on a miss
+     */
+    @FunctionalInterface
+    public interface Query<T> {
+        T run() throws SQLException;
+    }
+
+    private final int maxEntries;
+    private final int maxRows;
+    private final LinkedHashMap<List<Object>, CacheEntry> entries;
+
+    // Guarded by this
+    private final Map<String, Long> tableVersions = new HashMap<>();
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long stale = 0;
+
+    /**
+     * @param maxEntries number of results kept, 0 disables the cache
+     * @param maxRows    largest list result that is kept
+     */
+    public QueryCache(int maxEntries, int maxRows) {
+        this.maxEntries = maxEntries;
+        this.maxRows = maxRows;
+        this.entries = new LinkedHashMap<List<Object>, CacheEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, CacheEntry> eldest) {
+                if (size() > QueryCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get the rows of a query, running it only if the cached rows are missing
+     * or one of the tables changed. Each row is copied on the way in and out.
+     *
+     * @param params the values bound to the statement, in order
+     * @param tables every table the query reads
+     */
+    public <T> List<T> list(String sql, List<?> params, UnaryOperator<T> copier, Query<List<T>> query,
+            String... tables) throws SQLException {
+        return get(sql, params, rows -> copies(rows, copier), query, tables);
+    }
+
+    /**
+     * Get the result of a query returning one immutable value, such as a sum
+     */
+    public <T> T value(String sql, List<?> params, Query<T> query, String... tables) throws SQLException {
+        return get(sql, params, UnaryOperator.identity(), query, tables);
+    }
+
+    /**
+     * Change detector and commit callback: every cached result reading one
+     * of these tables is out of date
+     */
+    public void tablesChanged(Map<String, Long> changes) {
+        invalidate(changes.keySet().toArray(new String[0]));
+    }
+
+    /**
+     * Retire every cached result reading one of the tables. Needed after
+     * writing a table that neither hook reports, such as a WITHOUT ROWID one.
+     */
+    public synchronized void invalidate(String... tables) {
+        for (String table : tables) {
+            tableVersions.merge(table, 1L, Long::sum);
+        }
+    }
+
+    public synchronized QueryCacheStats getStats() {
+        return new QueryCacheStats(entries.size(), maxEntries, hits, misses, evictions, stale);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(String sql, List<?> params, UnaryOperator<T> copier, Query<T> query, String... tables)
+            throws SQLException {
+        if (maxEntries <= 0) {
+            return query.run();
+        }
+
+        List<Object> key = new ArrayList<>(params.size() + 1);
+        key.add(sql);
+        key.addAll(params);
+
+        long[] versions;
+        synchronized (this) {
+            CacheEntry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.isCurrent()) {
+                    hits++;
+                    return copier.apply((T) entry.result);
+                }
+                entries.remove(key);
+                stale++;
+            }
+            misses++;
+            versions = versionsOf(tables);
+        }
+
+        // Versions are taken before the query, so a result that a write overtook is not kept
+        T result = query.run();
+        if (result instanceof Collection && ((Collection<?>) result).size() > maxRows) {
+            return result;
+        }
+        synchronized (this) {
+            if (Arrays.equals(versions, versionsOf(tables))) {
+                entries.put(key, new CacheEntry(copier.apply(result), tables, versions));
+            }
+        }
+        return result;
+    }
+
+    private long[] versionsOf(String[] tables) {
+        long[] versions = new long[tables.length];
+        for (int i = 0; i < tables.length; i++) {
+            versions[i] = tableVersions.getOrDefault(tables[i], 0L);
+        }
+        return versions;
+    }
+
+    private static <T> List<T> copies(List<T> rows, UnaryOperator<T> copier) {
+        List<T> copies = new ArrayList<>(rows.size());
+        for (T row : rows) {
+            copies.add(copier.apply(row));
+        }
+        return copies;
+    }
+
+    private class CacheEntry {
+        private final Object result;
+        private final String[] tables;
+        private final long[] versions;
+
+        CacheEntry(Object result, String[] tables, long[] versions) {
+            this.result = result;
+            this.tables = tables;
+            this.versions = versions;
+        }
+
+        // Called with the cache lock held
+        boolean isCurrent() {
+            for (int i = 0; i < tables.length; i++) {
+                if (tableVersions.getOrDefault(tables[i], 0L) != versions[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Inner class for query cache statistics
+     */
+    public static class QueryCacheStats {
+        private final int size;
+        private final int maxEntries;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long stale;
+
+        public QueryCacheStats(int size, int maxEntries, long hits, long misses, long evictions, long stale) {
+            this.size = size;
+            this.maxEntries = maxEntries;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.stale = stale;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /**
+         * Results dropped because a table they read changed
+         */
+        public long getStale() {
+            return stale;
+        }
+
+        /**
+         * Fraction of lookups answered from the cache
+         */
+        public double getHitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("QueryCacheStats[size=%d/%d, hits=%d, misses=%d, evictions=%d, stale=%d]",
+                    size, maxEntries, hits, misses, evictions, stale);
+        }
+    }
+}
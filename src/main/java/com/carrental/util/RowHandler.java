@@ -0,0 +1,14 @@
+package com.carrental.util;
+
+import java.io.IOException;
+
+/**
+ * Receives rows one at a time from a streaming query
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+@FunctionalInterface
+public interface RowHandler<T> {
+    void handle(T row) throws IOException;
+}
@@ -0,0 +1,356 @@
+package com.carrental.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Versioned schema migrations.
+ *
+ * Applied versions are recorded in the {@code schema_version} table. On
+ * startup every migration newer than the recorded version is applied in
+ * order, each in its own transaction. Migrations are append-only: never
+ * edit one that has shipped, add a new version instead.
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+public class SchemaMigrator {
+
+    // start_date is stored as epoch milliseconds at local midnight
+    private static final String START_DAY = "date(%s.start_date / 1000, 'unixepoch', 'localtime')";
+    private static final String CENTS = "CAST(ROUND(%s.total_cost * 100) AS INTEGER)";
+
+    private static final String ROLLUP_ADD_NEW = String.format("""
+            INSERT INTO daily_revenue (day, staff_id, car_id, rental_count, revenue_cents)
+            SELECT %s, NEW.staff_id, NEW.car_id, 1, %s WHERE NEW.status = 'COMPLETED'
+            ON CONFLICT (day, staff_id, car_id) DO UPDATE SET
+                rental_count = rental_count + 1,
+                revenue_cents = revenue_cents + excluded.revenue_cents;
+            """, String.format(START_DAY, "NEW"), String.format(CENTS, "NEW"));
+
+    private static final String ROLLUP_REMOVE_OLD = String.format("""
+            UPDATE daily_revenue SET rental_count = rental_count - 1, revenue_cents = revenue_cents - %s
+            WHERE OLD.status = 'COMPLETED' AND day = %s AND staff_id = OLD.staff_id AND car_id = OLD.car_id;
+            DELETE FROM daily_revenue
+            WHERE OLD.status = 'COMPLETED' AND day = %s AND staff_id = OLD.staff_id AND car_id = OLD.car_id
+                AND rental_count <= 0;
+            """, String.format(CENTS, "OLD"), String.format(START_DAY, "OLD"), String.format(START_DAY, "OLD"));
+
+    private static final String COUNT_ADD_NEW = """
+            INSERT INTO rental_counts (status, total) VALUES (NEW.status, 1)
+            ON CONFLICT (status) DO UPDATE SET total = total + 1;
+            """;
+
+    private static final String COUNT_REMOVE_OLD = """
+            UPDATE rental_counts SET total = total - 1 WHERE status = OLD.status;
+            """;
+
+    /**
+     * Revenue rollup maintained by triggers on the rentals table
+     */
+    public static final String DAILY_REVENUE = "daily_revenue";
+
+    /**
+     * Recompute the daily_revenue rollup from the rentals table
+     */
+    public static final String REBUILD_DAILY_REVENUE = String.format("""
+            INSERT INTO daily_revenue (day, staff_id, car_id, rental_count, revenue_cents)
+            SELECT %s, r.staff_id, r.car_id, COUNT(*), SUM(%s)
+            FROM rentals r WHERE r.status = 'COMPLETED'
+            GROUP BY 1, 2, 3
+            """, String.format(START_DAY, "r"), String.format(CENTS, "r"));
+
+    private static final List<Migration> MIGRATIONS = Arrays.asList(
+            new Migration(1, "Baseline schema",
+                    // Users table
+                    """
+                            CREATE TABLE IF NOT EXISTS users (
+                                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                                username VARCHAR(50) UNIQUE NOT NULL,
+                                password VARCHAR(255) NOT NULL,
+                                role VARCHAR(20) NOT NULL CHECK (role IN ('ADMIN', 'STAFF')),
+                                created_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                            )
+                            """,
+
+                    // Cars table
+                    """
+                            CREATE TABLE IF NOT EXISTS cars (
+                                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                                make VARCHAR(50) NOT NULL,
+                                model VARCHAR(50) NOT NULL,
+                                year INTEGER NOT NULL,
+                                license_plate VARCHAR(20) UNIQUE NOT NULL,
+                                color VARCHAR(30) NOT NULL,
+                                status VARCHAR(20) NOT NULL DEFAULT 'AVAILABLE'
+                                    CHECK (status IN ('AVAILABLE', 'RENTED', 'MAINTENANCE')),
+                                daily_rate DECIMAL(10,2) NOT NULL,
+                                created_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                            )
+                            """,
+
+                    // Customers table
+                    """
+                            CREATE TABLE IF NOT EXISTS customers (
+                                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                                name VARCHAR(100) NOT NULL,
+                                email VARCHAR(100) UNIQUE NOT NULL,
+                                phone VARCHAR(20) NOT NULL,
+                                address TEXT NOT NULL,
+                                created_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                            )
+                            """,
+
+                    // Rentals table
+                    """
+                            CREATE TABLE IF NOT EXISTS rentals (
+                                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                                car_id INTEGER NOT NULL,
+                                customer_id INTEGER NOT NULL,
+                                staff_id INTEGER NOT NULL,
+                                start_date DATE NOT NULL,
+                                end_date DATE NOT NULL,
+                                total_cost DECIMAL(10,2) NOT NULL,
+                                status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE'
+                                    CHECK (status IN ('ACTIVE', 'COMPLETED', 'CANCELLED')),
+                                created_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                                FOREIGN KEY (car_id) REFERENCES cars(id),
+                                FOREIGN KEY (customer_id) REFERENCES customers(id),
+                                FOREIGN KEY (staff_id) REFERENCES users(id)
+                            )
+                            """),
+
+            new Migration(2, "Indexes for DAO query shapes",
+                    // getRentalsByStatus / getActiveRentals ordered by created_date, and
+                    // getTotalRevenue / getRevenueByDateRange answered from the index alone
+                    "CREATE INDEX IF NOT EXISTS idx_rentals_status_created ON rentals (status, created_date, total_cost)",
+                    // getRevenueByStaffId answered from the index alone
+                    "CREATE INDEX IF NOT EXISTS idx_rentals_staff_status ON rentals (staff_id, status, total_cost)",
+                    // getRentalsByCarId / getRentalsByCustomerId ordered by created_date
+                    "CREATE INDEX IF NOT EXISTS idx_rentals_car_created ON rentals (car_id, created_date)",
+                    "CREATE INDEX IF NOT EXISTS idx_rentals_customer_created ON rentals (customer_id, created_date)",
+                    // getAllRentals ORDER BY created_date DESC
+                    "CREATE INDEX IF NOT EXISTS idx_rentals_created ON rentals (created_date)",
+                    // getRentalsByDateRange: start_date/end_date ranges combined with OR
+                    "CREATE INDEX IF NOT EXISTS idx_rentals_start_date ON rentals (start_date)",
+                    "CREATE INDEX IF NOT EXISTS idx_rentals_end_date ON rentals (end_date)",
+                    // getCarsByStatus / getAvailableCars and getAllCars ordered by created_date
+                    "CREATE INDEX IF NOT EXISTS idx_cars_status_created ON cars (status, created_date)",
+                    "CREATE INDEX IF NOT EXISTS idx_cars_created ON cars (created_date)",
+                    // getAllCustomers ordered by created_date
+                    "CREATE INDEX IF NOT EXISTS idx_customers_created ON customers (created_date)",
+                    // getUsersByRole and getAllUsers ordered by created_date
+                    "CREATE INDEX IF NOT EXISTS idx_users_role_created ON users (role, created_date)",
+                    "CREATE INDEX IF NOT EXISTS idx_users_created ON users (created_date)",
+                    // AuthenticationService compares LOWER(username)
+                    "CREATE INDEX IF NOT EXISTS idx_users_username_lower ON users (LOWER(username))"),
+
+            new Migration(3, "Daily revenue rollup",
+                    // Completed revenue per rental start day, staff member and car, in whole cents
+                    """
+                            CREATE TABLE IF NOT EXISTS daily_revenue (
+                                day TEXT NOT NULL,
+                                staff_id INTEGER NOT NULL,
+                                car_id INTEGER NOT NULL,
+                                rental_count INTEGER NOT NULL,
+                                revenue_cents INTEGER NOT NULL,
+                                PRIMARY KEY (day, staff_id, car_id)
+                            ) WITHOUT ROWID
+                            """,
+                    // getRevenueByStaffId
+                    "CREATE INDEX IF NOT EXISTS idx_daily_revenue_staff ON daily_revenue (staff_id, day)",
+                    // The triggers run inside the statement that changes the rental, so the
+                    // rollup commits or rolls back together with it
+                    """
+                            CREATE TRIGGER IF NOT EXISTS trg_rentals_revenue_insert
+                            AFTER INSERT ON rentals WHEN NEW.status = 'COMPLETED'
+                            BEGIN
+                            """ + ROLLUP_ADD_NEW + """
+                            END
+                            """,
+                    """
+                            CREATE TRIGGER IF NOT EXISTS trg_rentals_revenue_update
+                            AFTER UPDATE OF status, total_cost, start_date, staff_id, car_id ON rentals
+                            WHEN OLD.status = 'COMPLETED' OR NEW.status = 'COMPLETED'
+                            BEGIN
+                            """ + ROLLUP_REMOVE_OLD + ROLLUP_ADD_NEW + """
+                            END
+                            """,
+                    """
+                            CREATE TRIGGER IF NOT EXISTS trg_rentals_revenue_delete
+                            AFTER DELETE ON rentals WHEN OLD.status = 'COMPLETED'
+                            BEGIN
+                            """ + ROLLUP_REMOVE_OLD + """
+                            END
+                            """,
+                    // Backfill from existing rentals
+                    REBUILD_DAILY_REVENUE),
+
+            new Migration(4, "Per-table change counters",
+                    changeCounterStatements("users", "cars", "customers", "rentals")),
+
+            new Migration(5, "Rental counts by status",
+                    // Lets the rental list size itself without counting the rentals table
+                    """
+                            CREATE TABLE IF NOT EXISTS rental_counts (
+                                status TEXT PRIMARY KEY,
+                                total INTEGER NOT NULL
+                            ) WITHOUT ROWID
+                            """,
+                    """
+                            CREATE TRIGGER IF NOT EXISTS trg_rentals_count_insert
+                            AFTER INSERT ON rentals
+                            BEGIN
+                            """ + COUNT_ADD_NEW + """
+                            END
+                            """,
+                    """
+                            CREATE TRIGGER IF NOT EXISTS trg_rentals_count_update
+                            AFTER UPDATE OF status ON rentals WHEN OLD.status IS NOT NEW.status
+                            BEGIN
+                            """ + COUNT_REMOVE_OLD + COUNT_ADD_NEW + """
+                            END
+                            """,
+                    """
+                            CREATE TRIGGER IF NOT EXISTS trg_rentals_count_delete
+                            AFTER DELETE ON rentals
+                            BEGIN
+                            """ + COUNT_REMOVE_OLD + """
+                            END
+                            """,
+                    // Backfill from existing rentals
+                    "DELETE FROM rental_counts",
+                    "INSERT INTO rental_counts (status, total) SELECT status, COUNT(*) FROM rentals GROUP BY status"));
+
+    /**
+     * Create the table_versions table and, for each given table, triggers
+     * that bump its counter on every insert, update and delete. The bump runs
+     * inside the changing statement, so it commits or rolls back with it.
+     */
+    private static String[] changeCounterStatements(String... tables) {
+        List<String> statements = new ArrayList<>();
+        statements.add("""
+                CREATE TABLE IF NOT EXISTS table_versions (
+                    table_name TEXT PRIMARY KEY,
+                    version INTEGER NOT NULL DEFAULT 0
+                ) WITHOUT ROWID
+                """);
+
+        for (String table : tables) {
+            statements.add("INSERT OR IGNORE INTO table_versions (table_name, version) VALUES ('" + table + "', 0)");
+            for (String event : new String[] { "INSERT", "UPDATE", "DELETE" }) {
+                statements.add(String.format("""
+                        CREATE TRIGGER IF NOT EXISTS trg_%1$s_version_%2$s
+                        AFTER %3$s ON %1$s
+                        BEGIN
+                            UPDATE table_versions SET version = version + 1 WHERE table_name = '%1$s';
+                        END
+                        """, table, event.toLowerCase(Locale.ROOT), event));
+            }
+        }
+
+        return statements.toArray(new String[0]);
+    }
+
+    /**
+     * Bring the schema up to the latest version
+     */
+    public static void migrate(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS schema_version (
+                        version INTEGER PRIMARY KEY,
+                        description TEXT NOT NULL,
+                        applied_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                    )
+                    """);
+        }
+
+        int currentVersion = getCurrentVersion(connection);
+        int applied = 0;
+
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version > currentVersion) {
+                apply(connection, migration);
+                applied++;
+            }
+        }
+
+        if (applied > 0) {
+            // Refresh planner statistics for the new indexes
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("PRAGMA optimize");
+            }
+            System.out.println("Applied " + applied + " schema migration(s), now at version " + getLatestVersion());
+        }
+    }
+
+    /**
+     * Get the highest applied schema version, 0 for a new database
+     */
+    public static int getCurrentVersion(Connection connection) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement("SELECT MAX(version) FROM schema_version");
+                ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Get the version the code expects
+     */
+    public static int getLatestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    private static void apply(Connection connection, Migration migration) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+
+        try (Statement stmt = connection.createStatement()) {
+            for (String sql : migration.statements) {
+                stmt.execute(sql);
+            }
+
+            try (PreparedStatement pstmt = connection
+                    .prepareStatement("INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+                pstmt.setInt(1, migration.version);
+                pstmt.setString(2, migration.description);
+                pstmt.executeUpdate();
+            }
+
+            connection.commit();
+        } catch (SQLException e) {
+            try {
+                connection.rollback();
+            } catch (SQLException rollbackEx) {
+                System.err.println("Error rolling back migration: " + rollbackEx.getMessage());
+            }
+            throw new SQLException("Schema migration " + migration.version + " (" + migration.description
+                    + ") failed: " + e.getMessage(), e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * A numbered, ordered list of SQL statements
+     */
+    private static class Migration {
+        private final int version;
+        private final String description;
+        private final String[] statements;
+
+        Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = statements;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.carrental.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache of prepared statements for a single physical connection, keyed
+ * by SQL text.
+ *
+ * Statements handed out by {@link #prepare(String)} are proxies: calling
+ * {@code close()} resets the statement and keeps it for the next caller
+ * instead of finalizing it, so repeated queries skip SQLite's parse/plan step.
+ * A cache is only ever used by the thread that currently holds its
+ * connection, so it needs no locking of its own.
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+public class StatementCache {
+
+    private final Connection connection;
+    private final int maxSize;
+    private final Counters counters;
+    private final LinkedHashMap<String, CachedStatement> statements;
+
+    public StatementCache(Connection connection, int maxSize, Counters counters) {
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.counters = counters;
+        // Access-ordered so iteration starts at the least recently used statement
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Get a prepared statement for the SQL, reusing a cached one when possible
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        if (maxSize <= 0) {
+            return connection.prepareStatement(sql);
+        }
+
+        CachedStatement cached = statements.get(sql);
+        if (cached != null && !cached.inUse) {
+            counters.hits.incrementAndGet();
+            cached.inUse = true;
+            return cached.proxy;
+        }
+
+        counters.misses.incrementAndGet();
+        PreparedStatement statement = connection.prepareStatement(sql);
+        if (cached != null) {
+            // Same SQL is already open on this connection (nested use), don't cache the second copy
+            return statement;
+        }
+
+        cached = new CachedStatement(statement);
+        cached.inUse = true;
+        statements.put(sql, cached);
+        evictIfNeeded();
+        return cached.proxy;
+    }
+
+    /**
+     * Close every cached statement, called before the physical connection is closed
+     */
+    public void closeAll() {
+        for (CachedStatement cached : statements.values()) {
+            closeQuietly(cached.statement);
+        }
+        statements.clear();
+    }
+
+    private void evictIfNeeded() {
+        Iterator<CachedStatement> iterator = statements.values().iterator();
+        while (statements.size() > maxSize && iterator.hasNext()) {
+            CachedStatement eldest = iterator.next();
+            if (!eldest.inUse) {
+                iterator.remove();
+                closeQuietly(eldest.statement);
+                counters.evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing cached statement: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Hit/miss/eviction counters shared by all caches of a pool
+     */
+    public static class Counters {
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong evictions = new AtomicLong();
+
+        public long getHits() {
+            return hits.get();
+        }
+
+        public long getMisses() {
+            return misses.get();
+        }
+
+        public long getEvictions() {
+            return evictions.get();
+        }
+    }
+
+    /**
+     * Cached statement plus the proxy handed out to callers
+     */
+    private class CachedStatement implements InvocationHandler {
+        private final PreparedStatement statement;
+        private final PreparedStatement proxy;
+        private boolean inUse = false;
+
+        CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                    StatementCache.class.getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class },
+                    this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (inUse) {
+                        release();
+                    }
+                    return null;
+                case "isClosed":
+                    return !inUse || statement.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + statement + "]";
+                default:
+                    break;
+            }
+
+            if (!inUse) {
+                throw new SQLException("Statement has already been closed");
+            }
+
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * Reset the statement so it holds no bindings, cursor or read lock
+         */
+        private void release() {
+            inUse = false;
+            try {
+                ResultSet resultSet = statement.getResultSet();
+                if (resultSet != null) {
+                    resultSet.close();
+                }
+                statement.clearParameters();
+                statement.clearBatch();
+            } catch (SQLException e) {
+                // A statement that cannot be reset is not safe to reuse
+                statements.values().remove(this);
+                closeQuietly(statement);
+            }
+            evictIfNeeded();
+        }
+    }
+}
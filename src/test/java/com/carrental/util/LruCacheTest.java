@@ -0,0 +1,183 @@
+package com.carrental.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for LruCache, using StringBuilder values so copies can be told apart
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+class LruCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private LruCache<Integer, StringBuilder> newCache(int maxSize, long ttlMillis) {
+        return new LruCache<>("test", maxSize, ttlMillis, StringBuilder::new);
+    }
+
+    private StringBuilder load(int key) {
+        loads.incrementAndGet();
+        return new StringBuilder("value " + key);
+    }
+
+    @Test
+    void rejectsNonPositiveSize() {
+        assertThrows(IllegalArgumentException.class, () -> newCache(0, 0));
+    }
+
+    @Test
+    void countsHitsAndMisses() throws Exception {
+        LruCache<Integer, StringBuilder> cache = newCache(10, 0);
+
+        cache.get(1, this::load);
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+
+        LruCache.CacheStats stats = cache.getStats();
+        assertEquals(2, loads.get());
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(2, stats.getSize());
+        assertEquals(1.0 / 3, stats.getHitRatio(), 1e-9);
+    }
+
+    @Test
+    void doesNotCacheMissingValues() throws Exception {
+        LruCache<Integer, StringBuilder> cache = newCache(10, 0);
+
+        cache.get(1, key -> null);
+
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    void callersGetTheirOwnCopies() throws Exception {
+        LruCache<Integer, StringBuilder> cache = newCache(10, 0);
+
+        StringBuilder loaded = cache.get(1, this::load);
+        loaded.append(" changed by loader's caller");
+        StringBuilder first = cache.get(1, this::load);
+        first.append(" changed by first caller");
+        StringBuilder second = cache.get(1, this::load);
+
+        assertNotSame(first, second);
+        assertEquals("value 1", second.toString());
+    }
+
+    @Test
+    void invalidateForcesReload() throws Exception {
+        LruCache<Integer, StringBuilder> cache = newCache(10, 0);
+
+        cache.get(1, this::load);
+        cache.invalidate(1);
+        cache.get(1, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void valueLoadedAcrossAnInvalidationIsNotStored() throws Exception {
+        LruCache<Integer, StringBuilder> cache = newCache(10, 0);
+
+        // The row is updated and invalidated while the old version is being read
+        StringBuilder stale = cache.get(1, key -> {
+            cache.invalidate(key);
+            return new StringBuilder("old");
+        });
+        StringBuilder fresh = cache.get(1, key -> new StringBuilder("new"));
+
+        assertEquals("old", stale.toString());
+        assertEquals("new", fresh.toString());
+    }
+
+    @Test
+    void bulkLoadAcrossAnInvalidationIsNotStored() throws Exception {
+        LruCache<Integer, StringBuilder> cache = newCache(10, 0);
+
+        cache.getAll(Arrays.asList(1, 2), keys -> {
+            cache.invalidateAll();
+            return loadAll(keys);
+        }, LruCacheTest::keyOf);
+
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    void expiredEntriesAreReloadedAndCounted() throws Exception {
+        LruCache<Integer, StringBuilder> cache = newCache(10, 1);
+
+        cache.get(1, this::load);
+        Thread.sleep(20);
+        cache.get(1, this::load);
+
+        LruCache.CacheStats stats = cache.getStats();
+        assertEquals(2, loads.get());
+        assertEquals(1, stats.getExpirations());
+        assertEquals(2, stats.getMisses());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() throws Exception {
+        LruCache<Integer, StringBuilder> cache = newCache(2, 0);
+
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+        cache.get(1, this::load); // 2 is now the eldest
+        cache.get(3, this::load);
+        loads.set(0);
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+
+        assertEquals(1, loads.get());
+        // Loading 3 evicted 2, and reloading 2 evicted 3
+        assertEquals(2, cache.getStats().getEvictions());
+        assertEquals(2, cache.getStats().getSize());
+    }
+
+    @Test
+    void getAllLoadsOnlyMissesInOneCall() throws Exception {
+        LruCache<Integer, StringBuilder> cache = newCache(10, 0);
+        List<Collection<Integer>> calls = new ArrayList<>();
+
+        cache.get(2, this::load);
+        List<StringBuilder> values = cache.getAll(Arrays.asList(3, 2, 1, 3, 4), keys -> {
+            calls.add(new ArrayList<>(keys));
+            List<StringBuilder> found = loadAll(keys);
+            found.removeIf(value -> keyOf(value) == 4); // 4 does not exist
+            return found;
+        }, LruCacheTest::keyOf);
+
+        assertEquals(1, calls.size());
+        assertEquals(Arrays.asList(3, 1, 4), calls.get(0));
+        List<String> texts = new ArrayList<>();
+        for (StringBuilder value : values) {
+            texts.add(value.toString());
+        }
+        assertEquals(Arrays.asList("value 3", "value 2", "value 1", "value 3"), texts);
+        assertEquals(3, cache.getStats().getSize());
+        assertEquals(1, cache.getStats().getHits());
+    }
+
+    private static List<StringBuilder> loadAll(Collection<Integer> keys) {
+        List<StringBuilder> values = new ArrayList<>();
+        for (int key : keys) {
+            values.add(new StringBuilder("value " + key));
+        }
+        return values;
+    }
+
+    private static Integer keyOf(StringBuilder value) {
+        return Integer.valueOf(value.substring("value ".length()));
+    }
+}
@@ -0,0 +1,159 @@
+package com.carrental.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for QueryCache, counting how often each query really runs
+ *
+ * @author Md Toriqul Islam
+ * @version 1.0.0
+ */
+class QueryCacheTest {
+
+    private static final String CARS_SQL = "SELECT * FROM cars WHERE status = ?";
+    private static final String RENTALS_SQL = "SELECT * FROM rentals JOIN cars ON cars.id = rentals.car_id";
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    private List<StringBuilder> cars(QueryCache cache, String status) throws Exception {
+        return cache.list(CARS_SQL, Collections.singletonList(status), StringBuilder::new, () -> {
+            runs.incrementAndGet();
+            return new ArrayList<>(Arrays.asList(new StringBuilder("car 1"), new StringBuilder("car 2")));
+        }, "cars");
+    }
+
+    private long rentals(QueryCache cache) throws Exception {
+        return cache.value(RENTALS_SQL, Collections.emptyList(), () -> (long) runs.incrementAndGet(),
+                "rentals", "cars");
+    }
+
+    @Test
+    void countsHitsAndMisses() throws Exception {
+        QueryCache cache = new QueryCache(10, 100);
+
+        cars(cache, "AVAILABLE");
+        cars(cache, "AVAILABLE");
+        cars(cache, "RENTED");
+
+        QueryCache.QueryCacheStats stats = cache.getStats();
+        assertEquals(2, runs.get());
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(2, stats.getSize());
+    }
+
+    @Test
+    void callersGetTheirOwnRows() throws Exception {
+        QueryCache cache = new QueryCache(10, 100);
+
+        List<StringBuilder> first = cars(cache, "AVAILABLE");
+        first.get(0).append(" changed");
+        List<StringBuilder> second = cars(cache, "AVAILABLE");
+
+        assertNotSame(first.get(0), second.get(0));
+        assertEquals("car 1", second.get(0).toString());
+    }
+
+    @Test
+    void invalidateRetiresResultsReadingTheTable() throws Exception {
+        QueryCache cache = new QueryCache(10, 100);
+
+        cars(cache, "AVAILABLE");
+        rentals(cache);
+        cache.invalidate("rentals");
+        cars(cache, "AVAILABLE");
+        long count = rentals(cache);
+
+        assertEquals(3, runs.get());
+        assertEquals(3, count);
+        assertEquals(1, cache.getStats().getStale());
+    }
+
+    @Test
+    void tablesChangedRetiresResultsReadingAnyOfThem() throws Exception {
+        QueryCache cache = new QueryCache(10, 100);
+
+        cars(cache, "AVAILABLE");
+        rentals(cache);
+        cache.tablesChanged(Collections.singletonMap("cars", 7L));
+        cars(cache, "AVAILABLE");
+        rentals(cache);
+
+        assertEquals(4, runs.get());
+        assertEquals(2, cache.getStats().getStale());
+    }
+
+    @Test
+    void resultOvertakenByAWriteIsNotKept() throws Exception {
+        QueryCache cache = new QueryCache(10, 100);
+
+        // A commit touching cars lands while the query is reading
+        cache.list(CARS_SQL, Collections.singletonList("AVAILABLE"), StringBuilder::new, () -> {
+            runs.incrementAndGet();
+            cache.invalidate("cars");
+            return new ArrayList<>(Collections.singletonList(new StringBuilder("old car")));
+        }, "cars");
+        cars(cache, "AVAILABLE");
+
+        assertEquals(2, runs.get());
+        assertEquals(0, cache.getStats().getHits());
+    }
+
+    @Test
+    void writeToAnUnrelatedTableKeepsTheResult() throws Exception {
+        QueryCache cache = new QueryCache(10, 100);
+
+        cars(cache, "AVAILABLE");
+        cache.invalidate("customers");
+        cars(cache, "AVAILABLE");
+
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void resultsOverTheRowLimitAreNotKept() throws Exception {
+        QueryCache cache = new QueryCache(10, 1);
+
+        cars(cache, "AVAILABLE");
+        cars(cache, "AVAILABLE");
+
+        assertEquals(2, runs.get());
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    void zeroEntriesRunsEveryQuery() throws Exception {
+        QueryCache cache = new QueryCache(0, 100);
+
+        cars(cache, "AVAILABLE");
+        cars(cache, "AVAILABLE");
+
+        assertEquals(2, runs.get());
+        assertEquals(0, cache.getStats().getMisses());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() throws Exception {
+        QueryCache cache = new QueryCache(2, 100);
+
+        cars(cache, "AVAILABLE");
+        cars(cache, "RENTED");
+        cars(cache, "AVAILABLE"); // RENTED is now the eldest
+        cars(cache, "MAINTENANCE");
+        runs.set(0);
+        cars(cache, "AVAILABLE");
+        cars(cache, "RENTED");
+
+        assertEquals(1, runs.get());
+        assertEquals(2, cache.getStats().getEvictions());
+    }
+}